@@ -0,0 +1,369 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import ca.mcgill.cs.jetuml.application.FileExtensions;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.persistence.PersistenceService;
+import ca.mcgill.cs.jetuml.views.ImageCreator;
+import javafx.application.Platform;
+
+/**
+ * Command-line tool to render diagram files as PNG images without opening 
+ * the user interface. Run with:
+ * 
+ * BatchRenderer [-o output-directory] [-j threads] input...
+ * 
+ * where each input is a diagram file, a directory to search recursively for 
+ * diagram files, or a glob pattern such as docs/*.jet. Images are written 
+ * next to their diagram file, or, if an output directory is given, in the 
+ * same relative location under the output directory. A file designated by 
+ * more than one input is only rendered once. Files that would be rendered 
+ * to the same image, such as a.class.jet and a.class.jetb, are not rendered,
+ * and are reported as failures.
+ * 
+ * Diagrams are loaded, drawn, and their images encoded by a fixed number of 
+ * worker threads, one per processor by default. Drawing uses Java2D, so it does
+ * not involve the JavaFX application thread. The JavaFX platform is nevertheless 
+ * started because text is measured with JavaFX fonts, so on machines without a 
+ * display JavaFX must be run with a headless platform, such as Monocle. The tool 
+ * prints the time spent on each file, and exits with status 1 if any file could 
+ * not be rendered, or 2 if the arguments are invalid.
+ */
+public final class BatchRenderer
+{
+	private static final String OPTION_OUTPUT = "-o";
+	private static final String OPTION_THREADS = "-j";
+	private static final String IMAGE_FORMAT = "png";
+	private static final String GLOB_CHARACTERS = "*?[{";
+	private static final String USAGE = 
+			"Usage: BatchRenderer [-o output-directory] [-j threads] (file | directory | glob)...";
+	private static final int STATUS_FAILURE = 1;
+	private static final int STATUS_USAGE = 2;
+	private static final long NANOS_PER_MILLI = 1000000L;
+	
+	private BatchRenderer() {}
+	
+	/**
+	 * Renders the diagram files designated by pArgs.
+	 * 
+	 * @param pArgs The options and inputs, as described in the class comment.
+	 */
+	public static void main(String[] pArgs)
+	{
+		System.setProperty("java.awt.headless", "true");
+		Platform.startup(() -> {});
+		int status = run(Arrays.asList(pArgs), System.out);
+		Platform.exit();
+		System.exit(status);
+	}
+	
+	/**
+	 * Renders the diagram files designated by pArguments and reports on pOut. 
+	 * The JavaFX platform must be started.
+	 * 
+	 * @param pArguments The options and inputs, as described in the class comment.
+	 * @param pOut Where to print the report.
+	 * @return The exit status.
+	 * @pre pArguments != null && pOut != null
+	 */
+	static int run(List<String> pArguments, PrintStream pOut)
+	{
+		assert pArguments != null && pOut != null;
+		Optional<Path> outputDirectory = Optional.empty();
+		int threads = Runtime.getRuntime().availableProcessors();
+		List<String> patterns = new ArrayList<>();
+		boolean valid = true;
+		Iterator<String> arguments = pArguments.iterator();
+		while( arguments.hasNext() )
+		{
+			String argument = arguments.next();
+			if( OPTION_OUTPUT.equals(argument) && arguments.hasNext() )
+			{
+				outputDirectory = Optional.of(Paths.get(arguments.next()));
+			}
+			else if( OPTION_THREADS.equals(argument) && arguments.hasNext() )
+			{
+				threads = parseThreads(arguments.next());
+			}
+			else if( argument.startsWith("-") )
+			{
+				valid = false;
+			}
+			else
+			{
+				patterns.add(argument);
+			}
+		}
+		if( !valid || patterns.isEmpty() || threads <= 0 )
+		{
+			pOut.println(USAGE);
+			return STATUS_USAGE;
+		}
+		Map<Path, Input> inputs = new LinkedHashMap<>();
+		for( String pattern : patterns )
+		{
+			try
+			{
+				findInputs(pattern).forEach(input -> inputs.putIfAbsent(input.aFile.toAbsolutePath().normalize(), input));
+			}
+			catch( IOException exception )
+			{
+				pOut.println("Cannot read " + pattern + ": " + exception.getMessage());
+				return STATUS_FAILURE;
+			}
+		}
+		return render(new ArrayList<>(inputs.values()), outputDirectory, threads, pOut);
+	}
+	
+	private static int parseThreads(String pThreads)
+	{
+		try
+		{
+			return Integer.parseInt(pThreads);
+		}
+		catch( NumberFormatException exception )
+		{
+			return 0;
+		}
+	}
+	
+	/*
+	 * Renders all the inputs on a pool of pThreads threads, and reports 
+	 * the results in the order of the inputs. The inputs that share their 
+	 * output file with another input fail without being rendered.
+	 */
+	private static int render(List<Input> pInputs, Optional<Path> pOutputDirectory, int pThreads, PrintStream pOut)
+	{
+		long start = System.nanoTime();
+		Map<Path, List<Input>> inputsByOutput = new LinkedHashMap<>();
+		for( Input input : pInputs )
+		{
+			inputsByOutput.computeIfAbsent(input.outputFile(pOutputDirectory), key -> new ArrayList<>()).add(input);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(pThreads, pRunnable ->
+		{
+			Thread thread = new Thread(pRunnable, "JetUML renderer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		List<Future<long[]>> results = new ArrayList<>();
+		for( Input input : pInputs )
+		{
+			Path output = input.outputFile(pOutputDirectory);
+			List<Input> sharing = inputsByOutput.get(output);
+			if( sharing.size() > 1 )
+			{
+				results.add(CompletableFuture.failedFuture(new IOException("Output file " + output + 
+						" would be written for each of " + sharing)));
+			}
+			else
+			{
+				results.add(executor.submit(() -> render(input.aFile, output)));
+			}
+		}
+		executor.shutdown();
+		pOut.println(String.format("%8s %8s %8s %8s  %s", "load", "draw", "write", "total", "file"));
+		int failures = 0;
+		for( int i = 0; i < pInputs.size(); i++ )
+		{
+			Path file = pInputs.get(i).aFile;
+			try
+			{
+				long[] times = results.get(i).get();
+				pOut.println(String.format("%8d %8d %8d %8d  %s", times[0], times[1], times[2], 
+						times[0] + times[1] + times[2], file));
+			}
+			catch( ExecutionException exception )
+			{
+				failures++;
+				pOut.println(String.format("%8s %8s %8s %8s  %s: %s", "-", "-", "-", "FAILED", file, exception.getCause()));
+			}
+			catch( InterruptedException exception )
+			{
+				Thread.currentThread().interrupt();
+				executor.shutdownNow();
+				return STATUS_FAILURE;
+			}
+		}
+		pOut.println(String.format("Rendered %d of %d files in %d ms on %d threads (times in ms).", 
+				pInputs.size() - failures, pInputs.size(), toMillis(System.nanoTime() - start), pThreads));
+		if( failures > 0 )
+		{
+			return STATUS_FAILURE;
+		}
+		return 0;
+	}
+	
+	/*
+	 * Renders the diagram in pFile to pOutputFile and returns the time spent, 
+	 * in milliseconds, loading the diagram, drawing it, and writing the image.
+	 */
+	private static long[] render(Path pFile, Path pOutputFile) throws IOException
+	{
+		long start = System.nanoTime();
+		Diagram diagram = PersistenceService.read(pFile.toFile()).diagram();
+		long loaded = System.nanoTime();
+		BufferedImage image = ImageCreator.createBufferedImage(diagram);
+		long drawn = System.nanoTime();
+		if( pOutputFile.getParent() != null )
+		{
+			Files.createDirectories(pOutputFile.getParent());
+		}
+		ImageIO.write(image, IMAGE_FORMAT, pOutputFile.toFile());
+		long written = System.nanoTime();
+		return new long[] { toMillis(loaded - start), toMillis(drawn - loaded), toMillis(written - drawn) };
+	}
+	
+	private static long toMillis(long pNanos)
+	{
+		return pNanos / NANOS_PER_MILLI;
+	}
+	
+	/*
+	 * Returns the diagram files designated by pPattern, sorted by path.
+	 */
+	private static List<Input> findInputs(String pPattern) throws IOException
+	{
+		Path base;
+		PathMatcher matcher;
+		if( isGlob(pPattern) )
+		{
+			base = globBase(pPattern);
+			matcher = FileSystems.getDefault().getPathMatcher("glob:" + pPattern);
+		}
+		else
+		{
+			Path path = Paths.get(pPattern);
+			if( !Files.isDirectory(path) )
+			{
+				return Arrays.asList(new Input(path.toAbsolutePath().getParent(), path));
+			}
+			base = path;
+			matcher = file -> FileExtensions.hasApplicationExtension(file.toFile());
+		}
+		if( !Files.isDirectory(base) )
+		{
+			return new ArrayList<>();
+		}
+		Path root = base.toAbsolutePath();
+		try( Stream<Path> files = Files.walk(base) )
+		{
+			return files.filter(Files::isRegularFile)
+					.filter(matcher::matches)
+					.sorted()
+					.map(file -> new Input(root, file))
+					.collect(Collectors.toList());
+		}
+	}
+	
+	private static boolean isGlob(String pPattern)
+	{
+		for( char character : GLOB_CHARACTERS.toCharArray() )
+		{
+			if( pPattern.indexOf(character) >= 0 )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/*
+	 * The directory that contains the first segment of pPattern with a glob character.
+	 */
+	private static Path globBase(String pPattern)
+	{
+		int end = pPattern.length();
+		for( char character : GLOB_CHARACTERS.toCharArray() )
+		{
+			if( pPattern.indexOf(character) >= 0 )
+			{
+				end = Math.min(end, pPattern.indexOf(character));
+			}
+		}
+		String prefix = pPattern.substring(0, end);
+		int separator = Math.max(prefix.lastIndexOf('/'), prefix.lastIndexOf(File.separatorChar));
+		if( separator < 0 )
+		{
+			return Paths.get("");
+		}
+		return Paths.get(prefix.substring(0, separator + 1));
+	}
+	
+	/**
+	 * A diagram file along with the directory its output location is relative to.
+	 */
+	private static final class Input
+	{
+		private final Path aBase;
+		private final Path aFile;
+		
+		Input(Path pBase, Path pFile)
+		{
+			aBase = pBase;
+			aFile = pFile;
+		}
+		
+		Path outputFile(Optional<Path> pOutputDirectory)
+		{
+			String name = FileExtensions.clipApplicationExtension(aFile.toFile()).getName() + "." + IMAGE_FORMAT;
+			Path directory = aFile.toAbsolutePath().getParent();
+			if( pOutputDirectory.isPresent() )
+			{
+				directory = pOutputDirectory.get().resolve(aBase.relativize(directory));
+			}
+			return directory.resolve(name).toAbsolutePath().normalize();
+		}
+		
+		@Override
+		public String toString()
+		{
+			return aFile.toString();
+		}
+	}
+}
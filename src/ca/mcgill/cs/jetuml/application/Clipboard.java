@@ -203,11 +203,11 @@ public final class Clipboard
 		{
 			if( edge.getStart() == pOld )
 			{
-				edge.connect(pNew, edge.getEnd(), edge.getDiagram());
+				edge.connect(pNew, edge.getEnd(), null);
 			}
 			if( edge.getEnd() == pOld)
 			{
-				edge.connect(edge.getStart(), pNew, edge.getDiagram());
+				edge.connect(edge.getStart(), pNew, null);
 			}
 		}
 		List<Node> oldChildren = pOld.getChildren();
@@ -40,9 +40,12 @@ import javafx.stage.FileChooser.ExtensionFilter;
 public final class FileExtensions
 {
 	private static final String EXTENSION_JET = ".jet";
+	private static final String EXTENSION_BINARY = ".jetb";
 	
 	private static final ExtensionFilter FILTER_APPLICATION = 
 			new ExtensionFilter(RESOURCES.getString("application.file.name"), "*" + EXTENSION_JET);
+	private static final ExtensionFilter FILTER_BINARY = 
+			new ExtensionFilter(RESOURCES.getString("application.file.binary"), "*" + EXTENSION_BINARY);
 	private static final ExtensionFilter FILTER_ALL = 
 			new ExtensionFilter(RESOURCES.getString("application.file.all"), "*.*");
 	
@@ -63,8 +66,9 @@ public final class FileExtensions
 	
 	/**
 	 * @return An unmodifiable list of all filters applicable to the application. This list
-	 *     includes one filter for each diagram type, the general filter for all file 
-	 *     types, and the "application" filter for all diagram file types. Never null.
+	 *     includes one filter for each diagram type, the filter for diagrams in the binary
+	 *     format, the general filter for all file types, and the "application" filter for 
+	 *     all diagram file types in JSON. Never null.
 	 */
 	public static List<ExtensionFilter> all()
 	{
@@ -73,6 +77,7 @@ public final class FileExtensions
 				.map(Map.Entry::getValue)
 				.collect(toList());
 		result.add(0, FILTER_APPLICATION);
+		result.add(FILTER_BINARY);
 		result.add(FILTER_ALL);
 		return Collections.unmodifiableList(result);
 	}
@@ -90,22 +95,49 @@ public final class FileExtensions
 		return aExtensionFilters.get(pDiagramType);
 	}
 	
+	/**
+	 * @param pFile The file to check.
+	 * @return True if the name of pFile has the extension of diagrams saved in 
+	 *     the binary format.
+	 * @pre pFile != null
+	 */
+	public static boolean isBinary(File pFile)
+	{
+		assert pFile != null;
+		return pFile.getName().endsWith(EXTENSION_BINARY);
+	}
+	
+	/**
+	 * @param pFile The file to check.
+	 * @return True if the name of pFile has the application extension or 
+	 *     the binary extension.
+	 * @pre pFile != null
+	 */
+	public static boolean hasApplicationExtension(File pFile)
+	{
+		assert pFile != null;
+		return pFile.getName().endsWith(EXTENSION_JET) || isBinary(pFile);
+	}
+	
 	/**
 	 * @param pFile The file to clip, if applicable.
 	 * @return A file with the same name as pFile, but with
-	 *     the application extension removed. If there is no application
-	 *     extension to clip, the same file object is returned.
+	 *     the application extension, or the binary extension, removed. If there 
+	 *     is no extension to clip, the same file object is returned.
 	 * @pre pFile != null
 	 */
 	public static File clipApplicationExtension(File pFile)
 	{
 		assert pFile != null;
-		if( !pFile.getAbsolutePath().endsWith(EXTENSION_JET))
+		for( String extension : new String[] { EXTENSION_JET, EXTENSION_BINARY } )
 		{
-			return pFile;
+			if( pFile.getAbsolutePath().endsWith(extension) )
+			{
+				return new File(pFile.getAbsolutePath()
+						.substring(0, pFile.getAbsolutePath().length() - extension.length()));
+			}
 		}
-		return new File(pFile.getAbsolutePath()
-				.substring(0, pFile.getAbsolutePath().length() - EXTENSION_JET.length()));
+		return pFile;
 	}
 }
 	
@@ -27,7 +27,7 @@ import ca.mcgill.cs.jetuml.diagram.Properties;
 import ca.mcgill.cs.jetuml.diagram.Property;
 import ca.mcgill.cs.jetuml.diagram.PropertyName;
 import ca.mcgill.cs.jetuml.diagram.builder.CompoundOperation;
-import ca.mcgill.cs.jetuml.diagram.builder.SimpleOperation;
+import ca.mcgill.cs.jetuml.diagram.builder.PropertyChangeOperation;
 
 /**
  * Tracks modification to the properties of a DiagramElement.
@@ -75,11 +75,7 @@ public class PropertyChangeTracker
 		{
 			if( !aOldValues.get(property.name()).equals(property.get()))
 			{
-				final Object newValue = property.get();
-				final Object oldValue = aOldValues.get(property.name());
-				operation.add(new SimpleOperation(
-						()-> property.set(newValue),
-						()-> property.set(oldValue)));
+				operation.add(new PropertyChangeOperation(property, aOldValues.get(property.name()), property.get()));
 			}
 		}
 		return operation;
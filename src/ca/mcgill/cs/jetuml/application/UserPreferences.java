@@ -20,6 +20,8 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.application;
 
+import static ca.mcgill.cs.jetuml.diagram.builder.DiagramOperationProcessor.DEFAULT_MAXIMUM_OPERATIONS;
+import static ca.mcgill.cs.jetuml.diagram.builder.DiagramOperationProcessor.DEFAULT_MAXIMUM_SIZE;
 import static ca.mcgill.cs.jetuml.views.FontMetrics.DEFAULT_FONT_SIZE;
 
 import java.util.ArrayList;
@@ -61,7 +63,8 @@ public final class UserPreferences
 	 */
 	public enum IntegerPreference
 	{
-		diagramWidth(0), diagramHeight(0), nextTipId(1), fontSize(DEFAULT_FONT_SIZE);
+		diagramWidth(0), diagramHeight(0), nextTipId(1), fontSize(DEFAULT_FONT_SIZE), 
+		undoHistoryLength(DEFAULT_MAXIMUM_OPERATIONS), undoHistorySize(DEFAULT_MAXIMUM_SIZE);
 		
 		private int aDefault;
 		
@@ -70,6 +70,15 @@ public abstract class AbstractDiagramElement implements DiagramElement
 	 */
 	protected void buildProperties()
 	{
-		aProperties = new Properties();
+		aProperties = new Properties(this::propertyChanged);
 	}
+	
+	/**
+	 * Called after the value of one of the properties of this element is set.
+	 * Does nothing by default.
+	 * 
+	 * @param pProperty The property that was set.
+	 */
+	protected void propertyChanged(Property pProperty)
+	{}
 }
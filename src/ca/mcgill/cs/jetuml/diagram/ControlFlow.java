@@ -71,12 +71,9 @@ public final class ControlFlow
 	{
 		assert pNode != null && aDiagram.contains(pNode);
 		List<Node> callees = new ArrayList<>();
-		for( Edge edge : aDiagram.edges() )
+		for( CallEdge edge : aDiagram.edgesFrom(pNode, CallEdge.class) )
 		{
-			if ( edge.getStart() == pNode && edge instanceof CallEdge )
-			{
-				callees.add(edge.getEnd());
-			}
+			callees.add(edge.getEnd());
 		}
 		return callees;
 	}
@@ -89,15 +86,7 @@ public final class ControlFlow
 	public List<CallEdge> getCalls(Node pCaller)
 	{
 		assert pCaller != null;
-		ArrayList<CallEdge> result = new ArrayList<>();
-		for( Edge edge : aDiagram.edges() )
-		{
-			if( edge instanceof CallEdge && edge.getStart() == pCaller )
-			{
-				result.add((CallEdge)edge);
-			}
-		}
-		return result;
+		return aDiagram.edgesFrom(pCaller, CallEdge.class);
 	}
 	
 	/**
@@ -111,14 +100,12 @@ public final class ControlFlow
 	public Optional<CallNode> getCaller(Node pNode)
 	{
 		assert pNode != null && aDiagram.contains(pNode);
-		for( Edge edge : aDiagram.edges() )
+		List<CallEdge> calls = aDiagram.edgesTo(pNode, CallEdge.class);
+		if( calls.isEmpty() )
 		{
-			if( edge.getEnd() == pNode  && edge instanceof CallEdge )
-			{
-				return Optional.of((CallNode) edge.getStart());
-			}
+			return Optional.empty();
 		}
-		return Optional.empty();
+		return Optional.of((CallNode) calls.get(0).getStart());
 	}
 	
 	/**
@@ -220,14 +207,7 @@ public final class ControlFlow
 		{
 			return false;
 		}
-		for( Edge edge : aDiagram.edges() )
-		{
-			if ( edge.getEnd() == pNode && edge.getClass() == ConstructorEdge.class )
-			{
-				return true;
-			}
-		}
-		return false;	
+		return !aDiagram.edgesTo(pNode, ConstructorEdge.class).isEmpty();
 	}
 	
 	/*
@@ -253,14 +233,12 @@ public final class ControlFlow
 		{
 			return Optional.empty();	
 		}
-		for( Edge edge : aDiagram.edges() )
+		List<ConstructorEdge> constructorEdges = aDiagram.edgesTo(pNode, ConstructorEdge.class);
+		if( constructorEdges.isEmpty() )
 		{
-			if ( edge.getEnd() == pNode && edge.getClass() == ConstructorEdge.class )
-			{
-				return Optional.of(edge);
-			}
+			return Optional.empty();
 		}
-		return Optional.empty();	
+		return Optional.of(constructorEdges.get(0));
 	}
 
 	/**
@@ -290,13 +268,7 @@ public final class ControlFlow
 				}
 				
 				// Add upstream edges of the child nodes
-				for( Edge edge: aDiagram.edges() )
-				{
-					if( edge.getEnd() == child )
-					{
-						downstreamElements.add(edge);
-					}
-				}
+				downstreamElements.addAll(aDiagram.edgesTo(child));
 			}
 		}
 		else if( pEdge.getClass() == CallEdge.class )
@@ -374,9 +346,9 @@ public final class ControlFlow
 	
 	private Optional<Edge> getReturnEdge(Edge pEdge)
 	{
-		for( Edge edge : aDiagram.edges() )
+		for( ReturnEdge edge : aDiagram.edgesFrom(pEdge.getEnd(), ReturnEdge.class) )
 		{
-			if( edge.getClass() == ReturnEdge.class && edge.getStart() == pEdge.getEnd() && edge.getEnd() == pEdge.getStart() )
+			if( edge.getEnd() == pEdge.getStart() )
 			{
 				return Optional.of(edge);
 			}
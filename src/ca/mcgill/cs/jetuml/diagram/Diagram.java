@@ -20,10 +20,14 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.diagram;
 
+import static java.util.Collections.emptyList;
+
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
@@ -44,7 +48,18 @@ public final class Diagram implements DiagramData
 	 */
 	private final ArrayList<Node> aRootNodes;
 	private final ArrayList<Edge> aEdges;
+	/*
+	 * Maps each node to the edges that start or end at this node, in the order in 
+	 * which they appear in aEdges. Used to answer queries in time proportional to the
+	 * number of edges connected to a node instead of the number of edges in the diagram.
+	 */
+	private final Map<Node, List<Edge>> aIncidentEdges = new IdentityHashMap<>();
 	private final DiagramType aType;
+	private int aStructuralRevision;
+	private int aGeometryRevision;
+	private final List<DiagramListener> aListeners = new ArrayList<>();
+	private int aBatchDepth;
+	private List<DiagramEvent> aBatchedEvents = new ArrayList<>();
 
 	/**
 	 * Creates an empty diagram.
@@ -78,6 +93,7 @@ public final class Diagram implements DiagramData
 
 		// Reassign diagram
 		copy.aEdges.forEach(edge -> edge.connect(edge.getStart(), edge.getEnd(), copy));
+		copy.reindexEdges();
 		for( Node node : copy.aRootNodes )
 		{
 			copy.attachNode(node);
@@ -107,11 +123,11 @@ public final class Diagram implements DiagramData
 		{
 			if( edge.getStart() == pOriginal )
 			{
-				edge.connect(pCopy, edge.getEnd(), edge.getDiagram());
+				edge.connect(pCopy, edge.getEnd(), null);
 			}
 			if( edge.getEnd() == pOriginal )
 			{
-				edge.connect(edge.getStart(), pCopy, edge.getDiagram());
+				edge.connect(edge.getStart(), pCopy, null);
 			}
 		}
 		List<Node> oldChildren = pOriginal.getChildren();
@@ -134,6 +150,191 @@ public final class Diagram implements DiagramData
 		return Collections.unmodifiableList(aEdges);
 	}
 
+	/**
+	 * Returns a number that changes every time nodes or edges are added to, 
+	 * removed from, or reconnected within this diagram. This number can be 
+	 * used to determine whether information derived from the structure of 
+	 * the diagram is still valid.
+	 * 
+	 * @return The structural revision of this diagram.
+	 */
+	public int getStructuralRevision()
+	{
+		return aStructuralRevision;
+	}
+	
+	/**
+	 * Records that the structure of the diagram changed. This method is called
+	 * automatically by the methods of this class, and should be called by 
+	 * diagram elements whose structural relations change outside of the
+	 * control of the diagram, for example when a node is attached to it.
+	 */
+	public void incrementStructuralRevision()
+	{
+		aStructuralRevision++;
+		aGeometryRevision++;
+	}
+	
+	/**
+	 * Returns a number that changes every time the structure of this diagram
+	 * changes, a node in it moves, or a property of one of its elements is set. 
+	 * This number can be used to determine whether information derived from 
+	 * the layout of the diagram is still valid.
+	 * 
+	 * @return The geometry revision of this diagram.
+	 */
+	public int getGeometryRevision()
+	{
+		return aGeometryRevision;
+	}
+	
+	/**
+	 * Registers pListener to be notified of the changes to this diagram.
+	 * 
+	 * @param pListener The listener to add.
+	 * @pre pListener != null
+	 */
+	public void addListener(DiagramListener pListener)
+	{
+		assert pListener != null;
+		aListeners.add(pListener);
+	}
+	
+	/**
+	 * Stops notifying pListener of the changes to this diagram.
+	 * 
+	 * @param pListener The listener to remove.
+	 * @pre pListener != null
+	 */
+	public void removeListener(DiagramListener pListener)
+	{
+		assert pListener != null;
+		aListeners.remove(pListener);
+	}
+	
+	/**
+	 * Records that pElement changed and notifies the listeners. This method is 
+	 * called automatically by the methods of this class, and by diagram elements 
+	 * when they move, are reparented, are reconnected, or have a property set.
+	 * 
+	 * @param pKind The kind of change.
+	 * @param pElement The element that changed.
+	 * @pre pKind != null && pElement != null && pKind != DiagramEvent.Kind.PROPERTY_CHANGED
+	 */
+	public void elementChanged(DiagramEvent.Kind pKind, DiagramElement pElement)
+	{
+		assert pKind != null && pElement != null && pKind != DiagramEvent.Kind.PROPERTY_CHANGED;
+		aGeometryRevision++;
+		if( !aListeners.isEmpty() )
+		{
+			fireEvent(new DiagramEvent(this, pKind, pElement));
+		}
+	}
+	
+	/**
+	 * Records that a property of pElement was set and notifies the listeners.
+	 * 
+	 * @param pElement The element whose property was set.
+	 * @param pPropertyName The name of the property.
+	 * @pre pElement != null && pPropertyName != null
+	 */
+	public void propertyChanged(DiagramElement pElement, PropertyName pPropertyName)
+	{
+		assert pElement != null && pPropertyName != null;
+		aGeometryRevision++;
+		if( !aListeners.isEmpty() )
+		{
+			fireEvent(new DiagramEvent(this, pElement, pPropertyName));
+		}
+	}
+	
+	/**
+	 * Runs pChanges as a batch. The listeners are notified once, after all the
+	 * changes have been made, with a single event of kind DiagramEvent.Kind.BATCH
+	 * that describes the individual changes. Batches can be nested, in which case
+	 * the listeners are notified at the end of the outermost batch.
+	 * 
+	 * @param pChanges The code that changes the diagram.
+	 * @pre pChanges != null
+	 */
+	public void batch(Runnable pChanges)
+	{
+		assert pChanges != null;
+		aBatchDepth++;
+		try
+		{
+			pChanges.run();
+		}
+		finally
+		{
+			endBatch();
+		}
+	}
+	
+	/**
+	 * Runs pChanges as a batch that can be abandoned. If pChanges returns false,
+	 * it must have reverted all the changes it made, and the listeners are not 
+	 * notified of these changes. Otherwise, this method behaves like batch.
+	 * 
+	 * @param pChanges The code that changes the diagram, and returns whether 
+	 *     its changes are kept.
+	 * @return The value returned by pChanges.
+	 * @pre pChanges != null
+	 */
+	public boolean tentativeBatch(BooleanSupplier pChanges)
+	{
+		assert pChanges != null;
+		int firstEvent = aBatchedEvents.size();
+		aBatchDepth++;
+		try
+		{
+			boolean kept = pChanges.getAsBoolean();
+			if( !kept )
+			{
+				aBatchedEvents.subList(firstEvent, aBatchedEvents.size()).clear();
+			}
+			return kept;
+		}
+		finally
+		{
+			endBatch();
+		}
+	}
+	
+	private void endBatch()
+	{
+		aBatchDepth--;
+		if( aBatchDepth == 0 && !aBatchedEvents.isEmpty() )
+		{
+			DiagramEvent event = new DiagramEvent(this, aBatchedEvents);
+			aBatchedEvents = new ArrayList<>();
+			notifyListeners(event);
+		}
+	}
+	
+	private void fireEvent(DiagramEvent pEvent)
+	{
+		if( aBatchDepth > 0 )
+		{
+			aBatchedEvents.add(pEvent);
+		}
+		else
+		{
+			notifyListeners(pEvent);
+		}
+	}
+	
+	/*
+	 * Notifies a copy of the list of listeners, so that listeners can unregister themselves.
+	 */
+	private void notifyListeners(DiagramEvent pEvent)
+	{
+		for( DiagramListener listener : new ArrayList<>(aListeners) )
+		{
+			listener.diagramChanged(pEvent);
+		}
+	}
+
 	/**
 	 * @return The type of this diagram.
 	 */
@@ -223,22 +424,175 @@ public final class Diagram implements DiagramData
 
 	/**
 	 * @param pNode The node to test for
-	 * @return All the edges connected to pNode
+	 * @return All the edges connected to pNode, in the order in which they
+	 *     appear in the diagram.
 	 * @pre pNode != null
 	 * @pre contains(pNode)
 	 */
 	public Iterable<Edge> edgesConnectedTo(Node pNode)
 	{
 		assert pNode != null && contains(pNode);
-		Collection<Edge> lReturn = new ArrayList<>();
+		return new ArrayList<>(incidentEdges(pNode));
+	}
+	
+	/**
+	 * @param pNode The node to test for.
+	 * @return All the edges that start at pNode, in the order in which
+	 *     they appear in the diagram.
+	 * @pre pNode != null
+	 */
+	public List<Edge> edgesFrom(Node pNode)
+	{
+		return edgesFrom(pNode, Edge.class);
+	}
+	
+	/**
+	 * @param pNode The node to test for.
+	 * @param pType The type of edges to return. Edges of subtypes of pType are included.
+	 * @param <E> The type of edges.
+	 * @return All the edges of type pType that start at pNode, in the order in which
+	 *     they appear in the diagram.
+	 * @pre pNode != null && pType != null
+	 */
+	public <E extends Edge> List<E> edgesFrom(Node pNode, Class<E> pType)
+	{
+		assert pNode != null && pType != null;
+		List<E> result = new ArrayList<>();
+		for( Edge edge : incidentEdges(pNode) )
+		{
+			if( edge.getStart() == pNode && pType.isInstance(edge) )
+			{
+				result.add(pType.cast(edge));
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * @param pNode The node to test for.
+	 * @return All the edges that end at pNode, in the order in which
+	 *     they appear in the diagram.
+	 * @pre pNode != null
+	 */
+	public List<Edge> edgesTo(Node pNode)
+	{
+		return edgesTo(pNode, Edge.class);
+	}
+	
+	/**
+	 * @param pNode The node to test for.
+	 * @param pType The type of edges to return. Edges of subtypes of pType are included.
+	 * @param <E> The type of edges.
+	 * @return All the edges of type pType that end at pNode, in the order in which
+	 *     they appear in the diagram.
+	 * @pre pNode != null && pType != null
+	 */
+	public <E extends Edge> List<E> edgesTo(Node pNode, Class<E> pType)
+	{
+		assert pNode != null && pType != null;
+		List<E> result = new ArrayList<>();
+		for( Edge edge : incidentEdges(pNode) )
+		{
+			if( edge.getEnd() == pNode && pType.isInstance(edge) )
+			{
+				result.add(pType.cast(edge));
+			}
+		}
+		return result;
+	}
+	
+	private List<Edge> incidentEdges(Node pNode)
+	{
+		return aIncidentEdges.getOrDefault(pNode, emptyList());
+	}
+	
+	/*
+	 * Records pEdge, which must be at pIndex in aEdges, as incident to its start and end nodes.
+	 */
+	private void indexEdge(Edge pEdge, int pIndex)
+	{
+		indexEdge(pEdge.getStart(), pEdge, pIndex);
+		if( pEdge.getEnd() != pEdge.getStart() )
+		{
+			indexEdge(pEdge.getEnd(), pEdge, pIndex);
+		}
+	}
+	
+	/*
+	 * Inserts pEdge in the list of edges incident to pNode, just before the next edge 
+	 * in aEdges that is also incident to pNode, to preserve the order of the edges.
+	 */
+	private void indexEdge(Node pNode, Edge pEdge, int pIndex)
+	{
+		List<Edge> incident = aIncidentEdges.computeIfAbsent(pNode, key -> new ArrayList<>());
+		for( int i = pIndex + 1; i < aEdges.size(); i++ )
+		{
+			Edge next = aEdges.get(i);
+			if( next.getStart() == pNode || next.getEnd() == pNode )
+			{
+				incident.add(incident.indexOf(next), pEdge);
+				return;
+			}
+		}
+		incident.add(pEdge);
+	}
+	
+	/*
+	 * Removes pEdge from the lists of edges incident to pStart and pEnd.
+	 */
+	private void unindexEdge(Edge pEdge, Node pStart, Node pEnd)
+	{
+		unindexEdge(pStart, pEdge);
+		if( pEnd != pStart )
+		{
+			unindexEdge(pEnd, pEdge);
+		}
+	}
+	
+	private void unindexEdge(Node pNode, Edge pEdge)
+	{
+		List<Edge> incident = aIncidentEdges.get(pNode);
+		assert incident != null && incident.contains(pEdge);
+		incident.remove(pEdge);
+		if( incident.isEmpty() )
+		{
+			aIncidentEdges.remove(pNode);
+		}
+	}
+	
+	/**
+	 * Records that pEdge was connected to new nodes. This method is called 
+	 * automatically by edges when they are connected, so that the edges 
+	 * returned by edgesFrom, edgesTo, and edgesConnectedTo remain correct.
+	 * Edges that are not in this diagram are ignored.
+	 * 
+	 * @param pEdge The edge that was reconnected.
+	 * @param pOldStart The start node of pEdge before it was reconnected.
+	 * @param pOldEnd The end node of pEdge before it was reconnected.
+	 * @pre pEdge != null && pOldStart != null && pOldEnd != null
+	 */
+	public void edgeReconnected(Edge pEdge, Node pOldStart, Node pOldEnd)
+	{
+		assert pEdge != null && pOldStart != null && pOldEnd != null;
+		if( !incidentEdges(pOldStart).contains(pEdge) )
+		{
+			return;
+		}
+		unindexEdge(pEdge, pOldStart, pOldEnd);
+		indexEdge(pEdge, aEdges.indexOf(pEdge));
+	}
+	
+	private void reindexEdges()
+	{
+		aIncidentEdges.clear();
 		for( Edge edge : aEdges )
 		{
-			if( edge.getStart() == pNode || edge.getEnd() == pNode )
+			aIncidentEdges.computeIfAbsent(edge.getStart(), key -> new ArrayList<>()).add(edge);
+			if( edge.getEnd() != edge.getStart() )
 			{
-				lReturn.add(edge);
+				aIncidentEdges.computeIfAbsent(edge.getEnd(), key -> new ArrayList<>()).add(edge);
 			}
 		}
-		return lReturn;
 	}
 
 	/**
@@ -253,6 +607,8 @@ public final class Diagram implements DiagramData
 		assert pNode != null;
 		recursiveAttach(pNode);
 		aRootNodes.add(pNode);
+		incrementStructuralRevision();
+		elementChanged(DiagramEvent.Kind.NODE_ADDED, pNode);
 	}
 
 	private void recursiveAttach(Node pNode)
@@ -279,6 +635,8 @@ public final class Diagram implements DiagramData
 		assert pNode != null && aRootNodes.contains(pNode);
 		recursiveDetach(pNode);
 		aRootNodes.remove(pNode);
+		incrementStructuralRevision();
+		elementChanged(DiagramEvent.Kind.NODE_REMOVED, pNode);
 	}
 
 	/**
@@ -292,6 +650,9 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && pEdge.getStart() != null && pEdge.getEnd() != null && pEdge.getDiagram() != null;
 		aEdges.add(pEdge);
+		indexEdge(pEdge, aEdges.size() - 1);
+		incrementStructuralRevision();
+		elementChanged(DiagramEvent.Kind.EDGE_ADDED, pEdge);
 	}
 	
 	/**
@@ -305,6 +666,9 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && pIndex >= 0 && pIndex <= aEdges.size();
 		aEdges.add(pIndex, pEdge);
+		indexEdge(pEdge, pIndex);
+		incrementStructuralRevision();
+		elementChanged(DiagramEvent.Kind.EDGE_ADDED, pEdge);
 	}
 
 
@@ -330,6 +694,9 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && aEdges.contains(pEdge);
 		aEdges.remove(pEdge);
+		unindexEdge(pEdge, pEdge.getStart(), pEdge.getEnd());
+		incrementStructuralRevision();
+		elementChanged(DiagramEvent.Kind.EDGE_REMOVED, pEdge);
 	}
 
 	/**
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.diagram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import ca.mcgill.cs.jetuml.annotations.Immutable;
+
+/**
+ * Describes a change to a diagram or to one of its elements.
+ */
+@Immutable
+public final class DiagramEvent
+{
+	/**
+	 * The kinds of changes reported to diagram listeners.
+	 */
+	public enum Kind
+	{
+		NODE_ADDED, NODE_REMOVED, NODE_MOVED, CHILD_REPARENTED, 
+		EDGE_ADDED, EDGE_REMOVED, EDGE_CONNECTED, PROPERTY_CHANGED, BATCH
+	}
+	
+	private final Diagram aDiagram;
+	private final Kind aKind;
+	private final DiagramElement aElement;
+	private final Optional<PropertyName> aPropertyName;
+	private final List<DiagramEvent> aEvents;
+	
+	/**
+	 * Creates an event for a change that is not a property change.
+	 * 
+	 * @param pDiagram The diagram that changed.
+	 * @param pKind The kind of change.
+	 * @param pElement The element that changed.
+	 * @pre pDiagram != null && pKind != null && pElement != null && pKind != Kind.PROPERTY_CHANGED
+	 */
+	public DiagramEvent(Diagram pDiagram, Kind pKind, DiagramElement pElement)
+	{
+		assert pDiagram != null && pKind != null && pElement != null && pKind != Kind.PROPERTY_CHANGED;
+		aDiagram = pDiagram;
+		aKind = pKind;
+		aElement = pElement;
+		aPropertyName = Optional.empty();
+		aEvents = Collections.emptyList();
+	}
+	
+	/**
+	 * Creates an event for a change to the value of a property.
+	 * 
+	 * @param pDiagram The diagram that changed.
+	 * @param pElement The element whose property changed.
+	 * @param pPropertyName The name of the property that changed.
+	 * @pre pDiagram != null && pElement != null && pPropertyName != null
+	 */
+	public DiagramEvent(Diagram pDiagram, DiagramElement pElement, PropertyName pPropertyName)
+	{
+		assert pDiagram != null && pElement != null && pPropertyName != null;
+		aDiagram = pDiagram;
+		aKind = Kind.PROPERTY_CHANGED;
+		aElement = pElement;
+		aPropertyName = Optional.of(pPropertyName);
+		aEvents = Collections.emptyList();
+	}
+	
+	/**
+	 * Creates an event for a batch of changes.
+	 * 
+	 * @param pDiagram The diagram that changed.
+	 * @param pEvents The events for the changes in the batch, in the order they happened.
+	 * @pre pDiagram != null && pEvents != null && !pEvents.isEmpty()
+	 */
+	public DiagramEvent(Diagram pDiagram, List<DiagramEvent> pEvents)
+	{
+		assert pDiagram != null && pEvents != null && !pEvents.isEmpty();
+		aDiagram = pDiagram;
+		aKind = Kind.BATCH;
+		aElement = null;
+		aPropertyName = Optional.empty();
+		aEvents = Collections.unmodifiableList(new ArrayList<>(pEvents));
+	}
+	
+	/**
+	 * @return The diagram that changed.
+	 */
+	public Diagram getDiagram()
+	{
+		return aDiagram;
+	}
+	
+	/**
+	 * @return The kind of change.
+	 */
+	public Kind getKind()
+	{
+		return aKind;
+	}
+	
+	/**
+	 * @return The element that changed.
+	 * @pre getKind() != Kind.BATCH
+	 */
+	public DiagramElement getElement()
+	{
+		assert aKind != Kind.BATCH;
+		return aElement;
+	}
+	
+	/**
+	 * @return The name of the property that changed, if this event is for a property change.
+	 */
+	public Optional<PropertyName> getPropertyName()
+	{
+		return aPropertyName;
+	}
+	
+	/**
+	 * @return The events for the changes in the batch, if this event is for
+	 *     a batch of changes, and an empty list otherwise.
+	 */
+	public List<DiagramEvent> getEvents()
+	{
+		return aEvents;
+	}
+	
+	@Override
+	public String toString()
+	{
+		if( aKind == Kind.BATCH )
+		{
+			return aKind + " " + aEvents;
+		}
+		return aKind + " " + aElement + aPropertyName.map(name -> " " + name).orElse("");
+	}
+}
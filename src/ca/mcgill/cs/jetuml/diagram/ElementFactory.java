@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.diagram;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.CallEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.ConstructorEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.NoteEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.ObjectCollaborationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.ObjectReferenceEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.ReturnEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.StateTransitionEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.UseCaseAssociationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.UseCaseDependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.UseCaseGeneralizationEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ActorNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.FinalStateNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.InitialStateNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.InterfaceNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.NoteNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ObjectNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageDescriptionNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PointNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.StateNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.UseCaseNode;
+
+/**
+ * Creates new nodes and edges from the name of their type, as it 
+ * appears in externalized representations of diagrams. The name of
+ * a type is the simple name of its class.
+ */
+public final class ElementFactory
+{
+	private static final ElementFactory INSTANCE = new ElementFactory();
+	
+	private final Map<String, Supplier<Node>> aNodes = new HashMap<>();
+	private final Map<String, Supplier<Edge>> aEdges = new HashMap<>();
+	
+	private ElementFactory()
+	{
+		addNode(ActorNode.class, ActorNode::new);
+		addNode(CallNode.class, CallNode::new);
+		addNode(ClassNode.class, ClassNode::new);
+		addNode(FieldNode.class, FieldNode::new);
+		addNode(FinalStateNode.class, FinalStateNode::new);
+		addNode(ImplicitParameterNode.class, ImplicitParameterNode::new);
+		addNode(InitialStateNode.class, InitialStateNode::new);
+		addNode(InterfaceNode.class, InterfaceNode::new);
+		addNode(NoteNode.class, NoteNode::new);
+		addNode(ObjectNode.class, ObjectNode::new);
+		addNode(PackageDescriptionNode.class, PackageDescriptionNode::new);
+		addNode(PackageNode.class, PackageNode::new);
+		addNode(PointNode.class, PointNode::new);
+		addNode(StateNode.class, StateNode::new);
+		addNode(UseCaseNode.class, UseCaseNode::new);
+		
+		addEdge(AggregationEdge.class, AggregationEdge::new);
+		addEdge(AssociationEdge.class, AssociationEdge::new);
+		addEdge(CallEdge.class, CallEdge::new);
+		addEdge(ConstructorEdge.class, ConstructorEdge::new);
+		addEdge(DependencyEdge.class, DependencyEdge::new);
+		addEdge(GeneralizationEdge.class, GeneralizationEdge::new);
+		addEdge(NoteEdge.class, NoteEdge::new);
+		addEdge(ObjectCollaborationEdge.class, ObjectCollaborationEdge::new);
+		addEdge(ObjectReferenceEdge.class, ObjectReferenceEdge::new);
+		addEdge(ReturnEdge.class, ReturnEdge::new);
+		addEdge(StateTransitionEdge.class, StateTransitionEdge::new);
+		addEdge(UseCaseAssociationEdge.class, UseCaseAssociationEdge::new);
+		addEdge(UseCaseDependencyEdge.class, UseCaseDependencyEdge::new);
+		addEdge(UseCaseGeneralizationEdge.class, UseCaseGeneralizationEdge::new);
+	}
+	
+	private void addNode(Class<? extends Node> pClass, Supplier<Node> pConstructor)
+	{
+		aNodes.put(pClass.getSimpleName(), pConstructor);
+	}
+	
+	private void addEdge(Class<? extends Edge> pClass, Supplier<Edge> pConstructor)
+	{
+		aEdges.put(pClass.getSimpleName(), pConstructor);
+	}
+	
+	/**
+	 * @param pType The name of a type of node.
+	 * @return A new node of type pType, with its default properties.
+	 * @throws IllegalArgumentException if pType is not the name of a type of node.
+	 */
+	public static Node createNode(String pType)
+	{
+		return create(INSTANCE.aNodes, pType);
+	}
+	
+	/**
+	 * @param pType The name of a type of edge.
+	 * @return A new unconnected edge of type pType, with its default properties.
+	 * @throws IllegalArgumentException if pType is not the name of a type of edge.
+	 */
+	public static Edge createEdge(String pType)
+	{
+		return create(INSTANCE.aEdges, pType);
+	}
+	
+	private static <T extends DiagramElement> T create(Map<String, Supplier<T>> pConstructors, String pType)
+	{
+		Supplier<T> constructor = pConstructors.get(pType);
+		if( constructor == null )
+		{
+			throw new IllegalArgumentException(pType + " is not a valid diagram element type name");
+		}
+		return constructor.get();
+	}
+}
@@ -45,6 +45,28 @@ import java.util.function.Supplier;
 public class Properties implements Iterable<Property>
 {
 	private final Map<PropertyName, Property> aProperties = new LinkedHashMap<>();
+	private final Consumer<Property> aObserver;
+	
+	/**
+	 * Creates an empty collection of properties.
+	 */
+	public Properties()
+	{
+		this(property -> {});
+	}
+	
+	/**
+	 * Creates an empty collection of properties whose assignments
+	 * are reported to pObserver.
+	 * 
+	 * @param pObserver The code to run after the value of a property is set.
+	 * @pre pObserver != null
+	 */
+	public Properties(Consumer<Property> pObserver)
+	{
+		assert pObserver != null;
+		aObserver = pObserver;
+	}
 	
 	/**
 	 * Adds a property to the end of the list.
@@ -57,7 +79,7 @@ public class Properties implements Iterable<Property>
 	public void add(PropertyName pName, Supplier<Object> pGetter, Consumer<Object> pSetter)
 	{
 		assert pName != null && pGetter != null && pSetter != null && !aProperties.containsKey(pName);
-		aProperties.put(pName, new Property(pName, pGetter, pSetter));
+		aProperties.put(pName, new Property(pName, pGetter, pSetter, aObserver));
 	}
 	
 	/**
@@ -88,7 +110,7 @@ public class Properties implements Iterable<Property>
 		assert pName != null && pGetter != null && pSetter != null && !aProperties.containsKey(pName);
 		assert pIndex >=0 && pIndex <= aProperties.size();
 		List<Property> properties = aProperties.values().stream().collect(toList());
-		properties.add(pIndex, new Property(pName, pGetter, pSetter));
+		properties.add(pIndex, new Property(pName, pGetter, pSetter, aObserver));
 		aProperties.clear();
 		properties.stream().forEach(property -> aProperties.put(property.name(), property));
 	}
@@ -33,6 +33,7 @@ public class Property
 	private final PropertyName aName;
 	private final Supplier<Object> aGetter;
 	private final Consumer<Object> aSetter;
+	private final Consumer<Property> aObserver;
 	
 	/**
 	 * Creates a new property.
@@ -44,10 +45,19 @@ public class Property
 	 */
 	public Property(PropertyName pName, Supplier<Object> pGetter, Consumer<Object> pSetter)
 	{
-		assert pName != null && pGetter != null && pSetter != null;
+		this(pName, pGetter, pSetter, property -> {});
+	}
+	
+	/*
+	 * Creates a new property whose assignments are reported to pObserver.
+	 */
+	Property(PropertyName pName, Supplier<Object> pGetter, Consumer<Object> pSetter, Consumer<Property> pObserver)
+	{
+		assert pName != null && pGetter != null && pSetter != null && pObserver != null;
 		aName = pName;
 		aGetter = pGetter;
 		aSetter = pSetter;
+		aObserver = pObserver;
 	}
 	
 	/**
@@ -76,5 +86,6 @@ public class Property
 	{
 		assert pValue != null;
 		aSetter.accept(pValue);
+		aObserver.accept(this);
 	}
 }
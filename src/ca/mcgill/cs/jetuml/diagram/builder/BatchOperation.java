@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.diagram.builder;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+
+/**
+ * Executes and undoes an operation as a single batch of changes to a diagram, 
+ * so that the listeners of the diagram are notified once for the whole operation.
+ */
+final class BatchOperation implements DiagramOperation
+{
+	private final Diagram aDiagram;
+	private final DiagramOperation aOperation;
+	
+	/**
+	 * Creates an operation that runs pOperation as a batch of changes to pDiagram.
+	 * 
+	 * @param pDiagram The diagram changed by the operation.
+	 * @param pOperation The operation to run as a batch.
+	 * @pre pDiagram != null && pOperation != null
+	 */
+	BatchOperation(Diagram pDiagram, DiagramOperation pOperation)
+	{
+		assert pDiagram != null && pOperation != null;
+		aDiagram = pDiagram;
+		aOperation = pOperation;
+	}
+
+	@Override
+	public void execute()
+	{
+		aDiagram.batch(aOperation::execute);
+	}
+
+	@Override
+	public void undo()
+	{
+		aDiagram.batch(aOperation::undo);
+	}
+	
+	@Override
+	public int size()
+	{
+		return aOperation.size();
+	}
+}
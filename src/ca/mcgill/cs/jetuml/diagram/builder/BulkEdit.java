@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.diagram.builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
+
+/**
+ * A set of nodes and edges to add to a diagram together, for example when 
+ * the elements are created by a script or imported from another tool. 
+ * 
+ * The additions are recorded, then validated and applied in a single pass,
+ * nodes first, in the order in which they were recorded. If one of them is not
+ * valid, the edit has no effect. The edges are 
+ * validated against the constraints of the diagram as it is when the edge 
+ * is added, so that constraints that depend on the other edges of the diagram 
+ * also account for the edges added earlier in the same edit. The listeners of
+ * the diagram are notified of all the changes with a single event, and the 
+ * whole edit is undone and redone as a single operation.
+ * 
+ * Unlike DiagramBuilder.createAddNodeOperation and DiagramBuilder.createAddEdgeOperation,
+ * a bulk edit places nodes at the exact requested position and connects edges 
+ * to the requested nodes without any further processing specific to the type 
+ * of diagram.
+ */
+public final class BulkEdit
+{
+	private final DiagramBuilder aBuilder;
+	private final List<Node> aNodes = new ArrayList<>();
+	private final List<Point> aPositions = new ArrayList<>();
+	private final List<Edge> aEdges = new ArrayList<>();
+	private final List<Node> aStartNodes = new ArrayList<>();
+	private final List<Node> aEndNodes = new ArrayList<>();
+	
+	/**
+	 * Creates an empty edit for the diagram of pBuilder.
+	 * 
+	 * @param pBuilder The builder that provides the constraints on the diagram.
+	 * @pre pBuilder != null
+	 */
+	BulkEdit(DiagramBuilder pBuilder)
+	{
+		assert pBuilder != null;
+		aBuilder = pBuilder;
+	}
+	
+	/**
+	 * Records the addition of pNode, and of its children, as a root node at pPosition.
+	 * 
+	 * @param pNode The node to add.
+	 * @param pPosition The position of the node.
+	 * @return This edit.
+	 * @pre pNode != null && pPosition != null
+	 */
+	public BulkEdit addNode(Node pNode, Point pPosition)
+	{
+		assert pNode != null && pPosition != null;
+		aNodes.add(pNode);
+		aPositions.add(pPosition);
+		return this;
+	}
+	
+	/**
+	 * Records the addition of pEdge between pStart and pEnd. The nodes must either 
+	 * be in the diagram already or be added by this edit.
+	 * 
+	 * @param pEdge The edge to add.
+	 * @param pStart The start node of the edge.
+	 * @param pEnd The end node of the edge.
+	 * @return This edit.
+	 * @pre pEdge != null && pStart != null && pEnd != null
+	 */
+	public BulkEdit addEdge(Edge pEdge, Node pStart, Node pEnd)
+	{
+		assert pEdge != null && pStart != null && pEnd != null;
+		aEdges.add(pEdge);
+		aStartNodes.add(pStart);
+		aEndNodes.add(pEnd);
+		return this;
+	}
+	
+	/**
+	 * Validates and applies all the additions recorded in this edit. If one of the
+	 * additions is not valid, the diagram and the recorded elements are left as they
+	 * were and the listeners of the diagram are not notified. The operation returned 
+	 * is already executed, and is meant to be stored with 
+	 * DiagramOperationProcessor.storeAlreadyExecutedOperation.
+	 * 
+	 * @return The operation that represents the edit, or empty if one of the additions
+	 *     is not valid.
+	 * @pre This method is called only once for a given edit.
+	 */
+	public Optional<DiagramOperation> apply()
+	{
+		if( !canAddNodes() )
+		{
+			return Optional.empty();
+		}
+		CompoundOperation operation = new CompoundOperation();
+		Diagram diagram = aBuilder.getDiagram();
+		if( !diagram.tentativeBatch(() -> applyAll(operation)) )
+		{
+			return Optional.empty();
+		}
+		return Optional.of(new BatchOperation(diagram, operation));
+	}
+	
+	/*
+	 * The nodes are validated before the diagram is changed because their validity 
+	 * does not depend on the other additions. 
+	 */
+	private boolean canAddNodes()
+	{
+		for( int i = 0; i < aNodes.size(); i++ )
+		{
+			Node node = aNodes.get(i);
+			if( node.requiresParent() || node.getDiagram().isPresent() || !aBuilder.canAdd(node, aPositions.get(i)) )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/*
+	 * Adds the nodes, then each edge after validating it, adding the corresponding 
+	 * operation to pOperation. Returns false, after reverting all the changes, as 
+	 * soon as an edge is not valid.
+	 */
+	private boolean applyAll(CompoundOperation pOperation)
+	{
+		Diagram diagram = aBuilder.getDiagram();
+		List<Point> previousPositions = new ArrayList<>();
+		for( int i = 0; i < aNodes.size(); i++ )
+		{
+			Node node = aNodes.get(i);
+			previousPositions.add(node.position());
+			node.moveTo(aPositions.get(i));
+			DiagramOperation addition = new SimpleOperation(() -> diagram.addRootNode(node), 
+					() -> diagram.removeRootNode(node));
+			addition.execute();
+			pOperation.add(addition);
+		}
+		List<Connection> previousConnections = new ArrayList<>();
+		for( int i = 0; i < aEdges.size(); i++ )
+		{
+			Edge edge = aEdges.get(i);
+			Node start = aStartNodes.get(i);
+			Node end = aEndNodes.get(i);
+			if( !isIn(start, diagram) || !isIn(end, diagram) || 
+					!aBuilder.getEdgeConstraints().satisfied(edge, start, end, 
+							NodeViewerRegistry.getBounds(start).getCenter(), 
+							NodeViewerRegistry.getBounds(end).getCenter(), diagram) )
+			{
+				pOperation.undo();
+				restore(previousPositions, previousConnections);
+				return false;
+			}
+			previousConnections.add(new Connection(edge));
+			edge.connect(start, end, diagram);
+			DiagramOperation addition = new SimpleOperation(() -> diagram.addEdge(edge), 
+					() -> diagram.removeEdge(edge));
+			addition.execute();
+			pOperation.add(addition);
+		}
+		return true;
+	}
+	
+	/*
+	 * Moves the nodes back to their previous positions and reconnects the edges 
+	 * connected by this edit as they were before. Edges that were not connected 
+	 * before are detached from the diagram.
+	 */
+	private void restore(List<Point> pPositions, List<Connection> pConnections)
+	{
+		for( int i = 0; i < pPositions.size(); i++ )
+		{
+			aNodes.get(i).moveTo(pPositions.get(i));
+		}
+		for( int i = 0; i < pConnections.size(); i++ )
+		{
+			Connection previous = pConnections.get(i);
+			if( previous.aStart == null )
+			{
+				aEdges.get(i).connect(aStartNodes.get(i), aEndNodes.get(i), null);
+			}
+			else
+			{
+				aEdges.get(i).connect(previous.aStart, previous.aEnd, previous.aDiagram);
+			}
+		}
+	}
+	
+	private static boolean isIn(Node pNode, Diagram pDiagram)
+	{
+		return pNode.getDiagram().isPresent() && pNode.getDiagram().get() == pDiagram;
+	}
+	
+	/**
+	 * The end points and diagram of an edge before it is connected by the edit.
+	 */
+	private static final class Connection
+	{
+		private final Node aStart;
+		private final Node aEnd;
+		private final Diagram aDiagram;
+		
+		Connection(Edge pEdge)
+		{
+			aStart = pEdge.getStart();
+			aEnd = pEdge.getEnd();
+			aDiagram = pEdge.getDiagram();
+		}
+	}
+}
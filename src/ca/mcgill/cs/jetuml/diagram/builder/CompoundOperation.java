@@ -23,6 +23,7 @@ package ca.mcgill.cs.jetuml.diagram.builder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * An operation that is composed of other operations, following
@@ -76,4 +77,43 @@ public class CompoundOperation implements DiagramOperation
 	{
 		return aOperations.isEmpty();
 	}
+	
+	@Override
+	public int size()
+	{
+		int size = 0;
+		for( DiagramOperation operation : aOperations )
+		{
+			size += operation.size();
+		}
+		return Math.max(1, size);
+	}
+	
+	/**
+	 * Combines this operation with another compound operation made of the 
+	 * same number of sub-operations, if each sub-operation can be combined
+	 * with the sub-operation of pNext at the same position. This is the case, 
+	 * for instance, of two successive moves of the same selection.
+	 */
+	@Override
+	public Optional<DiagramOperation> coalesce(DiagramOperation pNext)
+	{
+		assert pNext != null;
+		if( !(pNext instanceof CompoundOperation) || isEmpty() || 
+				((CompoundOperation)pNext).aOperations.size() != aOperations.size() )
+		{
+			return Optional.empty();
+		}
+		CompoundOperation result = new CompoundOperation();
+		for( int i = 0; i < aOperations.size(); i++ )
+		{
+			Optional<DiagramOperation> operation = aOperations.get(i).coalesce(((CompoundOperation)pNext).aOperations.get(i));
+			if( !operation.isPresent() )
+			{
+				return Optional.empty();
+			}
+			result.add(operation.get());
+		}
+		return Optional.of(result);
+	}
 }
@@ -179,9 +179,21 @@ public abstract class DiagramBuilder
 				()-> aDiagram.removeRootNode(pNode));
 	}
 	
+	/**
+	 * Creates an empty bulk edit for the diagram wrapped by this builder, 
+	 * to add many elements at once.
+	 * 
+	 * @return A new bulk edit.
+	 */
+	public final BulkEdit createBulkEdit()
+	{
+		return new BulkEdit(this);
+	}
+	
 	/**
 	 * Creates an operation that adds all the elements in pElements. Assumes all nodes
 	 * are root nodes and all edges are connected, and that there are no dangling references.
+	 * The operation is executed and undone as a single batch of changes to the diagram.
 	 * 
 	 * @param pElements The elements to add.
 	 * @return The requested operation
@@ -208,14 +220,14 @@ public abstract class DiagramBuilder
 						()-> 
 						{ 
 							Edge edge = (Edge) element;
-							aDiagram.addEdge(edge); 
 							edge.connect(edge.getStart(), edge.getEnd(), aDiagram);	
+							aDiagram.addEdge(edge); 
 						},
 						()-> aDiagram.removeEdge((Edge)element)));
 			}
 		}
 		
-		return operation;
+		return new BatchOperation(aDiagram, operation);
 	}
 	
 	/**
@@ -401,9 +413,7 @@ public abstract class DiagramBuilder
 	 */
 	public final DiagramOperation createMoveNodeOperation(Node pNode, int pX, int pY)
 	{
-		return new SimpleOperation(
-				()-> pNode.translate(pX, pY),
-				()-> pNode.translate(-pX, -pY));
+		return new MoveNodeOperation(pNode, pX, pY);
 	}
 	
 	/**
@@ -20,10 +20,13 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.diagram.builder;
 
+import java.util.Optional;
+
 /**
  * Represents an operation to change a diagram, that
  * can be undone. Operations are only required to be valid
  * for a single execution and a single undoing in a row.
+ * Operations must not be modified once they are executed.
  */
 public interface DiagramOperation
 {
@@ -36,4 +39,32 @@ public interface DiagramOperation
 	 * Undoes the operation.
 	 */
 	void undo();
+	
+	/**
+	 * Returns an estimate of the memory retained by this operation,
+	 * expressed as the number of diagram changes it records. 
+	 * 
+	 * @return The size of this operation. At least 1.
+	 */
+	default int size()
+	{
+		return 1;
+	}
+	
+	/**
+	 * Combines this operation with pNext, an operation executed immediately 
+	 * after it, into a single operation. Executing the combined operation has 
+	 * the same effect as executing this operation followed by pNext, and 
+	 * undoing it the same effect as undoing both. Neither operation is modified.
+	 * 
+	 * @param pNext The operation that follows this one.
+	 * @return The combined operation, or empty if the two operations 
+	 *     cannot be combined.
+	 * @pre pNext != null
+	 */
+	default Optional<DiagramOperation> coalesce(DiagramOperation pNext)
+	{
+		assert pNext != null;
+		return Optional.empty();
+	}
 }
@@ -29,13 +29,55 @@ import java.util.Optional;
  * Responsible for executing and undoing operations, and managing the collection 
  * of previously executed and undone operations. Can also compute whether a 
  * diagram has unsaved modifications.
+ * 
+ * The history of operations is bounded, both in number of operations and in 
+ * their total size, as estimated by DiagramOperation.size(). When a bound is 
+ * exceeded, the oldest operations are discarded, starting with the ones that 
+ * can be undone. An operation that can be combined with the last executed 
+ * operation, such as a second move of the same nodes, is merged with it 
+ * instead of being added to the history, unless the diagram was saved in 
+ * between.
  */
 public class DiagramOperationProcessor
 {
+	/** The default maximum number of operations kept in the history. */
+	public static final int DEFAULT_MAXIMUM_OPERATIONS = 1000;
+	
+	/** The default maximum total size of the operations kept in the history. */
+	public static final int DEFAULT_MAXIMUM_SIZE = 100000;
+	
 	private final List<DiagramOperation> aExecutedOperations = new ArrayList<>();
 	private final List<DiagramOperation> aUndoneOperations = new ArrayList<>();
+	private final int aMaximumOperations;
+	private final int aMaximumSize;
+	private int aSize;
+	// The last operation discarded from the executed operations, which represents the 
+	// state of the diagram when all the operations in the history are undone.
+	private Optional<DiagramOperation> aBaseOperation = Optional.empty();
 	private Optional<DiagramOperation> aLastSavedOperation = Optional.empty();
 	
+	/**
+	 * Creates a processor with the default bounds on its history.
+	 */
+	public DiagramOperationProcessor()
+	{
+		this(DEFAULT_MAXIMUM_OPERATIONS, DEFAULT_MAXIMUM_SIZE);
+	}
+	
+	/**
+	 * Creates a processor with the given bounds on its history. 
+	 * 
+	 * @param pMaximumOperations The maximum number of operations that can be undone and redone.
+	 * @param pMaximumSize The maximum total size of the operations that can be undone and redone.
+	 * @pre pMaximumOperations > 0 && pMaximumSize > 0
+	 */
+	public DiagramOperationProcessor(int pMaximumOperations, int pMaximumSize)
+	{
+		assert pMaximumOperations > 0 && pMaximumSize > 0;
+		aMaximumOperations = pMaximumOperations;
+		aMaximumSize = pMaximumSize;
+	}
+	
 	/**
 	 * Executes pOperation and adds it to the list of executed
 	 * operations.
@@ -47,7 +89,7 @@ public class DiagramOperationProcessor
 	{
 		assert pOperation != null;
 		pOperation.execute();
-		aExecutedOperations.add(pOperation);
+		push(pOperation);
 	}
 	
 	/**
@@ -55,21 +97,7 @@ public class DiagramOperationProcessor
 	 */
 	public boolean hasUnsavedOperations()
 	{
-		if( aLastSavedOperation.isPresent() )
-		{
-			if( aExecutedOperations.isEmpty() )
-			{
-				return true;
-			}
-			else
-			{
-				return aLastSavedOperation.get() != peek();
-			}
-		}
-		else
-		{
-			return !aExecutedOperations.isEmpty();
-		}
+		return !aLastSavedOperation.equals(current());
 	}
 	
 	private DiagramOperation peek()
@@ -77,16 +105,37 @@ public class DiagramOperationProcessor
 		return aExecutedOperations.get(aExecutedOperations.size()-1);
 	}
 	
+	/*
+	 * The operation that brought the diagram in its current state, if any.
+	 */
+	private Optional<DiagramOperation> current()
+	{
+		if( aExecutedOperations.isEmpty() )
+		{
+			return aBaseOperation;
+		}
+		return Optional.of(peek());
+	}
+	
 	/**
 	 * Indicates that the diagram managed by this processor has been saved.
 	 */
 	public void diagramSaved()
 	{
-		aLastSavedOperation = Optional.empty();
-		if( aExecutedOperations.size() > 0 )
-		{
-			aLastSavedOperation = Optional.of(peek());
-		}
+		savePoint().run();
+	}
+	
+	/**
+	 * Captures the current state of the diagram, for saves that complete 
+	 * after further operations may have been executed.
+	 * 
+	 * @return A callback that indicates that the diagram managed by this processor 
+	 *     has been saved in the state it was in when this method was called.
+	 */
+	public Runnable savePoint()
+	{
+		Optional<DiagramOperation> savedOperation = current();
+		return () -> aLastSavedOperation = savedOperation;
 	}
 	
 	/**
@@ -99,7 +148,54 @@ public class DiagramOperationProcessor
 	public void storeAlreadyExecutedOperation(DiagramOperation pOperation)
 	{
 		assert pOperation != null;
+		push(pOperation);
+	}
+	
+	/*
+	 * Adds pOperation to the executed operations, or combines it with the last
+	 * executed operation if the diagram was not saved after this operation.
+	 */
+	private void push(DiagramOperation pOperation)
+	{
+		if( !aExecutedOperations.isEmpty() && !aLastSavedOperation.equals(current()) )
+		{
+			Optional<DiagramOperation> coalesced = peek().coalesce(pOperation);
+			if( coalesced.isPresent() )
+			{
+				aSize += coalesced.get().size() - peek().size();
+				aExecutedOperations.set(aExecutedOperations.size() - 1, coalesced.get());
+				trim();
+				return;
+			}
+		}
 		aExecutedOperations.add(pOperation);
+		aSize += pOperation.size();
+		trim();
+	}
+	
+	/*
+	 * Discards the oldest executed operations, and then the operations that would
+	 * be redone last, until the history is within its bounds. The last executed 
+	 * operation is always kept.
+	 */
+	private void trim()
+	{
+		while( aExecutedOperations.size() + aUndoneOperations.size() > aMaximumOperations || aSize > aMaximumSize )
+		{
+			if( aExecutedOperations.size() > 1 )
+			{
+				aBaseOperation = Optional.of(aExecutedOperations.remove(0));
+				aSize -= aBaseOperation.get().size();
+			}
+			else if( !aUndoneOperations.isEmpty() )
+			{
+				aSize -= aUndoneOperations.remove(0).size();
+			}
+			else
+			{
+				return;
+			}
+		}
 	}
 	
 	/**
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.diagram.builder;
+
+import java.util.Optional;
+
+import ca.mcgill.cs.jetuml.diagram.Node;
+
+/**
+ * An operation to move a node by a given amount. Successive moves 
+ * of the same node can be combined into a single move.
+ */
+final class MoveNodeOperation implements DiagramOperation
+{
+	private final Node aNode;
+	private final int aDeltaX;
+	private final int aDeltaY;
+	
+	/**
+	 * Creates an operation to move pNode.
+	 * 
+	 * @param pNode The node to move.
+	 * @param pDeltaX The amount to move the node in the x-coordinate.
+	 * @param pDeltaY The amount to move the node in the y-coordinate.
+	 * @pre pNode != null
+	 */
+	MoveNodeOperation(Node pNode, int pDeltaX, int pDeltaY)
+	{
+		assert pNode != null;
+		aNode = pNode;
+		aDeltaX = pDeltaX;
+		aDeltaY = pDeltaY;
+	}
+
+	@Override
+	public void execute()
+	{
+		aNode.translate(aDeltaX, aDeltaY);
+	}
+
+	@Override
+	public void undo()
+	{
+		aNode.translate(-aDeltaX, -aDeltaY);
+	}
+	
+	@Override
+	public Optional<DiagramOperation> coalesce(DiagramOperation pNext)
+	{
+		assert pNext != null;
+		if( pNext instanceof MoveNodeOperation && ((MoveNodeOperation)pNext).aNode == aNode )
+		{
+			MoveNodeOperation next = (MoveNodeOperation) pNext;
+			return Optional.of(new MoveNodeOperation(aNode, aDeltaX + next.aDeltaX, aDeltaY + next.aDeltaY));
+		}
+		return Optional.empty();
+	}
+}
@@ -93,9 +93,9 @@ public final class EdgeConstraints
 	{
 		assert pType != null && pStart != null && pEnd != null && pDiagram != null;
 		int result = 0;
-		for(Edge edge : pDiagram.edges())
+		for(Edge edge : pDiagram.edgesFrom(pStart))
 		{
-			if(edge.getClass() == pType && edge.getStart() == pStart && edge.getEnd() == pEnd)
+			if(edge.getClass() == pType && edge.getEnd() == pEnd)
 			{
 				result++;
 			}
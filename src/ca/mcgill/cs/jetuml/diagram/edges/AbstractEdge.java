@@ -22,8 +22,10 @@ package ca.mcgill.cs.jetuml.diagram.edges;
 
 import ca.mcgill.cs.jetuml.diagram.AbstractDiagramElement;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
 
 /**
  * Groups the functionality common to all edges.
@@ -38,9 +40,30 @@ public abstract class AbstractEdge extends AbstractDiagramElement implements Edg
 	public void connect(Node pStart, Node pEnd, Diagram pDiagram)
 	{
 		assert pStart != null && pEnd != null;
+		Node oldStart = aStart;
+		Node oldEnd = aEnd;
+		Diagram oldDiagram = aDiagram;
 		aStart = pStart;
 		aEnd = pEnd;
 		aDiagram = pDiagram;
+		if( oldDiagram != null && oldStart != null )
+		{
+			oldDiagram.edgeReconnected(this, oldStart, oldEnd);
+		}
+		if( aDiagram != null )
+		{
+			aDiagram.incrementStructuralRevision();
+			aDiagram.elementChanged(DiagramEvent.Kind.EDGE_CONNECTED, this);
+		}
+	}
+	
+	@Override
+	protected void propertyChanged(Property pProperty)
+	{
+		if( aDiagram != null )
+		{
+			aDiagram.propertyChanged(this, pProperty.name());
+		}
 	}
 
 	@Override
@@ -42,6 +42,7 @@ public final class AssociationEdge extends ThreeLabelEdge
 	public void setDirectionality( Directionality pDirectionality )
 	{
 		aDirectionality = pDirectionality;
+		propertyChanged(properties().get(PropertyName.DIRECTIONALITY));
 	}
 	
 	/**
@@ -60,6 +60,7 @@ public class CallEdge extends SingleLabelEdge
 	public void setSignal(boolean pNewValue) 
 	{ 
 		aSignal = pNewValue; 
+		propertyChanged(properties().get(PropertyName.SIGNAL));
 	}
 	
 	/**
@@ -36,6 +36,7 @@ public abstract class SingleLabelEdge extends AbstractEdge
 	public void setMiddleLabel(String pNewValue)
 	{
 		aLabelText = pNewValue;
+		propertyChanged(properties().get(PropertyName.MIDDLE_LABEL));
 	}
 
 	/**
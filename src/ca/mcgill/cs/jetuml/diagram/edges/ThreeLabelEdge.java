@@ -36,6 +36,7 @@ public abstract class ThreeLabelEdge extends SingleLabelEdge
 	public void setStartLabel(String pLabel)
 	{
 		aStartLabel = pLabel;
+		propertyChanged(properties().get(PropertyName.START_LABEL));
 	}
 	
 	/**
@@ -44,6 +45,7 @@ public abstract class ThreeLabelEdge extends SingleLabelEdge
 	public void setEndLabel(String pLabel)
 	{
 		aEndLabel = pLabel;
+		propertyChanged(properties().get(PropertyName.END_LABEL));
 	}
 	
 	/**
@@ -27,7 +27,9 @@ import java.util.Optional;
 
 import ca.mcgill.cs.jetuml.diagram.AbstractDiagramElement;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
 import ca.mcgill.cs.jetuml.geom.Point;
 
 /**
@@ -42,6 +44,7 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	public void translate(int pDeltaX, int pDeltaY)
 	{
 		aPosition = new Point( aPosition.getX() + pDeltaX, aPosition.getY() + pDeltaY );
+		notifyDiagram(DiagramEvent.Kind.NODE_MOVED);
 	}
 	
 	@Override
@@ -54,6 +57,47 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	public final void moveTo(Point pPoint)
 	{
 		aPosition = pPoint;
+		notifyDiagram(DiagramEvent.Kind.NODE_MOVED);
+	}
+	
+	/**
+	 * Reports a change of kind pKind to this node to its diagram, if any.
+	 * 
+	 * @param pKind The kind of change.
+	 */
+	protected final void notifyDiagram(DiagramEvent.Kind pKind)
+	{
+		if( aDiagram.isPresent() )
+		{
+			aDiagram.get().elementChanged(pKind, this);
+		}
+	}
+	
+	/**
+	 * Links pClonedChild to pClonedParent without reporting the change to the 
+	 * diagram of the nodes they were cloned from, which contains neither of them.
+	 * 
+	 * @param pClonedChild The clone of a child node.
+	 * @param pClonedParent The clone of the parent of the original child.
+	 * @pre pClonedChild instanceof AbstractNode && pClonedParent != null
+	 */
+	protected static void linkClone(Node pClonedChild, Node pClonedParent)
+	{
+		assert pClonedChild instanceof AbstractNode && pClonedParent != null;
+		AbstractNode child = (AbstractNode) pClonedChild;
+		Optional<Diagram> diagram = child.aDiagram;
+		child.aDiagram = Optional.empty();
+		child.link(pClonedParent);
+		child.aDiagram = diagram;
+	}
+	
+	@Override
+	protected void propertyChanged(Property pProperty)
+	{
+		if( aDiagram.isPresent() )
+		{
+			aDiagram.get().propertyChanged(this, pProperty.name());
+		}
 	}
 
 	@Override
@@ -75,11 +119,13 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	{
 		assert pDiagram != null;
 		aDiagram = Optional.of(pDiagram);
+		pDiagram.incrementStructuralRevision();
 	}
 
 	@Override
 	public final void detach()
 	{
+		aDiagram.ifPresent(Diagram::incrementStructuralRevision);
 		aDiagram = Optional.empty();
 	}
 
@@ -23,6 +23,7 @@ package ca.mcgill.cs.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.PropertyName;
 
@@ -42,6 +43,7 @@ public class AbstractPackageNode extends AbstractNode
 	public void setName(String pName)
 	{
 		aName = pName;
+		propertyChanged(properties().get(PropertyName.NAME));
 	}
 
 	/**
@@ -65,6 +67,7 @@ public class AbstractPackageNode extends AbstractNode
 	{
 		assert pNode instanceof PackageNode || pNode == null;
 		aContainer = Optional.of(pNode);
+		notifyDiagram(DiagramEvent.Kind.CHILD_REPARENTED);
 	}
 	
 	@Override
@@ -72,6 +75,7 @@ public class AbstractPackageNode extends AbstractNode
 	{
 		assert hasParent();
 		aContainer = Optional.empty();
+		notifyDiagram(DiagramEvent.Kind.CHILD_REPARENTED);
 	}
 
 	@Override
@@ -23,6 +23,7 @@ package ca.mcgill.cs.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.PropertyName;
 
@@ -53,6 +54,7 @@ public class CallNode extends AbstractNode
 	public void setOpenBottom(boolean pNewValue)
 	{ 
 		aOpenBottom = pNewValue; 
+		propertyChanged(properties().get(PropertyName.OPEN_BOTTOM));
 	}
 
 	@Override
@@ -90,6 +92,7 @@ public class CallNode extends AbstractNode
 		assert pNode != null;
 		assert pNode instanceof ImplicitParameterNode;
 		aImplicitParameter = Optional.of((ImplicitParameterNode) pNode);
+		notifyDiagram(DiagramEvent.Kind.CHILD_REPARENTED);
 	}
 	
 	@Override
@@ -97,6 +100,7 @@ public class CallNode extends AbstractNode
 	{
 		assert hasParent();
 		aImplicitParameter = Optional.empty();
+		notifyDiagram(DiagramEvent.Kind.CHILD_REPARENTED);
 	}
 
 	@Override
@@ -23,6 +23,7 @@ package ca.mcgill.cs.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.PropertyName;
 
@@ -49,6 +50,7 @@ public final class FieldNode extends NamedNode
 	public void setValue(String pNewValue)
 	{
 		aValue = pNewValue;
+		propertyChanged(properties().get(PropertyName.VALUE));
 	}
 
 	/**
@@ -71,7 +73,8 @@ public final class FieldNode extends NamedNode
 	public void link(Node pNode)
 	{
 		assert pNode != null && pNode instanceof ObjectNode;
-		aObject = Optional.of((ObjectNode) pNode);		
+		aObject = Optional.of((ObjectNode) pNode);
+		notifyDiagram(DiagramEvent.Kind.CHILD_REPARENTED);
 	}
 	
 	@Override
@@ -79,6 +82,7 @@ public final class FieldNode extends NamedNode
 	{
 		assert hasParent();
 		aObject = Optional.empty();
+		notifyDiagram(DiagramEvent.Kind.CHILD_REPARENTED);
 	}
 	
 	@Override
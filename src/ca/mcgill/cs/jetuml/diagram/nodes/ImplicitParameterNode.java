@@ -48,7 +48,7 @@ public final class ImplicitParameterNode extends NamedNode
 		{
 			// We can't use addChild(...) here because of the interaction with the original parent.
 			Node clonedChild = child.clone();
-			clonedChild.link(cloned);
+			linkClone(clonedChild, cloned);
 			cloned.aCallNodes.add(clonedChild);
 		}
 		return cloned;
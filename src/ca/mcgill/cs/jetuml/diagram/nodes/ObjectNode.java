@@ -56,7 +56,7 @@ public final class ObjectNode extends NamedNode
 		{
 			// We can't use addChild(...) here because of the interaction with the original parent.
 			Node clonedChild = child.clone();
-			clonedChild.link(cloned);
+			linkClone(clonedChild, cloned);
 			cloned.aFields.add(clonedChild);
 		}
 		return cloned;
@@ -50,7 +50,7 @@ public final class PackageNode extends AbstractPackageNode
 		{
 			// We can't use addChild(...) here because of the interaction with the original parent.
 			Node clonedChild = child.clone();
-			clonedChild.link(cloned);
+			linkClone(clonedChild, cloned);
 			cloned.aContainedNodes.add(clonedChild);
 		}
 		return cloned;
@@ -23,6 +23,7 @@ package ca.mcgill.cs.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.PropertyName;
 
@@ -44,6 +45,7 @@ public abstract class TypeNode extends NamedNode
 	{
 		assert pMethods != null;
 		aMethods = pMethods;
+		propertyChanged(properties().get(PropertyName.METHODS));
 	}
 	
 	/**
@@ -77,6 +79,7 @@ public abstract class TypeNode extends NamedNode
 	{
 		assert pNode instanceof PackageNode && pNode != null;
 		aContainer = Optional.of(pNode);
+		notifyDiagram(DiagramEvent.Kind.CHILD_REPARENTED);
 	}
 	
 	@Override
@@ -84,6 +87,7 @@ public abstract class TypeNode extends NamedNode
 	{
 		assert hasParent();
 		aContainer = Optional.empty();
+		notifyDiagram(DiagramEvent.Kind.CHILD_REPARENTED);
 	}
 	
 	@Override
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.geom;
+
+/**
+ * Computes the smallest rectangle that encloses a series of points 
+ * and rectangles without creating intermediate rectangles. An 
+ * accumulator can be reset and reused for a new series.
+ */
+public final class BoundsAccumulator
+{
+	private int aMinX;
+	private int aMinY;
+	private int aMaxX;
+	private int aMaxY;
+	private boolean aEmpty = true;
+	
+	/**
+	 * Includes the point (pX, pY) in the accumulated bounds.
+	 * 
+	 * @param pX The x-coordinate of the point.
+	 * @param pY The y-coordinate of the point.
+	 * @return This accumulator.
+	 */
+	public BoundsAccumulator add(int pX, int pY)
+	{
+		return add(pX, pY, pX, pY);
+	}
+	
+	/**
+	 * Includes pPoint in the accumulated bounds.
+	 * 
+	 * @param pPoint The point to include.
+	 * @return This accumulator.
+	 * @pre pPoint != null
+	 */
+	public BoundsAccumulator add(Point pPoint)
+	{
+		assert pPoint != null;
+		return add(pPoint.getX(), pPoint.getY(), pPoint.getX(), pPoint.getY());
+	}
+	
+	/**
+	 * Includes pRectangle in the accumulated bounds.
+	 * 
+	 * @param pRectangle The rectangle to include.
+	 * @return This accumulator.
+	 * @pre pRectangle != null
+	 */
+	public BoundsAccumulator add(Rectangle pRectangle)
+	{
+		assert pRectangle != null;
+		return add(pRectangle.getX(), pRectangle.getY(), pRectangle.getMaxX(), pRectangle.getMaxY());
+	}
+	
+	private BoundsAccumulator add(int pMinX, int pMinY, int pMaxX, int pMaxY)
+	{
+		if( aEmpty )
+		{
+			aMinX = pMinX;
+			aMinY = pMinY;
+			aMaxX = pMaxX;
+			aMaxY = pMaxY;
+			aEmpty = false;
+		}
+		else
+		{
+			aMinX = Math.min(aMinX, pMinX);
+			aMinY = Math.min(aMinY, pMinY);
+			aMaxX = Math.max(aMaxX, pMaxX);
+			aMaxY = Math.max(aMaxY, pMaxY);
+		}
+		return this;
+	}
+	
+	/**
+	 * @return True if nothing was added since the creation 
+	 *     or the last reset of this accumulator.
+	 */
+	public boolean isEmpty()
+	{
+		return aEmpty;
+	}
+	
+	/**
+	 * Discards the accumulated bounds.
+	 */
+	public void reset()
+	{
+		aEmpty = true;
+	}
+	
+	/**
+	 * @return The smallest rectangle that encloses everything that was added, 
+	 *     or a rectangle of size 0 at the origin if nothing was added.
+	 */
+	public Rectangle toRectangle()
+	{
+		if( aEmpty )
+		{
+			return new Rectangle(0, 0, 0, 0);
+		}
+		return new Rectangle(aMinX, aMinY, aMaxX - aMinX, aMaxY - aMinY);
+	}
+}
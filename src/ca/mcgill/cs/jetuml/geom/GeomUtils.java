@@ -32,6 +32,8 @@ import static java.lang.Math.toRadians;
  */
 public final class GeomUtils
 {
+	private static final int QUAD_CURVE_SEGMENTS = 32;
+	
 	private GeomUtils()
 	{}
 	
@@ -260,5 +262,67 @@ public final class GeomUtils
 	{
 		return (int) Math.round(pAdjacentSide * Math.tan(Math.toRadians(pAngleInDegrees)));
 	}
-
+	
+	/**
+	 * Computes the distance between a point and a line segment 
+	 * without allocating any object.
+	 * 
+	 * @param pPoint The point.
+	 * @param pX1 The x-coordinate of the start of the segment.
+	 * @param pY1 The y-coordinate of the start of the segment.
+	 * @param pX2 The x-coordinate of the end of the segment.
+	 * @param pY2 The y-coordinate of the end of the segment.
+	 * @return The distance between pPoint and the closest point of the segment.
+	 * @pre pPoint != null
+	 */
+	public static double distanceToSegment(Point pPoint, double pX1, double pY1, double pX2, double pY2)
+	{
+		assert pPoint != null;
+		double dx = pX2 - pX1;
+		double dy = pY2 - pY1;
+		double lengthSquared = dx * dx + dy * dy;
+		double ratio = 0;
+		if( lengthSquared > 0 )
+		{
+			ratio = ((pPoint.getX() - pX1) * dx + (pPoint.getY() - pY1) * dy) / lengthSquared;
+			ratio = Math.max(0, Math.min(1, ratio));
+		}
+		return Math.hypot(pPoint.getX() - (pX1 + ratio * dx), pPoint.getY() - (pY1 + ratio * dy));
+	}
+	
+	/**
+	 * Computes the distance between a point and a quadratic Bezier curve 
+	 * without allocating any object. The curve is approximated by
+	 * QUAD_CURVE_SEGMENTS line segments, which is precise to a fraction 
+	 * of a pixel for the curves of edges.
+	 * 
+	 * @param pPoint The point.
+	 * @param pX1 The x-coordinate of the start of the curve.
+	 * @param pY1 The y-coordinate of the start of the curve.
+	 * @param pControlX The x-coordinate of the control point.
+	 * @param pControlY The y-coordinate of the control point.
+	 * @param pX2 The x-coordinate of the end of the curve.
+	 * @param pY2 The y-coordinate of the end of the curve.
+	 * @return The distance between pPoint and the closest point of the curve.
+	 * @pre pPoint != null
+	 */
+	public static double distanceToQuadCurve(Point pPoint, double pX1, double pY1, 
+			double pControlX, double pControlY, double pX2, double pY2)
+	{
+		assert pPoint != null;
+		double result = Double.MAX_VALUE;
+		double previousX = pX1;
+		double previousY = pY1;
+		for( int i = 1; i <= QUAD_CURVE_SEGMENTS; i++ )
+		{
+			double ratio = i / (double) QUAD_CURVE_SEGMENTS;
+			double complement = 1 - ratio;
+			double x = complement * complement * pX1 + 2 * complement * ratio * pControlX + ratio * ratio * pX2;
+			double y = complement * complement * pY1 + 2 * complement * ratio * pControlY + ratio * ratio * pY2;
+			result = Math.min(result, distanceToSegment(pPoint, previousX, previousY, x, y));
+			previousX = x;
+			previousY = y;
+		}
+		return result;
+	}
 }
@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import ca.mcgill.cs.jetuml.application.UserPreferences;
+import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreference;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
+import ca.mcgill.cs.jetuml.diagram.DiagramListener;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
+import ca.mcgill.cs.jetuml.geom.Line;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.viewers.edges.EdgeViewerRegistry;
+import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
+
+/**
+ * Keeps track of what was last painted on a diagram canvas so that 
+ * only the region whose content changed needs to be repainted.
+ * 
+ * For each element, the tracker remembers the bounds and the values 
+ * that determine its appearance. An element whose record differs from 
+ * the current one is damaged at both its old and its new bounds. Added 
+ * and removed elements are damaged in the same way. Selection handles and 
+ * tool feedback are drawn on overlays and are not tracked.
+ * 
+ * The tracker listens to the changes to its diagram. When nodes are moved or 
+ * properties are set, only the records of the elements whose appearance can 
+ * depend on the changed elements are compared: the nodes in the tree of a 
+ * changed node, the edges attached to these nodes or to the end points of a 
+ * changed edge, and the edges attached to the other end of these edges, whose
+ * position on the side of a node depends on the position of their neighbors. 
+ * All the records are compared after a change to the structure of the diagram 
+ * or to the font size, and after any change to a sequence diagram, whose layout 
+ * depends on all of its elements.
+ */
+final class DamageTracker implements DiagramListener
+{
+	/* The number of pixels added around each damaged rectangle to account
+	 * for strokes, drop shadows, and selection handles that extend slightly 
+	 * beyond the bounds of an element. */
+	private static final int MARGIN = 10;
+	
+	private final Diagram aDiagram;
+	private Map<DiagramElement, Painted> aPainted = new IdentityHashMap<>();
+	private final Set<DiagramElement> aChanged = Collections.newSetFromMap(new IdentityHashMap<>());
+	private boolean aStructureChanged = true;
+	private int aFontSize;
+	
+	/**
+	 * Creates a tracker for pDiagram, on which nothing is painted yet.
+	 * 
+	 * @param pDiagram The diagram painted on the canvas.
+	 * @pre pDiagram != null
+	 */
+	DamageTracker(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		aDiagram = pDiagram;
+		aDiagram.addListener(this);
+	}
+	
+	@Override
+	public void diagramChanged(DiagramEvent pEvent)
+	{
+		if( pEvent.getKind() == DiagramEvent.Kind.BATCH )
+		{
+			pEvent.getEvents().forEach(this::diagramChanged);
+		}
+		else if( pEvent.getKind() == DiagramEvent.Kind.NODE_MOVED || pEvent.getKind() == DiagramEvent.Kind.PROPERTY_CHANGED )
+		{
+			aChanged.add(pEvent.getElement());
+		}
+		else
+		{
+			aStructureChanged = true;
+		}
+	}
+	
+	/**
+	 * Records the current state of the diagram as painted, and returns the region 
+	 * that must be repainted to bring the canvas up to date with this state.
+	 * 
+	 * @return The damaged region, or empty if nothing changed since the last call.
+	 */
+	Optional<Rectangle> update()
+	{
+		int fontSize = UserPreferences.instance().getInteger(IntegerPreference.fontSize);
+		Optional<Rectangle> damage = Optional.empty();
+		if( aStructureChanged || fontSize != aFontSize || 
+				(aDiagram.getType() == DiagramType.SEQUENCE && !aChanged.isEmpty()) )
+		{
+			damage = updateAll();
+		}
+		else if( !aChanged.isEmpty() )
+		{
+			damage = updateChanged();
+		}
+		aStructureChanged = false;
+		aFontSize = fontSize;
+		aChanged.clear();
+		return damage.map(DamageTracker::grow);
+	}
+	
+	private Optional<Rectangle> updateAll()
+	{
+		Map<DiagramElement, Painted> current = new IdentityHashMap<>();
+		aDiagram.rootNodes().forEach(node -> recordNode(node, current));
+		for( Edge edge : aDiagram.edges() )
+		{
+			recordEdge(edge, current);
+		}
+		
+		Optional<Rectangle> damage = compare(current);
+		for( Painted removed : aPainted.values() )
+		{
+			damage = union(damage, removed.aBounds);
+		}
+		aPainted = current;
+		return damage;
+	}
+	
+	/*
+	 * Only compares the records of the elements that can be affected by the 
+	 * changes, which are all in the diagram since its structure is unchanged.
+	 */
+	private Optional<Rectangle> updateChanged()
+	{
+		Map<DiagramElement, Painted> current = new IdentityHashMap<>();
+		List<Node> nodes = new ArrayList<>();
+		for( DiagramElement element : aChanged )
+		{
+			if( element instanceof Node )
+			{
+				Node root = (Node) element;
+				while( root.hasParent() )
+				{
+					root = root.getParent();
+				}
+				if( !current.containsKey(root) )
+				{
+					recordNode(root, current);
+					addSubtree(root, nodes);
+				}
+			}
+			else
+			{
+				Edge edge = (Edge) element;
+				nodes.add(edge.getStart());
+				nodes.add(edge.getEnd());
+			}
+		}
+		Set<Node> ends = Collections.newSetFromMap(new IdentityHashMap<>());
+		for( Node node : nodes )
+		{
+			ends.add(node);
+			for( Edge edge : aDiagram.edgesConnectedTo(node) )
+			{
+				ends.add(edge.getStart());
+				ends.add(edge.getEnd());
+			}
+		}
+		for( Node node : ends )
+		{
+			for( Edge edge : aDiagram.edgesConnectedTo(node) )
+			{
+				recordEdge(edge, current);
+			}
+		}
+		Optional<Rectangle> damage = compare(current);
+		aPainted.putAll(current);
+		return damage;
+	}
+	
+	/*
+	 * Returns the union of the old and new bounds of the elements whose record in 
+	 * pCurrent differs from the painted one, and removes these elements from aPainted.
+	 */
+	private Optional<Rectangle> compare(Map<DiagramElement, Painted> pCurrent)
+	{
+		Optional<Rectangle> damage = Optional.empty();
+		for( Map.Entry<DiagramElement, Painted> entry : pCurrent.entrySet() )
+		{
+			Painted previous = aPainted.remove(entry.getKey());
+			if( previous == null )
+			{
+				damage = union(damage, entry.getValue().aBounds);
+			}
+			else if( !previous.isSameAs(entry.getValue()) )
+			{
+				damage = union(union(damage, previous.aBounds), entry.getValue().aBounds);
+			}
+		}
+		return damage;
+	}
+	
+	private static void addSubtree(Node pNode, List<Node> pNodes)
+	{
+		pNodes.add(pNode);
+		pNode.getChildren().forEach(child -> addSubtree(child, pNodes));
+	}
+	
+	private static void recordEdge(Edge pEdge, Map<DiagramElement, Painted> pRecords)
+	{
+		if( !pRecords.containsKey(pEdge) )
+		{
+			pRecords.put(pEdge, new Painted(EdgeViewerRegistry.getBounds(pEdge), appearanceOf(pEdge)));
+		}
+	}
+	
+	private static void recordNode(Node pNode, Map<DiagramElement, Painted> pRecords)
+	{
+		List<Object> appearance = new ArrayList<>();
+		appearance.add(pNode.position());
+		addPropertyValues(pNode, appearance);
+		pRecords.put(pNode, new Painted(NodeViewerRegistry.getBounds(pNode), appearance));
+		pNode.getChildren().forEach(child -> recordNode(child, pRecords));
+	}
+	
+	/* The path of an edge is entirely determined by its connection points, 
+	 * which is not necessarily the case for its bounds. */
+	private static List<Object> appearanceOf(Edge pEdge)
+	{
+		List<Object> appearance = new ArrayList<>();
+		appearance.add(pEdge.getStart());
+		appearance.add(pEdge.getEnd());
+		Line connectionPoints = EdgeViewerRegistry.getConnectionPoints(pEdge);
+		appearance.add(connectionPoints.getPoint1());
+		appearance.add(connectionPoints.getPoint2());
+		addPropertyValues(pEdge, appearance);
+		return appearance;
+	}
+	
+	private static void addPropertyValues(DiagramElement pElement, List<Object> pAppearance)
+	{
+		for( Property property : pElement.properties() )
+		{
+			pAppearance.add(property.get());
+		}
+	}
+	
+	private static Optional<Rectangle> union(Optional<Rectangle> pDamage, Rectangle pRectangle)
+	{
+		return Optional.of(pDamage.map(damage -> damage.add(pRectangle)).orElse(pRectangle));
+	}
+	
+	/**
+	 * @param pRectangle A rectangle to grow.
+	 * @return pRectangle grown on each side by a margin that accounts for the parts 
+	 *     of an element that are drawn slightly outside of its bounds.
+	 */
+	static Rectangle grow(Rectangle pRectangle)
+	{
+		return new Rectangle(pRectangle.getX() - MARGIN, pRectangle.getY() - MARGIN, 
+				pRectangle.getWidth() + 2 * MARGIN, pRectangle.getHeight() + 2 * MARGIN);
+	}
+	
+	/**
+	 * What was painted for a single element.
+	 */
+	private static final class Painted
+	{
+		private final Rectangle aBounds;
+		private final List<Object> aAppearance;
+		
+		Painted(Rectangle pBounds, List<Object> pAppearance)
+		{
+			aBounds = pBounds;
+			aAppearance = pAppearance;
+		}
+		
+		boolean isSameAs(Painted pPainted)
+		{
+			return aBounds.equals(pPainted.aBounds) && aAppearance.equals(pPainted.aAppearance);
+		}
+	}
+}
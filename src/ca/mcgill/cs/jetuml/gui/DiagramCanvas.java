@@ -22,16 +22,23 @@ package ca.mcgill.cs.jetuml.gui;
 
 import static ca.mcgill.cs.jetuml.diagram.DiagramType.viewerFor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 import ca.mcgill.cs.jetuml.application.UserPreferences;
 import ca.mcgill.cs.jetuml.application.UserPreferences.BooleanPreference;
 import ca.mcgill.cs.jetuml.application.UserPreferences.BooleanPreferenceChangeHandler;
 import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreference;
 import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreferenceChangeHandler;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
 import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.CanvasRenderingSurface;
 import ca.mcgill.cs.jetuml.views.Grid;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import ca.mcgill.cs.jetuml.views.ViewerUtilities;
 import javafx.scene.canvas.Canvas;
@@ -39,7 +46,9 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
 /**
- * A canvas on which to view diagrams.
+ * A canvas on which to view diagrams. The canvas only shows the diagram: 
+ * the selection handles and the feedback of the selection tools are drawn on 
+ * overlays stacked over it, so that each layer can be repainted independently.
  */
 public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanPreferenceChangeHandler, IntegerPreferenceChangeHandler
 {	
@@ -51,6 +60,11 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	
 	private final Diagram aDiagram;
 	private DiagramCanvasController aController;
+	private final DamageTracker aDamageTracker;
+	private boolean aFullRepaintNeeded = true;
+	private Rectangle aViewport;
+	private final Canvas aSelectionLayer;
+	private final Canvas aFeedbackLayer;
 	
 	/**
 	 * Constructs the canvas, assigns the diagram to it.
@@ -64,9 +78,21 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 		Dimension dimension = getDiagramCanvasWidth(pDiagram);
 		setWidth(dimension.width());
 		setHeight(dimension.height());
+		aViewport = new Rectangle(0, 0, dimension.width(), dimension.height());
 		getGraphicsContext2D().setLineWidth(LINE_WIDTH);
 		getGraphicsContext2D().setFill(Color.WHITE);
+		aSelectionLayer = createOverlay(dimension);
+		aFeedbackLayer = createOverlay(dimension);
 		aDiagram = pDiagram;
+		aDamageTracker = new DamageTracker(pDiagram);
+	}
+	
+	private static Canvas createOverlay(Dimension pDimension)
+	{
+		Canvas overlay = new Canvas(pDimension.width(), pDimension.height());
+		overlay.getGraphicsContext2D().setLineWidth(LINE_WIDTH);
+		overlay.setMouseTransparent(true);
+		return overlay;
 	}
 	
 	/**
@@ -94,29 +120,133 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	}
 	
 	/**
-	 * Paints the panel and all the graph elements in aDiagramView.
-	 * Called after the panel is resized.
+	 * @return The canvases stacked over this canvas, from bottom to top: one 
+	 *     for the selection handles and one for the feedback of the rubberband and 
+	 *     lasso tools. The overlays are transparent to mouse events.
+	 */
+	public List<Canvas> getOverlays()
+	{
+		return List.of(aSelectionLayer, aFeedbackLayer);
+	}
+	
+	/**
+	 * Brings the visible part of the panel and of its overlays up to date with the 
+	 * diagram and the selection model. Only the region of the viewport whose content changed 
+	 * since it was last painted is repainted, unless a full repaint was requested.
 	 */
 	public void paintPanel()
+	{
+		aController.synchronizeSelectionModel();
+		Optional<Rectangle> damage = aDamageTracker.update();
+		if( aFullRepaintNeeded )
+		{
+			aFullRepaintNeeded = false;
+			paintRegion(aViewport);
+		}
+		else if( damage.isPresent() && damage.get().intersects(aViewport) )
+		{
+			paintRegion(intersection(damage.get(), aViewport));
+		}
+		paintSelectionLayer();
+		paintFeedbackLayer();
+	}
+	
+	/**
+	 * Sets the area of the panel that is visible to the user. Only the elements 
+	 * that intersect this area are drawn. The parts of the new viewport that were 
+	 * not in the previous one are painted immediately.
+	 * 
+	 * @param pViewport The visible area, in the coordinates of this panel.
+	 * @pre pViewport != null
+	 */
+	public void setViewport(Rectangle pViewport)
+	{
+		assert pViewport != null;
+		Rectangle previous = aViewport;
+		aViewport = pViewport;
+		if( aController != null && !aFullRepaintNeeded )
+		{
+			exposedRegions(previous, pViewport).forEach(this::paintRegion);
+			paintSelectionLayer();
+			paintFeedbackLayer();
+		}
+	}
+	
+	/**
+	 * Repaints the entire panel.
+	 */
+	public void repaintPanel()
+	{
+		aFullRepaintNeeded = true;
+		paintPanel();
+	}
+	
+	/*
+	 * Paints the grid and every diagram element that can reach into pRegion, with 
+	 * the graphics context clipped to pRegion so that the rest of the panel is untouched.
+	 */
+	private void paintRegion(Rectangle pRegion)
 	{
 		GraphicsContext context = getGraphicsContext2D();
+		context.save();
+		clip(context, pRegion);
 		context.setFill(Color.WHITE); 
-		context.fillRect(0, 0, getWidth(), getHeight());
+		context.fillRect(pRegion.getX(), pRegion.getY(), pRegion.getWidth(), pRegion.getHeight());
 		if(UserPreferences.instance().getBoolean(BooleanPreference.showGrid)) 
 		{
-			Grid.draw(context, new Rectangle(0, 0, (int) getWidth(), (int) getHeight()));
+			Grid.draw(context, pRegion);
 		}
-		DiagramType.viewerFor(aDiagram).draw(aDiagram, context);
-		aController.synchronizeSelectionModel();
-		aController.getSelectionModel().forEach( selected -> ViewerUtilities.drawSelectionHandles(selected, context));
-		aController.getSelectionModel().getRubberband().ifPresent( rubberband -> ToolGraphics.drawRubberband(context, rubberband));
-		aController.getSelectionModel().getLasso().ifPresent( lasso -> ToolGraphics.drawLasso(context, lasso));
+		DiagramType.viewerFor(aDiagram).draw(aDiagram, new CanvasRenderingSurface(context), DamageTracker.grow(pRegion));
+		context.restore();
 	}
 	
+	private void paintSelectionLayer()
+	{
+		GraphicsContext context = aSelectionLayer.getGraphicsContext2D();
+		context.save();
+		clip(context, aViewport);
+		context.clearRect(aViewport.getX(), aViewport.getY(), aViewport.getWidth(), aViewport.getHeight());
+		Rectangle reach = DamageTracker.grow(aViewport);
+		RenderingSurface surface = new CanvasRenderingSurface(context);
+		for( DiagramElement selected : aController.getSelectionModel() )
+		{
+			if( ViewerUtilities.getBounds(selected).intersects(reach) )
+			{
+				ViewerUtilities.drawSelectionHandles(selected, surface);
+			}
+		}
+		context.restore();
+	}
+	
+	private void paintFeedbackLayer()
+	{
+		GraphicsContext context = aFeedbackLayer.getGraphicsContext2D();
+		context.save();
+		clip(context, aViewport);
+		context.clearRect(aViewport.getX(), aViewport.getY(), aViewport.getWidth(), aViewport.getHeight());
+		RenderingSurface surface = new CanvasRenderingSurface(context);
+		aController.getSelectionModel().getRubberband().ifPresent( rubberband -> ToolGraphics.drawRubberband(surface, rubberband));
+		aController.getSelectionModel().getLasso().ifPresent( lasso -> ToolGraphics.drawLasso(surface, lasso));
+		context.restore();
+	}
+	
+	private static void clip(GraphicsContext pContext, Rectangle pRegion)
+	{
+		pContext.beginPath();
+		pContext.rect(pRegion.getX(), pRegion.getY(), pRegion.getWidth(), pRegion.getHeight());
+		pContext.clip();
+	}
+	
+	/*
+	 * Changes to the selection, rubberband, and lasso do not affect the 
+	 * diagram, so only the overlays are repainted.
+	 */
 	@Override
 	public void selectionModelChanged()
 	{
-		paintPanel();		
+		aController.synchronizeSelectionModel();
+		paintSelectionLayer();
+		paintFeedbackLayer();
 	}
 
 	@Override
@@ -124,7 +254,7 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	{
 		if( pPreference == BooleanPreference.showGrid )
 		{
-			paintPanel();
+			repaintPanel();
 		}
 	}
 	
@@ -133,11 +263,53 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	{
 		if ( pPreference == IntegerPreference.fontSize )
 		{
-			paintPanel();
+			repaintPanel();
 		}
 
 	}
 	
+	private static Rectangle intersection(Rectangle pRectangle1, Rectangle pRectangle2)
+	{
+		int x = Math.max(pRectangle1.getX(), pRectangle2.getX());
+		int y = Math.max(pRectangle1.getY(), pRectangle2.getY());
+		return new Rectangle(x, y, Math.min(pRectangle1.getMaxX(), pRectangle2.getMaxX()) - x, 
+				Math.min(pRectangle1.getMaxY(), pRectangle2.getMaxY()) - y);
+	}
+	
+	/*
+	 * Returns the rectangles that cover the parts of pCurrent that are not in pPrevious:
+	 * a band above and below pPrevious, and a band on each side of it.
+	 */
+	private static List<Rectangle> exposedRegions(Rectangle pPrevious, Rectangle pCurrent)
+	{
+		List<Rectangle> result = new ArrayList<>();
+		if( !pCurrent.intersects(pPrevious) )
+		{
+			result.add(pCurrent);
+			return result;
+		}
+		if( pCurrent.getY() < pPrevious.getY() )
+		{
+			result.add(new Rectangle(pCurrent.getX(), pCurrent.getY(), pCurrent.getWidth(), pPrevious.getY() - pCurrent.getY()));
+		}
+		if( pCurrent.getMaxY() > pPrevious.getMaxY() )
+		{
+			result.add(new Rectangle(pCurrent.getX(), pPrevious.getMaxY(), pCurrent.getWidth(), 
+					pCurrent.getMaxY() - pPrevious.getMaxY()));
+		}
+		int top = Math.max(pCurrent.getY(), pPrevious.getY());
+		int height = Math.min(pCurrent.getMaxY(), pPrevious.getMaxY()) - top;
+		if( pCurrent.getX() < pPrevious.getX() )
+		{
+			result.add(new Rectangle(pCurrent.getX(), top, pPrevious.getX() - pCurrent.getX(), height));
+		}
+		if( pCurrent.getMaxX() > pPrevious.getMaxX() )
+		{
+			result.add(new Rectangle(pPrevious.getMaxX(), top, pCurrent.getMaxX() - pPrevious.getMaxX(), height));
+		}
+		return result;
+	}
+	
 	/*
 	 * If the diagram is smaller than the preferred dimension, return
 	 * the preferred dimension. Otherwise, grow the dimensions to accommodate
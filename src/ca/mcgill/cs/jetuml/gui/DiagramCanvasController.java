@@ -33,6 +33,7 @@ import ca.mcgill.cs.jetuml.application.Clipboard;
 import ca.mcgill.cs.jetuml.application.MoveTracker;
 import ca.mcgill.cs.jetuml.application.UserPreferences;
 import ca.mcgill.cs.jetuml.application.UserPreferences.BooleanPreference;
+import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreference;
 import ca.mcgill.cs.jetuml.diagram.DiagramElement;
 import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.diagram.Edge;
@@ -48,6 +49,7 @@ import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.views.Grid;
+import ca.mcgill.cs.jetuml.views.SpatialIndex;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
 
@@ -71,18 +73,26 @@ public class DiagramCanvasController
 	private DragMode aDragMode;
 	private Point aLastMousePoint;
 	private Point aMouseDownPoint;  
-	private DiagramOperationProcessor aProcessor = new DiagramOperationProcessor();
+	private DiagramOperationProcessor aProcessor = new DiagramOperationProcessor(
+			UserPreferences.instance().getInteger(IntegerPreference.undoHistoryLength),
+			UserPreferences.instance().getInteger(IntegerPreference.undoHistorySize));
 	private MouseDraggedGestureHandler aHandler;
+	private final SpatialIndex aSpatialIndex;
 	
 	/**
 	 * Creates a new controller.
 	 * @param pCanvas The canvas being controlled
 	 * @param pToolBar The toolbar.
 	 * @param pHandler A handler for when the mouse is dragged
+	 * @param pSpatialIndex The spatial index of the diagram on pCanvas, used to find selected elements.
+	 * @pre pSpatialIndex.getDiagram() == pCanvas.getDiagram()
 	 */
-	public DiagramCanvasController(DiagramCanvas pCanvas, DiagramTabToolBar pToolBar, MouseDraggedGestureHandler pHandler)
+	public DiagramCanvasController(DiagramCanvas pCanvas, DiagramTabToolBar pToolBar, MouseDraggedGestureHandler pHandler, 
+			SpatialIndex pSpatialIndex)
 	{
+		assert pSpatialIndex.getDiagram() == pCanvas.getDiagram();
 		aCanvas = pCanvas;
+		aSpatialIndex = pSpatialIndex;
 		aDiagramBuilder = DiagramType.newBuilderInstanceFor(aCanvas.getDiagram());
 		aDiagramBuilder.setCanvasDimension(new Dimension((int) aCanvas.getWidth(), (int)aCanvas.getHeight()));
 		aSelectionModel = new SelectionModel(aCanvas);
@@ -127,6 +137,15 @@ public class DiagramCanvasController
 		aProcessor.diagramSaved();
 	}
 	
+	/**
+	 * @return A callback that indicates that the diagram controlled by this 
+	 *     controller has been saved in the state it is in now.
+	 */
+	public Runnable savePoint()
+	{
+		return aProcessor.savePoint();
+	}
+	
 	/**
 	 * @return True if the diagram controlled by this controller 
 	 *     has unsaved changes.
@@ -275,11 +294,11 @@ public class DiagramCanvasController
 	{
 		Point mousePoint = getMousePoint(pEvent);
 		Optional<? extends DiagramElement> element = 
-				viewerFor(aDiagramBuilder.getDiagram()).findEdge(aDiagramBuilder.getDiagram(), mousePoint);
+				viewerFor(aDiagramBuilder.getDiagram()).findEdge(aSpatialIndex, mousePoint);
 		if(!element.isPresent())
 		{
 			element = viewerFor(aDiagramBuilder.getDiagram())
-					.findNode(aDiagramBuilder.getDiagram(), new Point(mousePoint.getX(), mousePoint.getY())); 
+					.findNode(aSpatialIndex, new Point(mousePoint.getX(), mousePoint.getY())); 
 		}
 		return element;
 	}
@@ -31,6 +31,9 @@ import java.util.Optional;
 import ca.mcgill.cs.jetuml.application.UserPreferences;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.SpatialIndex;
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.geometry.Bounds;
@@ -49,6 +52,7 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 	private static final double SCALE_MULTIPLIER = 1.25;
 	private static final double ZOOM_MIN = DEFAULT_SCALE / (SCALE_MULTIPLIER * SCALE_MULTIPLIER);
 	private static final double ZOOM_MAX = DEFAULT_SCALE * SCALE_MULTIPLIER * SCALE_MULTIPLIER;
+	private static final int VIEWPORT_MARGIN = 20;
 	
 	private final DoubleProperty aZoom;
 	private final Diagram aDiagram;
@@ -68,7 +72,7 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		aDiagramCanvas = new DiagramCanvas(pDiagram);
 		UserPreferences.instance().addBooleanPreferenceChangeHandler(aDiagramCanvas);
 		UserPreferences.instance().addIntegerPreferenceChangeHandler(aDiagramCanvas);
-		aDiagramCanvasController = new DiagramCanvasController(aDiagramCanvas, sideBar, this);
+		aDiagramCanvasController = new DiagramCanvasController(aDiagramCanvas, sideBar, this, new SpatialIndex(pDiagram));
 		aDiagramCanvas.setController(aDiagramCanvasController);
 		aDiagramCanvas.paintPanel();
 		
@@ -79,6 +83,7 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		// decorate it with CSS. The StackPane needs to have a fixed size so the border fits the 
 		// canvas and not the parent container.
 		StackPane pane = new StackPane(aDiagramCanvas);
+		pane.getChildren().addAll(aDiagramCanvas.getOverlays());
 		final int buffer = 12; // (border insets + border width + 1)*2
 		pane.setMaxSize(aDiagramCanvas.getWidth() + buffer, aDiagramCanvas.getHeight() + buffer);
 		final String cssDefault = "-fx-border-color: grey; -fx-border-insets: 4;"
@@ -105,6 +110,13 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		
 		setTitle();
 		setContent(layout);
+		
+		// Only the part of the canvas visible through the scroll pane is drawn.
+		InvalidationListener viewportListener = pObservable -> aDiagramCanvas.setViewport(getVisibleArea());
+		scroll.hvalueProperty().addListener(viewportListener);
+		scroll.vvalueProperty().addListener(viewportListener);
+		scroll.viewportBoundsProperty().addListener(viewportListener);
+		aZoom.addListener(viewportListener);
 
 		setOnCloseRequest(pEvent -> 
 		{
@@ -252,6 +264,15 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		aDiagramCanvasController.diagramSaved();
 	}
 	
+	/**
+	 * @return A callback that notifies the tab that its diagram has been 
+	 *     saved in the state it is in now.
+	 */
+	public Runnable savePoint()
+	{
+		return aDiagramCanvasController.savePoint();
+	}
+	
 	/**
 	 * @return True if the diagram in this tab
 	 *     has unsaved changes.
@@ -303,6 +324,24 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 				scrollPane.getHvalue(), scrollPane.getVvalue());
 	}
 
+	/*
+	 * Returns the area of the canvas visible through the scroll pane, in the coordinates 
+	 * of the canvas, with a margin that accounts for the border around the canvas.
+	 */
+	private Rectangle getVisibleArea()
+	{
+		ScrollPane scrollPane = (ScrollPane)((BorderPane)getContent()).getCenter();
+		Bounds bounds = scrollPane.getViewportBounds();
+		int canvasWidth = (int) aDiagramCanvas.getWidth();
+		int canvasHeight = (int) aDiagramCanvas.getHeight();
+		int viewportWidth = Math.min((int) Math.ceil(bounds.getWidth() / aZoom.get()), canvasWidth);
+		int viewportHeight = Math.min((int) Math.ceil(bounds.getHeight() / aZoom.get()), canvasHeight);
+		Rectangle visible = new ViewportProjection(viewportWidth, viewportHeight, canvasWidth, canvasHeight, 
+				scrollPane.getHvalue(), scrollPane.getVvalue()).getVisibleArea();
+		return new Rectangle(visible.getX() - VIEWPORT_MARGIN, visible.getY() - VIEWPORT_MARGIN, 
+				visible.getWidth() + 2 * VIEWPORT_MARGIN, visible.getHeight() + 2 * VIEWPORT_MARGIN);
+	}
+
 	@Override
 	public void shiftKeyPressed() 
 	{
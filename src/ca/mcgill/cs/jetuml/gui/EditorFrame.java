@@ -36,6 +36,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 import java.util.prefs.Preferences;
 import java.util.stream.Stream;
 
@@ -49,10 +53,11 @@ import ca.mcgill.cs.jetuml.application.UserPreferences.BooleanPreference;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.gui.tips.TipDialog;
-import ca.mcgill.cs.jetuml.persistence.DeserializationException;
 import ca.mcgill.cs.jetuml.persistence.PersistenceService;
 import ca.mcgill.cs.jetuml.persistence.VersionedDiagram;
 import ca.mcgill.cs.jetuml.views.ImageCreator;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -61,6 +66,7 @@ import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.SeparatorMenuItem;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
@@ -83,6 +89,17 @@ public class EditorFrame extends BorderPane
 	private static final String USER_MANUAL_URL = "https://www.jetuml.org/docs/user-guide.html";
 	
 	private static final String[] IMAGE_FORMATS = validFormats("png", "jpg", "gif", "bmp");
+	private static final int PROGRESS_INDICATOR_SIZE = 16;
+	private static final int EXIT_TIMEOUT_SECONDS = 60;
+	
+	/* Reading and writing files is done on a single background thread so that 
+	 * the GUI remains responsive, and so that saves to the same file are done in order. */
+	private static final ExecutorService PERSISTENCE_EXECUTOR = Executors.newSingleThreadExecutor(pRunnable ->
+	{
+		Thread thread = new Thread(pRunnable, "JetUML persistence");
+		thread.setDaemon(true);
+		return thread;
+	});
 	
 	private Stage aMainStage;
 	private RecentFilesQueue aRecentFiles = new RecentFilesQueue();
@@ -121,14 +138,14 @@ public class EditorFrame extends BorderPane
 		
 		setOnKeyPressed(e -> 
 		{
-			if( !isWelcomeTabShowing() && e.isShiftDown() )
+			if( isDiagramTabSelected() && e.isShiftDown() )
 			{
 				getSelectedDiagramTab().shiftKeyPressed();
 			}
 		});
 		setOnKeyTyped(e -> 
 		{
-			if( !isWelcomeTabShowing() && !e.isShortcutDown())
+			if( isDiagramTabSelected() && !e.isShortcutDown())
 			{
 				getSelectedDiagramTab().keyTyped(e.getCharacter());
 			}
@@ -166,7 +183,7 @@ public class EditorFrame extends BorderPane
 			((MenuBar)getTop()).getMenus().stream() // All top level menus
 				.flatMap(menu -> Stream.concat(Stream.of(menu), menu.getItems().stream())) // All menus and immediate sub-menus
 				.filter( item -> Boolean.TRUE.equals(item.getUserData())) // Retain only diagram-relevant menu items
-				.forEach( item -> item.setDisable(isWelcomeTabShowing()));
+				.forEach( item -> item.setDisable(!isDiagramTabSelected()));
 	}
 	
 	// Returns the new menu
@@ -255,10 +272,10 @@ public class EditorFrame extends BorderPane
 	}
 	
 	/*
-	 * @return The diagram tab whose corresponding file is pFile,
-	 * or empty if there are none.
+	 * @return The diagram tab whose corresponding file is pFile, or the 
+	 * loading tab that is reading it, or empty if there are none.
 	 */
-	private Optional<DiagramTab> findTabFor(File pFile)
+	private Optional<Tab> findTabFor(File pFile)
 	{
 		for( Tab tab : tabs() )
 		{
@@ -267,23 +284,28 @@ public class EditorFrame extends BorderPane
 				if(((DiagramTab) tab).getFile().isPresent()	&& 
 						((DiagramTab) tab).getFile().get().getAbsoluteFile().equals(pFile.getAbsoluteFile())) 
 				{
-					return Optional.of((DiagramTab)tab);
+					return Optional.of(tab);
 				}
 			}
+			else if( tab instanceof LoadingTab && ((LoadingTab) tab).getFile().getAbsoluteFile().equals(pFile.getAbsoluteFile()))
+			{
+				return Optional.of(tab);
+			}
 		}
 		return Optional.empty();
 	}
 	
 	/*
 	 * Opens a file with the given name, or switches to the frame if it is already
-	 * open.
+	 * open. The file is read in the background, while a loading tab stands in for 
+	 * the diagram tab.
 	 * 
 	 * @param pName the file to open. Not null.
 	 */
 	private void open(File pFile) 
 	{
 		assert pFile != null;
-		Optional<DiagramTab> tab = findTabFor(pFile);
+		Optional<Tab> tab = findTabFor(pFile);
 		if( tab.isPresent() )
 		{
 			tabPane().getSelectionModel().select(tab.get());
@@ -291,31 +313,64 @@ public class EditorFrame extends BorderPane
 			return;
 		}
 		
-		try 
+		Task<VersionedDiagram> task = new Task<>()
 		{
-			VersionedDiagram versionedDiagram = PersistenceService.read(pFile); 
-			DiagramTab frame = new DiagramTab(versionedDiagram.diagram());
-			frame.setFile(pFile.getAbsoluteFile());
-			addRecentFile(pFile.getPath());
-			insertGraphFrameIntoTabbedPane(frame);
-			if( versionedDiagram.wasMigrated())
+			@Override
+			protected VersionedDiagram call() throws IOException
 			{
-				String message = String.format(RESOURCES.getString("warning.version.message"), 
-						versionedDiagram.version().toString());
-				Alert alert = new Alert(AlertType.WARNING, message, ButtonType.OK);
-				alert.setTitle(RESOURCES.getString("warning.version.title"));
-				alert.initOwner(aMainStage);
-				alert.showAndWait();
+				long length = pFile.length();
+				return PersistenceService.read(pFile, pBytesRead -> updateProgress(pBytesRead, length));
 			}
-		}
-		catch(IOException | DeserializationException exception) 
+		};
+		LoadingTab loadingTab = new LoadingTab(pFile, newProgressIndicator(task));
+		insertGraphFrameIntoTabbedPane(loadingTab);
+		task.setOnSucceeded(pEvent -> diagramLoaded(loadingTab, task.getValue()));
+		task.setOnFailed(pEvent -> 
+		{
+			tabs().remove(loadingTab);
+			showWelcomeTabIfNecessary();
+			showError("error.open_file");
+		});
+		PERSISTENCE_EXECUTOR.execute(task);
+	}
+	
+	/*
+	 * Replaces pLoadingTab with a tab for the diagram read from its file.
+	 */
+	private void diagramLoaded(LoadingTab pLoadingTab, VersionedDiagram pVersionedDiagram)
+	{
+		DiagramTab frame = new DiagramTab(pVersionedDiagram.diagram());
+		frame.setFile(pLoadingTab.getFile().getAbsoluteFile());
+		addRecentFile(pLoadingTab.getFile().getPath());
+		tabs().set(tabs().indexOf(pLoadingTab), frame);
+		tabPane().getSelectionModel().select(frame);
+		setMenuVisibility();
+		if( pVersionedDiagram.wasMigrated())
 		{
-			Alert alert = new Alert(AlertType.ERROR, RESOURCES.getString("error.open_file"), ButtonType.OK);
+			String message = String.format(RESOURCES.getString("warning.version.message"), 
+					pVersionedDiagram.version().toString());
+			Alert alert = new Alert(AlertType.WARNING, message, ButtonType.OK);
+			alert.setTitle(RESOURCES.getString("warning.version.title"));
 			alert.initOwner(aMainStage);
 			alert.showAndWait();
 		}
 	}
 	
+	private static ProgressIndicator newProgressIndicator(Worker<?> pWorker)
+	{
+		ProgressIndicator indicator = new ProgressIndicator();
+		indicator.setPrefSize(PROGRESS_INDICATOR_SIZE, PROGRESS_INDICATOR_SIZE);
+		indicator.progressProperty().bind(pWorker.progressProperty());
+		return indicator;
+	}
+	
+	private void showError(String pMessageKey)
+	{
+		Alert alert = new Alert(AlertType.ERROR, RESOURCES.getString(pMessageKey), ButtonType.OK);
+		alert.initOwner(aMainStage);
+		alert.showAndWait();
+	}
+	
 	private List<NamedHandler> getOpenFileHandlers()
 	{
 		List<NamedHandler> result = new ArrayList<>();
@@ -477,17 +532,7 @@ public class EditorFrame extends BorderPane
 			saveAs();
 			return;
 		}
-		try 
-		{
-			PersistenceService.save(diagramTab.getDiagram(), file.get());
-			diagramTab.diagramSaved();
-		} 
-		catch(IOException exception) 
-		{
-			Alert alert = new Alert(AlertType.ERROR, RESOURCES.getString("error.save_file"), ButtonType.OK);
-			alert.initOwner(aMainStage);
-			alert.showAndWait();
-		}
+		saveInBackground(diagramTab, file.get(), () -> {});
 	}
 
 	private void saveAs() 
@@ -510,29 +555,62 @@ public class EditorFrame extends BorderPane
 			fileChooser.setInitialFileName("");
 		}
 
-		try 
+		File result = fileChooser.showSaveDialog(aMainStage);
+		if( result != null )
 		{
-			File result = fileChooser.showSaveDialog(aMainStage);
-			if( result != null )
+			saveInBackground(diagramTab, result, () ->
 			{
-				PersistenceService.save(diagram, result);
 				addRecentFile(result.getAbsolutePath());
 				diagramTab.setFile(result);
 				diagramTab.setText(diagramTab.getFile().get().getName());
-				diagramTab.diagramSaved();
 				File dir = result.getParentFile();
 				if( dir != null )
 				{
 					setLastDir(KEY_LAST_SAVEAS_DIR, dir);
 				}
+			});
+		}
+	}
+	
+	/*
+	 * Writes a copy of the diagram in pTab to pFile in the background. If the save 
+	 * succeeds, the tab is notified that its diagram was saved in the state it was 
+	 * in when this method was called, then pOnSaved is run on the JavaFX application thread.
+	 */
+	private void saveInBackground(DiagramTab pTab, File pFile, Runnable pOnSaved)
+	{
+		Diagram snapshot = pTab.getDiagram().duplicate();
+		Runnable savePoint = pTab.savePoint();
+		Task<Void> task = new Task<>()
+		{
+			@Override
+			protected Void call() throws IOException
+			{
+				// The size of the new file is only known once it is written: the file it 
+				// replaces, if any, provides the estimate. New files show indeterminate progress.
+				long length = pFile.length();
+				LongConsumer progress = pBytesWritten -> {};
+				if( length > 0 )
+				{
+					progress = pBytesWritten -> updateProgress(pBytesWritten, length);
+				}
+				PersistenceService.save(snapshot, pFile, progress);
+				return null;
 			}
-		} 
-		catch (IOException exception) 
+		};
+		pTab.setGraphic(newProgressIndicator(task));
+		task.setOnSucceeded(pEvent -> 
 		{
-			Alert alert = new Alert(AlertType.ERROR, RESOURCES.getString("error.save_file"), ButtonType.OK);
-			alert.initOwner(aMainStage);
-			alert.showAndWait();
-		}
+			pTab.setGraphic(null);
+			savePoint.run();
+			pOnSaved.run();
+		});
+		task.setOnFailed(pEvent ->
+		{
+			pTab.setGraphic(null);
+			showError("error.save_file");
+		});
+		PERSISTENCE_EXECUTOR.execute(task);
 	}
 
 	private File getLastDir(String pKey)
@@ -676,16 +754,35 @@ public class EditorFrame extends BorderPane
 			if (alert.getResult() == ButtonType.YES) 
 			{
 				Preferences.userNodeForPackage(JetUML.class).put("recent", aRecentFiles.serialize());
+				finishPendingSaves();
 				System.exit(0);
 			}
 		}
 		else 
 		{
 			Preferences.userNodeForPackage(JetUML.class).put("recent", aRecentFiles.serialize());
+			finishPendingSaves();
 			System.exit(0);
 		}
 	}		
 	
+	/*
+	 * Waits for files being written in the background, so that 
+	 * exiting does not leave them truncated.
+	 */
+	private static void finishPendingSaves()
+	{
+		PERSISTENCE_EXECUTOR.shutdown();
+		try
+		{
+			PERSISTENCE_EXECUTOR.awaitTermination(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+		catch( InterruptedException exception )
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+	
 	private List<Tab> tabs()
 	{
 		return ((TabPane) getCenter()).getTabs();
@@ -696,6 +793,11 @@ public class EditorFrame extends BorderPane
 		return (TabPane) getCenter();
 	}
 	
+	private boolean isDiagramTabSelected()
+	{
+		return tabPane().getSelectionModel().getSelectedItem() instanceof DiagramTab;
+	}
+	
 	private boolean isWelcomeTabShowing()
 	{
 		return aWelcomeTab != null && 
@@ -703,8 +805,8 @@ public class EditorFrame extends BorderPane
 				tabs().get(0) instanceof WelcomeTab;
 	}
 	
-	/* Insert a graph frame into the tabbedpane */ 
-	private void insertGraphFrameIntoTabbedPane(DiagramTab pGraphFrame) 
+	/* Insert a graph frame, or a tab standing in for one, into the tabbedpane */ 
+	private void insertGraphFrameIntoTabbedPane(Tab pGraphFrame) 
 	{
 		if( isWelcomeTabShowing() )
 		{
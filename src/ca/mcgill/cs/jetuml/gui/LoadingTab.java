@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import java.io.File;
+
+import javafx.scene.Node;
+import javafx.scene.control.Tab;
+
+/**
+ * A tab that stands in for a diagram tab while the diagram 
+ * is being read from its file.
+ */
+public class LoadingTab extends Tab
+{
+	private final File aFile;
+	
+	/**
+	 * @param pFile The file being read.
+	 * @param pProgress A node that shows the progress of the reading.
+	 * @pre pFile != null && pProgress != null
+	 */
+	public LoadingTab(File pFile, Node pProgress)
+	{
+		super(pFile.getName());
+		assert pProgress != null;
+		aFile = pFile;
+		setClosable(false);
+		setGraphic(pProgress);
+	}
+	
+	/**
+	 * @return The file being read.
+	 */
+	public File getFile()
+	{
+		return aFile;
+	}
+}
@@ -29,6 +29,7 @@ import ca.mcgill.cs.jetuml.diagram.DiagramData;
 import ca.mcgill.cs.jetuml.diagram.DiagramElement;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.geom.BoundsAccumulator;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.viewers.edges.EdgeViewerRegistry;
@@ -83,12 +84,12 @@ public class SelectionModel implements Iterable<DiagramElement>
 	 */
 	public Rectangle getSelectionBounds()
 	{
-		Rectangle bounds = getLastSelectedBounds();
+		BoundsAccumulator bounds = new BoundsAccumulator().add(getLastSelectedBounds());
 		for(DiagramElement selected : aSelected )
 		{
-			bounds = bounds.add(ViewerUtilities.getBounds(selected));
+			bounds.add(ViewerUtilities.getBounds(selected));
 		}
-		return bounds;
+		return bounds.toRectangle();
 	}
 	
 	/*
@@ -107,24 +108,24 @@ public class SelectionModel implements Iterable<DiagramElement>
 	 */
 	public Rectangle getEntireSelectionBounds()
 	{
-		Rectangle bounds = getLastSelectedBounds();
+		BoundsAccumulator bounds = new BoundsAccumulator().add(getLastSelectedBounds());
 		for(DiagramElement selected : aSelected )
 		{
-			bounds = addBounds(bounds, selected);
+			addBounds(bounds, selected);
 		}
-		return bounds;
+		return bounds.toRectangle();
 	}
 	
-	// Recursively enlarge the current rectangle to include the selected DiagramElements
-	private Rectangle addBounds(Rectangle pBounds, DiagramElement pSelected)
+	// Recursively enlarge the current bounds to include the selected DiagramElements
+	private static void addBounds(BoundsAccumulator pBounds, DiagramElement pSelected)
 	{
 		if( pSelected instanceof Node && ((Node) pSelected).hasParent())
 		{
-			return addBounds(pBounds, ((Node) pSelected).getParent());
+			addBounds(pBounds, ((Node) pSelected).getParent());
 		}
 		else
 		{
-			return pBounds.add(ViewerUtilities.getBounds(pSelected));
+			pBounds.add(ViewerUtilities.getBounds(pSelected));
 		}
 	}
 	
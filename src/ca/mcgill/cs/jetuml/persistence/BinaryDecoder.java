@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.FORMAT_VERSION;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.MAGIC;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.TAG_ABSENT;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.TAG_FALSE;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.TAG_INTEGER;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.TAG_STRING;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.TAG_TRUE;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.readCount;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.readSignedVarint;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.readString;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.readVarint;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ca.mcgill.cs.jetuml.JetUML;
+import ca.mcgill.cs.jetuml.application.Version;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.ElementFactory;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
+import ca.mcgill.cs.jetuml.geom.Point;
+
+/**
+ * Converts the binary format described in BinaryFormat to a versioned diagram.
+ * The counts stored in the file are not trusted to size arrays, so a corrupt 
+ * file fails with a DeserializationException instead of exhausting memory.
+ */
+public final class BinaryDecoder
+{
+	private final DataInputStream aInput;
+	private String[] aStrings;
+	private Layout[] aLayouts;
+	
+	private BinaryDecoder(InputStream pInput)
+	{
+		aInput = new DataInputStream(pInput);
+	}
+	
+	/**
+	 * @param pInput A stream positioned at the start of a binary diagram. Not closed.
+	 * @return The decoded diagram.
+	 * @throws IOException If the stream cannot be read.
+	 * @throws DeserializationException If it's not possible to decode the stream into a valid diagram.
+	 * @pre pInput != null
+	 */
+	public static VersionedDiagram decode(InputStream pInput) throws IOException
+	{
+		assert pInput != null;
+		try
+		{
+			return new BinaryDecoder(pInput).decodeDiagram();
+		}
+		catch( EOFException exception )
+		{
+			throw new DeserializationException("Unexpected end of the binary diagram", exception);
+		}
+		catch( IllegalArgumentException exception )
+		{
+			throw new DeserializationException("Cannot decode serialized object", exception);
+		}
+	}
+	
+	/**
+	 * @param pInput The stream to check. Must support marks. Its position is not changed.
+	 * @return True if pInput starts with the magic bytes of the binary format.
+	 * @throws IOException If the stream cannot be read.
+	 * @pre pInput != null && pInput.markSupported()
+	 */
+	public static boolean isBinary(InputStream pInput) throws IOException
+	{
+		assert pInput != null && pInput.markSupported();
+		pInput.mark(MAGIC.length);
+		byte[] start = pInput.readNBytes(MAGIC.length);
+		pInput.reset();
+		return Arrays.equals(MAGIC, start);
+	}
+	
+	private VersionedDiagram decodeDiagram() throws IOException
+	{
+		byte[] magic = new byte[MAGIC.length];
+		aInput.readFully(magic);
+		if( !Arrays.equals(MAGIC, magic) || aInput.readUnsignedByte() != FORMAT_VERSION )
+		{
+			throw new DeserializationException("Not a binary diagram of a supported format");
+		}
+		int strings = readCount(aInput);
+		List<String> table = new ArrayList<>();
+		for( int i = 0; i < strings; i++ )
+		{
+			table.add(readString(aInput));
+		}
+		aStrings = table.toArray(new String[table.size()]);
+		Version version = Version.parse(string());
+		if( !version.compatibleWith(JetUML.VERSION) )
+		{
+			throw new DeserializationException("Unsupported version: " + version);
+		}
+		DeserializationContext context = new DeserializationContext(new Diagram(DiagramType.fromName(string())));
+		int layouts = readCount(aInput);
+		List<Layout> types = new ArrayList<>();
+		for( int i = 0; i < layouts; i++ )
+		{
+			types.add(readLayout());
+		}
+		aLayouts = types.toArray(new Layout[types.size()]);
+		decodeNodes(context);
+		decodeEdges(context);
+		context.attachNodes();
+		return new VersionedDiagram(context.pDiagram(), version, false);
+	}
+	
+	private String string() throws IOException
+	{
+		int index = readVarint(aInput);
+		if( index < 0 || index >= aStrings.length )
+		{
+			throw new DeserializationException("Invalid string index: " + index);
+		}
+		return aStrings[index];
+	}
+	
+	private Layout layout() throws IOException
+	{
+		int index = readVarint(aInput);
+		if( index < 0 || index >= aLayouts.length )
+		{
+			throw new DeserializationException("Invalid layout index: " + index);
+		}
+		return aLayouts[index];
+	}
+	
+	private Layout readLayout() throws IOException
+	{
+		Layout layout = new Layout(string());
+		int size = readCount(aInput);
+		for( int i = 0; i < size; i++ )
+		{
+			String name = string();
+			if( layout.aSlots.put(name, i) != null )
+			{
+				throw new DeserializationException("Duplicate property in layout: " + name);
+			}
+		}
+		return layout;
+	}
+	
+	/*
+	 * Root nodes are added to the diagram in the order in which they were read.
+	 */
+	private void decodeNodes(DeserializationContext pContext) throws IOException
+	{
+		Map<Node, List<Integer>> children = new LinkedHashMap<>();
+		int count = readCount(aInput);
+		for( int i = 0; i < count; i++ )
+		{
+			Layout layout = layout();
+			Node node = ElementFactory.createNode(layout.aType);
+			pContext.addNode(node, readVarint(aInput));
+			node.moveTo(new Point(readSignedVarint(aInput), readSignedVarint(aInput)));
+			decodeProperties(node, layout);
+			int childCount = readCount(aInput);
+			List<Integer> ids = new ArrayList<>();
+			for( int j = 0; j < childCount; j++ )
+			{
+				ids.add(readVarint(aInput));
+			}
+			children.put(node, ids);
+		}
+		for( Map.Entry<Node, List<Integer>> entry : children.entrySet() )
+		{
+			for( int child : entry.getValue() )
+			{
+				entry.getKey().addChild(node(pContext, child));
+			}
+		}
+		for( Node node : children.keySet() )
+		{
+			if( !node.hasParent() )
+			{
+				pContext.pDiagram().addRootNode(node);
+			}
+		}
+	}
+	
+	private void decodeEdges(DeserializationContext pContext) throws IOException
+	{
+		int count = readCount(aInput);
+		for( int i = 0; i < count; i++ )
+		{
+			Layout layout = layout();
+			Edge edge = ElementFactory.createEdge(layout.aType);
+			Node start = node(pContext, readVarint(aInput));
+			Node end = node(pContext, readVarint(aInput));
+			decodeProperties(edge, layout);
+			edge.connect(start, end, pContext.pDiagram());
+			pContext.pDiagram().addEdge(edge);
+		}
+	}
+	
+	private static Node node(DeserializationContext pContext, int pId)
+	{
+		if( !pContext.hasNode(pId) )
+		{
+			throw new DeserializationException("Unknown node identifier: " + pId);
+		}
+		return pContext.getNode(pId);
+	}
+	
+	/*
+	 * Reads the values stored in the order of pLayout, and sets each property
+	 * of pElement to the value stored under its name.
+	 */
+	private void decodeProperties(DiagramElement pElement, Layout pLayout) throws IOException
+	{
+		Object[] values = new Object[pLayout.aSlots.size()];
+		for( int i = 0; i < values.length; i++ )
+		{
+			values[i] = readValue();
+		}
+		for( Property property : pElement.properties() )
+		{
+			Integer slot = pLayout.aSlots.get(property.name().external());
+			if( slot == null || values[slot] == null )
+			{
+				throw new DeserializationException("Missing property: " + property.name().external());
+			}
+			property.set(values[slot]);
+		}
+	}
+	
+	private Object readValue() throws IOException
+	{
+		int tag = aInput.readUnsignedByte();
+		if( tag == TAG_STRING )
+		{
+			return string();
+		}
+		else if( tag == TAG_INTEGER )
+		{
+			return readSignedVarint(aInput);
+		}
+		else if( tag == TAG_TRUE || tag == TAG_FALSE )
+		{
+			return tag == TAG_TRUE;
+		}
+		else if( tag == TAG_ABSENT )
+		{
+			return null;
+		}
+		throw new DeserializationException("Invalid value tag: " + tag);
+	}
+	
+	/*
+	 * The type of an element, and the position of the value 
+	 * of each of its properties.
+	 */
+	private static final class Layout
+	{
+		private final String aType;
+		private final Map<String, Integer> aSlots = new HashMap<>();
+		
+		Layout(String pType)
+		{
+			aType = pType;
+		}
+	}
+}
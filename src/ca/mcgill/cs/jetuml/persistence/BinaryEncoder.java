@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.FORMAT_VERSION;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.MAGIC;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.TAG_ABSENT;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.TAG_FALSE;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.TAG_INTEGER;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.TAG_STRING;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.TAG_TRUE;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.writeSignedVarint;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.writeString;
+import static ca.mcgill.cs.jetuml.persistence.BinaryFormat.writeVarint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ca.mcgill.cs.jetuml.JetUML;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
+
+/**
+ * Converts a diagram to the compact binary format described in BinaryFormat.
+ * The binary encoding holds the same information as the JSON encoding: nodes 
+ * have the same ids, and property values are stored with the same types.
+ */
+public final class BinaryEncoder
+{
+	private final Map<String, Integer> aStrings = new LinkedHashMap<>();
+	// Each layout is the index of a type name followed by the indices of its property names
+	private final Map<List<Integer>, Integer> aLayouts = new LinkedHashMap<>();
+	private final ByteArrayOutputStream aBody = new ByteArrayOutputStream();
+	private final DataOutputStream aOutput = new DataOutputStream(aBody);
+	
+	private BinaryEncoder() {}
+	
+	/**
+	 * Writes the binary encoding of pDiagram to pOutput. pOutput is
+	 * flushed but not closed.
+	 * 
+	 * @param pDiagram The diagram to serialize.
+	 * @param pOutput The stream to write the encoding to.
+	 * @throws IOException If the encoding cannot be written.
+	 * @pre pDiagram != null && pOutput != null
+	 */
+	public static void encode(Diagram pDiagram, OutputStream pOutput) throws IOException
+	{
+		assert pDiagram != null && pOutput != null;
+		new BinaryEncoder().write(pDiagram, pOutput);
+	}
+	
+	/*
+	 * The strings and layouts are only known once all the elements have been encoded, 
+	 * so the elements are first encoded in memory, and written after the tables.
+	 */
+	private void write(Diagram pDiagram, OutputStream pOutput) throws IOException
+	{
+		SerializationContext context = new SerializationContext(pDiagram);
+		int version = intern(JetUML.VERSION.toString());
+		int diagramType = intern(pDiagram.getName());
+		encodeNodes(context);
+		encodeEdges(context);
+		
+		DataOutputStream output = new DataOutputStream(pOutput);
+		output.write(MAGIC);
+		output.writeByte(FORMAT_VERSION);
+		writeVarint(output, aStrings.size());
+		for( String string : aStrings.keySet() )
+		{
+			writeString(output, string);
+		}
+		writeVarint(output, version);
+		writeVarint(output, diagramType);
+		writeVarint(output, aLayouts.size());
+		for( List<Integer> layout : aLayouts.keySet() )
+		{
+			writeVarint(output, layout.get(0));
+			writeVarint(output, layout.size() - 1);
+			for( int name : layout.subList(1, layout.size()) )
+			{
+				writeVarint(output, name);
+			}
+		}
+		aBody.writeTo(output);
+		output.flush();
+	}
+	
+	private int intern(String pString)
+	{
+		return aStrings.computeIfAbsent(pString, key -> aStrings.size());
+	}
+	
+	/*
+	 * Nodes are written in the order of their ids, which is the order in which the 
+	 * context visits the root nodes of the diagram and their children. This way, the 
+	 * decoder restores the root nodes in their original order.
+	 */
+	private void encodeNodes(SerializationContext pContext) throws IOException
+	{
+		List<Node> nodes = new ArrayList<>();
+		for( Node node : pContext )
+		{
+			nodes.add(node);
+		}
+		nodes.sort(Comparator.comparingInt(pContext::getId));
+		writeVarint(aOutput, nodes.size());
+		for( Node node : nodes )
+		{
+			writeVarint(aOutput, layout(node));
+			writeVarint(aOutput, pContext.getId(node));
+			writeSignedVarint(aOutput, node.position().getX());
+			writeSignedVarint(aOutput, node.position().getY());
+			encodeProperties(node);
+			writeVarint(aOutput, node.getChildren().size());
+			for( Node child : node.getChildren() )
+			{
+				writeVarint(aOutput, pContext.getId(child));
+			}
+		}
+	}
+	
+	private void encodeEdges(SerializationContext pContext) throws IOException
+	{
+		writeVarint(aOutput, pContext.pDiagram().edges().size());
+		for( Edge edge : pContext.pDiagram().edges() )
+		{
+			writeVarint(aOutput, layout(edge));
+			writeVarint(aOutput, pContext.getId(edge.getStart()));
+			writeVarint(aOutput, pContext.getId(edge.getEnd()));
+			encodeProperties(edge);
+		}
+	}
+	
+	private int layout(DiagramElement pElement)
+	{
+		List<Integer> layout = new ArrayList<>();
+		layout.add(intern(pElement.getClass().getSimpleName()));
+		for( Property property : pElement.properties() )
+		{
+			layout.add(intern(property.name().external()));
+		}
+		return aLayouts.computeIfAbsent(layout, key -> aLayouts.size());
+	}
+	
+	/*
+	 * Writes the values of the properties of pElement, in the order of its layout, with
+	 * the same types as in the JSON encoding. Values of other types are not stored.
+	 */
+	private void encodeProperties(DiagramElement pElement) throws IOException
+	{
+		for( Property property : pElement.properties() )
+		{
+			Object value = property.get();
+			if( value instanceof String || value instanceof Enum )
+			{
+				aOutput.writeByte(TAG_STRING);
+				writeVarint(aOutput, intern(value.toString()));
+			}
+			else if( value instanceof Integer )
+			{
+				aOutput.writeByte(TAG_INTEGER);
+				writeSignedVarint(aOutput, (Integer) value);
+			}
+			else if( Boolean.TRUE.equals(value) )
+			{
+				aOutput.writeByte(TAG_TRUE);
+			}
+			else if( Boolean.FALSE.equals(value) )
+			{
+				aOutput.writeByte(TAG_FALSE);
+			}
+			else
+			{
+				aOutput.writeByte(TAG_ABSENT);
+			}
+		}
+	}
+}
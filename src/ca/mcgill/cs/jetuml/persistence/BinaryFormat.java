@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and primitive encodings shared by the BinaryEncoder and
+ * BinaryDecoder. The binary format is laid out as follows:
+ * 
+ * * The magic bytes "JETB" and a format version byte
+ * * A table of all the strings in the file, each a varint length followed by UTF-8 bytes
+ * * The JetUML version and the diagram type, as indices in the string table
+ * * The layouts of the types of elements in the file: for each, its type name and the
+ *   names of its properties, in the order in which their values are stored
+ * * The nodes: layout, id, position, property values, and ids of the children
+ * * The edges: layout, ids of the start and end nodes, and property values
+ * 
+ * Integers that cannot be negative are encoded as unsigned varints, 
+ * the others as zigzag varints.
+ */
+final class BinaryFormat
+{
+	static final byte[] MAGIC = { 'J', 'E', 'T', 'B' };
+	static final int FORMAT_VERSION = 1;
+	
+	static final int TAG_ABSENT = 0;
+	static final int TAG_STRING = 1;
+	static final int TAG_INTEGER = 2;
+	static final int TAG_FALSE = 3;
+	static final int TAG_TRUE = 4;
+	
+	private static final int VARINT_PAYLOAD = 0x7F;
+	private static final int VARINT_CONTINUATION = 0x80;
+	private static final int VARINT_SHIFT = 7;
+	private static final int MAX_VARINT_SHIFT = 28;
+	private static final int STRING_CHUNK = 8192;
+	
+	private BinaryFormat() {}
+	
+	/**
+	 * @param pOutput The output to write to.
+	 * @param pValue The value to write.
+	 * @throws IOException If the value cannot be written.
+	 * @pre pValue >= 0
+	 */
+	static void writeVarint(DataOutput pOutput, int pValue) throws IOException
+	{
+		assert pValue >= 0;
+		int value = pValue;
+		while( (value & ~VARINT_PAYLOAD) != 0 )
+		{
+			pOutput.writeByte((value & VARINT_PAYLOAD) | VARINT_CONTINUATION);
+			value >>>= VARINT_SHIFT;
+		}
+		pOutput.writeByte(value);
+	}
+	
+	static int readVarint(DataInput pInput) throws IOException
+	{
+		int result = 0;
+		for( int shift = 0; shift <= MAX_VARINT_SHIFT; shift += VARINT_SHIFT )
+		{
+			int next = pInput.readUnsignedByte();
+			result |= (next & VARINT_PAYLOAD) << shift;
+			if( (next & VARINT_CONTINUATION) == 0 )
+			{
+				return result;
+			}
+		}
+		throw new DeserializationException("Malformed varint");
+	}
+	
+	static void writeSignedVarint(DataOutput pOutput, int pValue) throws IOException
+	{
+		writeVarint(pOutput, (pValue << 1) ^ (pValue >> (Integer.SIZE - 1)));
+	}
+	
+	static int readSignedVarint(DataInput pInput) throws IOException
+	{
+		int value = readVarint(pInput);
+		return (value >>> 1) ^ -(value & 1);
+	}
+	
+	static void writeString(DataOutput pOutput, String pString) throws IOException
+	{
+		byte[] bytes = pString.getBytes(StandardCharsets.UTF_8);
+		writeVarint(pOutput, bytes.length);
+		pOutput.write(bytes);
+	}
+	
+	/*
+	 * Long strings are read in chunks, so that a corrupt length cannot allocate
+	 * more memory than the data that is actually left in the input.
+	 */
+	static String readString(DataInput pInput) throws IOException
+	{
+		int length = readCount(pInput);
+		if( length <= STRING_CHUNK )
+		{
+			byte[] bytes = new byte[length];
+			pInput.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(STRING_CHUNK);
+		byte[] chunk = new byte[STRING_CHUNK];
+		int remaining = length;
+		while( remaining > 0 )
+		{
+			int size = Math.min(remaining, STRING_CHUNK);
+			pInput.readFully(chunk, 0, size);
+			bytes.write(chunk, 0, size);
+			remaining -= size;
+		}
+		return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+	
+	/*
+	 * Reads the number of items, or bytes, that follow. Callers must not allocate
+	 * storage for all the items up front, because the count can be corrupt.
+	 */
+	static int readCount(DataInput pInput) throws IOException
+	{
+		int count = readVarint(pInput);
+		if( count < 0 )
+		{
+			throw new DeserializationException("Malformed count: " + count);
+		}
+		return count;
+	}
+}
@@ -20,6 +20,9 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.persistence;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.Node;
 
@@ -30,6 +33,8 @@ import ca.mcgill.cs.jetuml.diagram.Node;
  */
 public class DeserializationContext extends AbstractContext
 {
+	private final Map<Integer, Node> aIdentifiers = new HashMap<>();
+	
 	/**
 	 * Initializes an empty context and associates it with
 	 * pDiagram.
@@ -64,23 +69,26 @@ public class DeserializationContext extends AbstractContext
 	{
 		assert pNode != null;
 		aNodes.put(pNode, pId);
+		aIdentifiers.put(pId, pNode);
+	}
+	
+	/**
+	 * @param pId The identifier to check.
+	 * @return True if a node was added with this identifier.
+	 */
+	public boolean hasNode(int pId)
+	{
+		return aIdentifiers.containsKey(pId);
 	}
 	
 	/**
 	 * @param pId The identifier to search for.
 	 * @return The node associated with this identifier.
-	 * @pre pId exists as a value.
+	 * @pre hasNode(pId)
 	 */
 	public Node getNode(int pId)
 	{
-		for( Node node : this )
-		{
-			if( aNodes.get(node) == pId )
-			{
-				return node;
-			}
-		}
-		assert false;
-		return null;
+		assert hasNode(pId);
+		return aIdentifiers.get(pId);
 	}
 }
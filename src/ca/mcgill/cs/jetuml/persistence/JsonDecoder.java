@@ -20,25 +20,33 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.persistence;
 
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import ca.mcgill.cs.jetuml.JetUML;
+import ca.mcgill.cs.jetuml.application.Version;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
 import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.ElementFactory;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.Property;
 import ca.mcgill.cs.jetuml.geom.Point;
 
 /**
- * Converts a JSONObject to a versioned diagram.
+ * Converts a JSONObject, or a stream of JSON text, to a versioned diagram.
  */
 public final class JsonDecoder
 {
-	private static final String PREFIX_NODES = "ca.mcgill.cs.jetuml.diagram.nodes.";
-	private static final String PREFIX_EDGES = "ca.mcgill.cs.jetuml.diagram.edges.";
-	
 	private JsonDecoder() {}
 	
 	/**
@@ -66,6 +74,33 @@ public final class JsonDecoder
 		}
 	}
 	
+	/**
+	 * Decodes a diagram directly from JSON text, creating each node and edge as soon
+	 * as its element has been read instead of first building a JSONObject for the 
+	 * whole document. References to children and edge ends are resolved once all 
+	 * the elements have been read. Only documents whose diagram type precedes their 
+	 * nodes and edges, as written by JsonEncoder, can be decoded this way.
+	 * 
+	 * @param pReader The source of the JSON text.
+	 * @return The decoded diagram, or empty if the diagram must go through the 
+	 *     VersionMigrator, because it was saved with a version of JetUML that requires 
+	 *     migration or because its diagram type does not precede its elements.
+	 * @throws DeserializationException If it's not possible to decode the text into a valid diagram.
+	 * @pre pReader != null
+	 */
+	public static Optional<VersionedDiagram> decode(Reader pReader)
+	{
+		assert pReader != null;
+		try
+		{
+			return new StreamDecoder(new JSONTokener(pReader)).decode();
+		}
+		catch( JSONException | IllegalArgumentException exception )
+		{
+			throw new DeserializationException("Cannot decode serialized object", exception);
+		}
+	}
+	
 	/* 
 	 * Extracts information about nodes from pObject and creates new objects
 	 * to represent them.
@@ -76,25 +111,23 @@ public final class JsonDecoder
 		JSONArray nodes = pObject.getJSONArray("nodes");
 		for( int i = 0; i < nodes.length(); i++ )
 		{
-			try
-			{
-				JSONObject object = nodes.getJSONObject(i);
-				Class<?> nodeClass = Class.forName(PREFIX_NODES + object.getString("type"));
-				Node node = (Node) nodeClass.getDeclaredConstructor().newInstance();
-				node.moveTo(new Point(object.getInt("x"), object.getInt("y")));
-				for( Property property : node.properties() )
-				{
-					property.set(object.get(property.name().external()));
-				}
-				pContext.addNode(node, object.getInt("id"));
-			}
-			catch( ReflectiveOperationException exception )
-			{
-				throw new DeserializationException("Cannot instantiate serialized object", exception);
-			}
+			JSONObject object = nodes.getJSONObject(i);
+			pContext.addNode(createNode(object), object.getInt("id"));
 		}
 	}
 	
+	/*
+	 * Creates the node encoded by pObject, positioned and with all its 
+	 * properties set, but not related to any other node.
+	 */
+	private static Node createNode(JSONObject pObject)
+	{
+		Node node = ElementFactory.createNode(pObject.getString("type"));
+		node.moveTo(new Point(pObject.getInt("x"), pObject.getInt("y")));
+		decodeProperties(node, pObject);
+		return node;
+	}
+	
 	/* 
 	 * Discovers the root nodes and stores them in the diagram.
 	 */
@@ -141,22 +174,225 @@ public final class JsonDecoder
 		JSONArray edges = pObject.getJSONArray("edges");
 		for( int i = 0; i < edges.length(); i++ )
 		{
+			JSONObject object = edges.getJSONObject(i);
+			Edge edge = createEdge(object);
+			edge.connect(pContext.getNode(object.getInt("start")), pContext.getNode(object.getInt("end")), pContext.pDiagram());
+			pContext.pDiagram().addEdge(edge);
+		}
+	}
+	
+	/*
+	 * Creates the edge encoded by pObject, with all its properties set
+	 * but not connected.
+	 */
+	private static Edge createEdge(JSONObject pObject)
+	{
+		Edge edge = ElementFactory.createEdge(pObject.getString("type"));
+		decodeProperties(edge, pObject);
+		return edge;
+	}
+	
+	private static void decodeProperties(DiagramElement pElement, JSONObject pObject)
+	{
+		for( Property property : pElement.properties() )
+		{
+			property.set(pObject.get(property.name().external()));
+		}
+	}
+	
+	/*
+	 * Reads the members of the top-level diagram object one at a time. Only
+	 * one node or edge element is held as a JSONObject at any point. The 
+	 * identifiers of children and edge ends are kept as integers until
+	 * the whole document has been read. Elements of diagrams saved with an older
+	 * version may not decode, but the version is usually the last member, so
+	 * the first error is only reported once the version is known to be current.
+	 */
+	private static final class StreamDecoder
+	{
+		private final JSONTokener aTokener;
+		private final Map<Node, int[]> aChildren = new LinkedHashMap<>();
+		private final Map<Edge, int[]> aEdges = new LinkedHashMap<>();
+		private DeserializationContext aContext;
+		private boolean aHasNodes;
+		private boolean aHasEdges;
+		private Version aVersion;
+		private RuntimeException aElementError;
+		
+		StreamDecoder(JSONTokener pTokener)
+		{
+			aTokener = pTokener;
+		}
+		
+		Optional<VersionedDiagram> decode()
+		{
+			expect('{');
+			if( aTokener.nextClean() != '}' )
+			{
+				aTokener.back();
+				if( !decodeMembers() )
+				{
+					return Optional.empty();
+				}
+			}
+			if( aVersion == null || aContext == null || !aHasNodes || !aHasEdges )
+			{
+				throw aTokener.syntaxError("Incomplete diagram");
+			}
+			if( !aVersion.compatibleWith(JetUML.VERSION) )
+			{
+				return Optional.empty();
+			}
+			if( aElementError != null )
+			{
+				throw new DeserializationException("Cannot decode serialized object", aElementError);
+			}
+			return Optional.of(resolve());
+		}
+		
+		/*
+		 * Connects the nodes and edges once all of them have been created.
+		 */
+		private VersionedDiagram resolve()
+		{
+			for( Map.Entry<Node, int[]> entry : aChildren.entrySet() )
+			{
+				for( int child : entry.getValue() )
+				{
+					entry.getKey().addChild(node(child));
+				}
+			}
+			restoreRootNodes(aContext);
+			for( Map.Entry<Edge, int[]> entry : aEdges.entrySet() )
+			{
+				entry.getKey().connect(node(entry.getValue()[0]), node(entry.getValue()[1]), aContext.pDiagram());
+				aContext.pDiagram().addEdge(entry.getKey());
+			}
+			aContext.attachNodes();
+			return new VersionedDiagram(aContext.pDiagram(), aVersion, false);
+		}
+		
+		/*
+		 * Returns false as soon as an element appears before the diagram type.
+		 */
+		private boolean decodeMembers()
+		{
+			char next;
+			do
+			{
+				String key = aTokener.nextValue().toString();
+				expect(':');
+				if( "diagram".equals(key) )
+				{
+					aContext = new DeserializationContext(new Diagram(DiagramType.fromName(aTokener.nextValue().toString())));
+				}
+				else if( aContext == null && ("nodes".equals(key) || "edges".equals(key)) )
+				{
+					return false;
+				}
+				else if( "nodes".equals(key) )
+				{
+					decodeElements(this::decodeNode);
+					aHasNodes = true;
+				}
+				else if( "edges".equals(key) )
+				{
+					decodeElements(this::decodeEdge);
+					aHasEdges = true;
+				}
+				else if( "version".equals(key) )
+				{
+					aVersion = Version.parse(aTokener.nextValue().toString());
+				}
+				else
+				{
+					aTokener.nextValue();
+				}
+				next = aTokener.nextClean();
+			} while( next == ',' );
+			if( next != '}' )
+			{
+				throw aTokener.syntaxError("Expected a ',' or '}'");
+			}
+			return true;
+		}
+		
+		private void decodeElements(Consumer<JSONObject> pDecoder)
+		{
+			expect('[');
+			if( aTokener.nextClean() == ']' )
+			{
+				return;
+			}
+			aTokener.back();
+			char next;
+			do
+			{
+				Object element = aTokener.nextValue();
+				if( !(element instanceof JSONObject) )
+				{
+					throw aTokener.syntaxError("Expected a diagram element");
+				}
+				decodeElement(pDecoder, (JSONObject) element);
+				next = aTokener.nextClean();
+			} while( next == ',' );
+			if( next != ']' )
+			{
+				throw aTokener.syntaxError("Expected a ',' or ']'");
+			}
+		}
+		
+		private void decodeElement(Consumer<JSONObject> pDecoder, JSONObject pObject)
+		{
+			if( aElementError != null )
+			{
+				return;
+			}
 			try
 			{
-				JSONObject object = edges.getJSONObject(i);
-				Class<?> edgeClass = Class.forName(PREFIX_EDGES + object.getString("type"));
-				Edge edge = (Edge) edgeClass.getDeclaredConstructor().newInstance();
-				
-				for( Property property : edge.properties())
+				pDecoder.accept(pObject);
+			}
+			catch( JSONException | IllegalArgumentException exception )
+			{
+				aElementError = exception;
+			}
+		}
+		
+		private void decodeNode(JSONObject pObject)
+		{
+			Node node = createNode(pObject);
+			aContext.addNode(node, pObject.getInt("id"));
+			if( pObject.has("children") )
+			{
+				JSONArray children = pObject.getJSONArray("children");
+				int[] ids = new int[children.length()];
+				for( int i = 0; i < ids.length; i++ )
 				{
-					property.set(object.get(property.name().external()));
+					ids[i] = children.getInt(i);
 				}
-				edge.connect(pContext.getNode(object.getInt("start")), pContext.getNode(object.getInt("end")), pContext.pDiagram());
-				pContext.pDiagram().addEdge(edge);
+				aChildren.put(node, ids);
 			}
-			catch( ReflectiveOperationException exception )
+		}
+		
+		private void decodeEdge(JSONObject pObject)
+		{
+			aEdges.put(createEdge(pObject), new int[] { pObject.getInt("start"), pObject.getInt("end") });
+		}
+		
+		private Node node(int pId)
+		{
+			if( !aContext.hasNode(pId) )
+			{
+				throw aTokener.syntaxError("Unknown node identifier: " + pId);
+			}
+			return aContext.getNode(pId);
+		}
+		
+		private void expect(char pCharacter)
+		{
+			if( aTokener.nextClean() != pCharacter )
 			{
-				throw new DeserializationException("Cannot instantiate serialized object", exception);
+				throw aTokener.syntaxError("Expected a '" + pCharacter + "'");
 			}
 		}
 	}
@@ -20,7 +20,10 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.persistence;
 
-import org.json.JSONArray;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
 import org.json.JSONObject;
 
 import ca.mcgill.cs.jetuml.JetUML;
@@ -29,6 +32,7 @@ import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.Properties;
 import ca.mcgill.cs.jetuml.diagram.Property;
+import ca.mcgill.cs.jetuml.persistence.JsonObjectWriter.Value;
 
 /**
  * Converts a graph to JSON notation. The notation includes:
@@ -36,6 +40,9 @@ import ca.mcgill.cs.jetuml.diagram.Property;
  * * The graph type
  * * An array of node encodings
  * * An array of edge encodings
+ * 
+ * The notation is written directly to a writer, one element at a time, 
+ * so that the JSON objects of the diagram do not have to be built.
  */
 public final class JsonEncoder
 {
@@ -48,65 +55,82 @@ public final class JsonEncoder
 	public static JSONObject encode(Diagram pDiagram)
 	{
 		assert pDiagram != null;
+		StringWriter writer = new StringWriter();
+		try
+		{
+			encode(pDiagram, writer);
+		}
+		catch(IOException exception)
+		{
+			assert false; // A StringWriter does not throw IOExceptions
+		}
+		return new JSONObject(writer.toString());
+	}
+	
+	/**
+	 * Writes the JSON encoding of pDiagram to pWriter. The text written is 
+	 * the same as the text of the object returned by encode(pDiagram).
+	 * 
+	 * @param pDiagram The diagram to serialize.
+	 * @param pWriter The writer to write the encoding to.
+	 * @throws IOException If the encoding cannot be written.
+	 * @pre pDiagram != null && pWriter != null
+	 */
+	public static void encode(Diagram pDiagram, Writer pWriter) throws IOException
+	{
+		assert pDiagram != null && pWriter != null;
 		
-		JSONObject object = new JSONObject();
+		JsonObjectWriter object = new JsonObjectWriter();
 		object.put("version", JetUML.VERSION.toString());
 		object.put("diagram", pDiagram.getName());
 		SerializationContext context = new SerializationContext(pDiagram);
-		object.put("nodes", encodeNodes(context));
-		object.put("edges", encodeEdges(context));
-		return object;
+		object.put("nodes", (Value) writer -> encodeNodes(context, writer));
+		object.put("edges", (Value) writer -> encodeEdges(context, writer));
+		object.write(pWriter);
 	}
 	
-	private static JSONArray encodeNodes(SerializationContext pContext)
+	private static void encodeNodes(SerializationContext pContext, Writer pWriter) throws IOException
 	{
-		JSONArray nodes = new JSONArray();
-		for( Node node : pContext ) 
-		{
-			nodes.put(encodeNode(node, pContext));
-		}
-		return nodes;
+		JsonObjectWriter.writeArray(pContext, (node, writer) -> encodeNode(node, pContext).write(writer), pWriter);
 	}
 	
-	private static JSONObject encodeNode(Node pNode, SerializationContext pContext)
+	private static JsonObjectWriter encodeNode(Node pNode, SerializationContext pContext)
 	{
-		JSONObject object = toJSONObject(pNode.properties());
+		JsonObjectWriter object = toJsonObjectWriter(pNode.properties());
 		object.put("id", pContext.getId(pNode));
 		object.put("type", pNode.getClass().getSimpleName());
 		object.put("x", pNode.position().getX());
 		object.put("y", pNode.position().getY());
 		if( pNode.getChildren().size() > 0 )
 		{
-			object.put("children", encodeChildren(pNode, pContext));
+			object.put("children", (Value) writer -> encodeChildren(pNode, pContext, writer));
 		}
 		return object;
 	}
 	
-	private static JSONArray encodeChildren(Node pNode, SerializationContext pContext)
+	private static void encodeChildren(Node pNode, SerializationContext pContext, Writer pWriter) throws IOException
 	{
-		JSONArray children = new JSONArray();
-		pNode.getChildren().forEach(child -> children.put(pContext.getId(child)));
-		return children;
+		JsonObjectWriter.writeArray(pNode.getChildren(), 
+				(child, writer) -> writer.write(Integer.toString(pContext.getId(child))), pWriter);
 	}
 	
-	private static JSONArray encodeEdges(AbstractContext pContext)
+	private static void encodeEdges(AbstractContext pContext, Writer pWriter) throws IOException
 	{
-		JSONArray edges = new JSONArray();
-		for( Edge edge : pContext.pDiagram().edges() ) 
-		{
-			JSONObject object = toJSONObject(edge.properties());
-			object.put("type", edge.getClass().getSimpleName());
-			object.put("start", pContext.getId(edge.getStart()));
-			object.put("end", pContext.getId(edge.getEnd()));
-			
-			edges.put(object);
-		}
-		return edges;
+		JsonObjectWriter.writeArray(pContext.pDiagram().edges(), (edge, writer) -> encodeEdge(edge, pContext).write(writer), pWriter);
 	}
 	
-	private static JSONObject toJSONObject(Properties pProperties)
+	private static JsonObjectWriter encodeEdge(Edge pEdge, AbstractContext pContext)
 	{
-		JSONObject object = new JSONObject();
+		JsonObjectWriter object = toJsonObjectWriter(pEdge.properties());
+		object.put("type", pEdge.getClass().getSimpleName());
+		object.put("start", pContext.getId(pEdge.getStart()));
+		object.put("end", pContext.getId(pEdge.getEnd()));
+		return object;
+	}
+	
+	private static JsonObjectWriter toJsonObjectWriter(Properties pProperties)
+	{
+		JsonObjectWriter object = new JsonObjectWriter();
 		for( Property property : pProperties )
 		{
 			Object value = property.get();
@@ -114,13 +138,9 @@ public final class JsonEncoder
 			{
 				object.put(property.name().external(), value.toString());
 			}
-			else if( value instanceof Integer)
-			{
-				object.put(property.name().external(), (int) value);
-			}
-			else if( value instanceof Boolean)
+			else if( value instanceof Integer || value instanceof Boolean )
 			{
-				object.put(property.name().external(), (boolean) value);
+				object.put(property.name().external(), value);
 			}
 		}
 		return object;
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONObject;
+
+/**
+ * Writes a JSON object directly to a writer. Members are collected 
+ * with the put methods, then written with the write method. The 
+ * value of a member can be a string, an integer, a boolean, or a 
+ * Value that writes itself when the object is written, so that 
+ * nested arrays and objects are streamed instead of being built.
+ * 
+ * Members are written in the order in which a JSONObject, which stores 
+ * its members in a java.util.HashMap with the default capacity, 
+ * writes them. As a result, the text written is identical to the text 
+ * of a JSONObject with the same members. This assumes that no bin of the map 
+ * holds enough keys to be converted into a tree, which is the case for the 
+ * small objects written by JsonEncoder.
+ */
+final class JsonObjectWriter
+{
+	private static final int HASH_MAP_CAPACITY = 16;
+	private static final int HASH_MAP_LOAD_NUMERATOR = 3;
+	private static final int HASH_MAP_LOAD_DENOMINATOR = 4;
+	private static final int HASH_SHIFT = 16;
+	
+	private final List<String> aKeys = new ArrayList<>();
+	private final List<Object> aValues = new ArrayList<>();
+	
+	/**
+	 * A value that writes its own JSON text.
+	 */
+	@FunctionalInterface
+	interface Value
+	{
+		/**
+		 * Writes the JSON text of this value.
+		 * 
+		 * @param pWriter The writer to write to.
+		 * @throws IOException If the text cannot be written.
+		 */
+		void write(Writer pWriter) throws IOException;
+	}
+	
+	/**
+	 * Writes the JSON text of an element of an array.
+	 * 
+	 * @param <T> The type of the elements.
+	 */
+	@FunctionalInterface
+	interface ElementWriter<T>
+	{
+		/**
+		 * Writes the JSON text of pElement.
+		 * 
+		 * @param pElement The element to write.
+		 * @param pWriter The writer to write to.
+		 * @throws IOException If the text cannot be written.
+		 */
+		void write(T pElement, Writer pWriter) throws IOException;
+	}
+	
+	/**
+	 * Sets the value of member pKey to pValue. If there is already 
+	 * a member with this key, its value is replaced.
+	 * 
+	 * @param pKey The key of the member.
+	 * @param pValue A String, Integer, Boolean, or Value.
+	 * @pre pKey != null && pValue != null
+	 */
+	void put(String pKey, Object pValue)
+	{
+		assert pKey != null && pValue != null;
+		assert pValue instanceof String || pValue instanceof Integer || pValue instanceof Boolean || pValue instanceof Value;
+		int index = aKeys.indexOf(pKey);
+		if( index >= 0 )
+		{
+			aValues.set(index, pValue);
+		}
+		else
+		{
+			aKeys.add(pKey);
+			aValues.add(pValue);
+		}
+	}
+	
+	/**
+	 * Writes the object.
+	 * 
+	 * @param pWriter The writer to write to.
+	 * @throws IOException If the object cannot be written.
+	 */
+	void write(Writer pWriter) throws IOException
+	{
+		pWriter.write('{');
+		boolean comma = false;
+		for( int index : hashMapOrder() )
+		{
+			if( comma )
+			{
+				pWriter.write(',');
+			}
+			JSONObject.quote(aKeys.get(index), pWriter);
+			pWriter.write(':');
+			writeValue(aValues.get(index), pWriter);
+			comma = true;
+		}
+		pWriter.write('}');
+	}
+	
+	/**
+	 * Writes a JSON array with one element for each object in pElements.
+	 * 
+	 * @param pElements The objects to write as elements of the array.
+	 * @param pElementWriter Writes the JSON text of each object.
+	 * @param pWriter The writer to write to.
+	 * @param <T> The type of the objects.
+	 * @throws IOException If the array cannot be written.
+	 */
+	static <T> void writeArray(Iterable<T> pElements, ElementWriter<T> pElementWriter, Writer pWriter) throws IOException
+	{
+		pWriter.write('[');
+		boolean comma = false;
+		for( T element : pElements )
+		{
+			if( comma )
+			{
+				pWriter.write(',');
+			}
+			pElementWriter.write(element, pWriter);
+			comma = true;
+		}
+		pWriter.write(']');
+	}
+	
+	private static void writeValue(Object pValue, Writer pWriter) throws IOException
+	{
+		if( pValue instanceof String )
+		{
+			JSONObject.quote((String) pValue, pWriter);
+		}
+		else if( pValue instanceof Value )
+		{
+			((Value) pValue).write(pWriter);
+		}
+		else
+		{
+			pWriter.write(pValue.toString());
+		}
+	}
+	
+	/*
+	 * Returns the indices of the keys in the order in which a HashMap with the default
+	 * capacity iterates over them: by bin, and in order of insertion within a bin.
+	 */
+	private int[] hashMapOrder()
+	{
+		int capacity = HASH_MAP_CAPACITY;
+		while( aKeys.size() * HASH_MAP_LOAD_DENOMINATOR > capacity * HASH_MAP_LOAD_NUMERATOR )
+		{
+			capacity *= 2;
+		}
+		int[] order = new int[aKeys.size()];
+		int[] bins = new int[aKeys.size()];
+		for( int i = 0; i < order.length; i++ )
+		{
+			int hash = aKeys.get(i).hashCode();
+			int bin = (hash ^ (hash >>> HASH_SHIFT)) & (capacity - 1);
+			// Stable insertion sort by bin
+			int position = i;
+			while( position > 0 && bins[position - 1] > bin )
+			{
+				bins[position] = bins[position - 1];
+				order[position] = order[position - 1];
+				position--;
+			}
+			bins[position] = bin;
+			order[position] = i;
+		}
+		return order;
+	}
+}
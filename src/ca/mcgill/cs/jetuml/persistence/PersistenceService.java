@@ -20,31 +20,43 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.persistence;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.LongConsumer;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import ca.mcgill.cs.jetuml.application.FileExtensions;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 
 /**
- * Services for saving and loading Diagram objects. The files are encoded
- * in UTF-8.
+ * Services for saving and loading Diagram objects. Files are encoded in 
+ * JSON, in UTF-8, unless their name has the binary extension, in which case
+ * they are encoded in the format of the BinaryEncoder.
  */
 public final class PersistenceService
 {
 	private PersistenceService() {}
 	
 	/**
-     * Saves the current diagram in a file. 
+     * Saves the current diagram in a file, in the binary format if the name
+     * of the file has the binary extension, and in JSON otherwise. 
      * 
      * @param pDiagram The diagram to save
      * @param pFile The file in which to save the diagram
@@ -54,16 +66,47 @@ public final class PersistenceService
      */
 	public static void save(Diagram pDiagram, File pFile) throws IOException
 	{
-		assert pDiagram != null && pFile != null;
-		try( PrintWriter out = new PrintWriter(
-				new OutputStreamWriter(new FileOutputStream(pFile), StandardCharsets.UTF_8)))
+		save(pDiagram, pFile, pBytesWritten -> {});
+	}
+	
+	/**
+     * Saves the current diagram in a file, as save(Diagram, File) does, and 
+     * reports the total number of bytes written to pFile to pProgress as the 
+     * diagram is written. 
+     * 
+     * @param pDiagram The diagram to save
+     * @param pFile The file in which to save the diagram
+     * @param pProgress Receives the number of bytes written so far.
+     * @throws IOException If there is a problem writing to pFile.
+     * @pre pDiagram != null.
+     * @pre pFile != null.
+     * @pre pProgress != null.
+     */
+	public static void save(Diagram pDiagram, File pFile, LongConsumer pProgress) throws IOException
+	{
+		assert pDiagram != null && pFile != null && pProgress != null;
+		if( FileExtensions.isBinary(pFile) )
 		{
-			out.println(JsonEncoder.encode(pDiagram).toString());
+			try( OutputStream out = new BufferedOutputStream(new CountingOutputStream(new FileOutputStream(pFile), pProgress)) )
+			{
+				BinaryEncoder.encode(pDiagram, out);
+			}
+			return;
+		}
+		try( Writer out = new BufferedWriter(new OutputStreamWriter(
+				new CountingOutputStream(new FileOutputStream(pFile), pProgress), StandardCharsets.UTF_8)))
+		{
+			JsonEncoder.encode(pDiagram, out);
+			out.write(System.lineSeparator());
 		}
 	}
 	
 	/**
-	 * Reads a diagram from a file.
+	 * Reads a diagram from a file. Files in the binary format are recognized by their 
+	 * content, whatever their name. Other files are decoded as JSON as they are read. 
+	 * Diagrams saved with a version that requires migration, or not laid out as 
+	 * JsonEncoder writes them, are read a second time through the VersionMigrator.
+	 * Other errors are reported as soon as the decoder finds them.
 	 * 
 	 * @param pFile The file to read the diagram from.
 	 * @return The diagram that is read in
@@ -73,12 +116,39 @@ public final class PersistenceService
 	 */
 	public static VersionedDiagram read(File pFile) throws IOException, DeserializationException
 	{
-		assert pFile != null;
-		try( BufferedReader in = new BufferedReader(
-				new InputStreamReader(new FileInputStream(pFile), StandardCharsets.UTF_8)))
+		return read(pFile, pBytesRead -> {});
+	}
+	
+	/**
+	 * Reads a diagram from a file, as read(File) does, and reports the total 
+	 * number of bytes read from pFile to pProgress as the file is decoded. 
+	 * The second reading of diagrams that require migration is not reported.
+	 * 
+	 * @param pFile The file to read the diagram from.
+	 * @param pProgress Receives the number of bytes read so far.
+	 * @return The diagram that is read in
+	 * @throws IOException if the diagram cannot be read.
+	 * @throws DeserializationException if there is a problem decoding the file.
+	 * @pre pFile != null && pProgress != null
+	 */
+	public static VersionedDiagram read(File pFile, LongConsumer pProgress) throws IOException, DeserializationException
+	{
+		assert pFile != null && pProgress != null;
+		try( InputStream in = new BufferedInputStream(new CountingInputStream(new FileInputStream(pFile), pProgress)) )
+		{
+			if( BinaryDecoder.isBinary(in) )
+			{
+				return BinaryDecoder.decode(in);
+			}
+			Optional<VersionedDiagram> diagram = JsonDecoder.decode(new InputStreamReader(in, StandardCharsets.UTF_8));
+			if( diagram.isPresent() )
+			{
+				return diagram.get();
+			}
+		}
+		try( BufferedReader in = newReader(pFile) )
 		{
 			// Extra wrapper to support backward compatibility. Eventually take down the migrator.
-			// Replace VersionMigrator.migrate with JSonDecoder.decode
 			return new VersionMigrator().migrate(new JSONObject(in.readLine())); 
 		}
 		catch( JSONException e )
@@ -86,4 +156,98 @@ public final class PersistenceService
 			throw new DeserializationException("Cannot decode the file", e);
 		}
 	}
+	
+	private static BufferedReader newReader(File pFile) throws IOException
+	{
+		return new BufferedReader(new InputStreamReader(new FileInputStream(pFile), StandardCharsets.UTF_8));
+	}
+	
+	/*
+	 * Reports the total number of bytes read from the wrapped stream.
+	 */
+	private static final class CountingInputStream extends FilterInputStream
+	{
+		private final LongConsumer aProgress;
+		private long aCount;
+		
+		CountingInputStream(InputStream pInput, LongConsumer pProgress)
+		{
+			super(pInput);
+			aProgress = pProgress;
+		}
+		
+		@Override
+		public int read() throws IOException
+		{
+			int result = super.read();
+			if( result >= 0 )
+			{
+				count(1);
+			}
+			return result;
+		}
+		
+		@Override
+		public int read(byte[] pBuffer, int pOffset, int pLength) throws IOException
+		{
+			int result = super.read(pBuffer, pOffset, pLength);
+			if( result > 0 )
+			{
+				count(result);
+			}
+			return result;
+		}
+		
+		@Override
+		public long skip(long pLength) throws IOException
+		{
+			long result = super.skip(pLength);
+			if( result > 0 )
+			{
+				count(result);
+			}
+			return result;
+		}
+		
+		private void count(long pBytes)
+		{
+			aCount += pBytes;
+			aProgress.accept(aCount);
+		}
+	}
+	
+	/*
+	 * Reports the total number of bytes written to the wrapped stream.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream
+	{
+		private final LongConsumer aProgress;
+		private long aCount;
+		
+		CountingOutputStream(OutputStream pOutput, LongConsumer pProgress)
+		{
+			super(pOutput);
+			aProgress = pProgress;
+		}
+		
+		@Override
+		public void write(int pByte) throws IOException
+		{
+			out.write(pByte);
+			count(1);
+		}
+		
+		@Override
+		public void write(byte[] pBuffer, int pOffset, int pLength) throws IOException
+		{
+			out.write(pBuffer, pOffset, pLength);
+			count(pLength);
+		}
+		
+		private void count(long pBytes)
+		{
+			aCount += pBytes;
+			aProgress.accept(aCount);
+		}
+	}
 }
@@ -25,7 +25,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,10 +53,40 @@ import ca.mcgill.cs.jetuml.application.Version;
  * * All labels of GeneralizationEdges will be dropped
  * * AssociationEdges with a "Start" directionality will be flipped
  * * The types of associations are renamed
+ * 
+ * Each rule applies to a single node or edge object. All the rules are applied
+ * in a single pass over the nodes and a single pass over the edges, in the order
+ * in which they are listed above.
  */
 public final class VersionMigrator
 {
+	private final List<Rule> aNodeRules = Arrays.asList(
+			this::convertPackageNodeToPackageDescriptionNode, 
+			this::removeInterfaceStereotype);
+	
+	private final List<Rule> aEdgeRules = Arrays.asList(
+			this::removeSelfDependency, 
+			this::addDirectionalityPropertyToDependencyEdge,
+			this::replaceDualDependencyWithBidirectionalEdge,
+			this::flipInversedAssociation,
+			this::renameAssociationDirectionality);
+	
+	/* Dependency edges already visited, keyed by the set of their start and end nodes. */
+	private final Map<Set<Integer>, JSONObject> aDependencies = new HashMap<>();
 	private boolean aMigrated;
+	
+	/**
+	 * A migration rule transforms a single node or edge object in place.
+	 */
+	@FunctionalInterface
+	private interface Rule
+	{
+		/**
+		 * @param pObject The node or edge object to migrate.
+		 * @return False if pObject must be removed from the diagram.
+		 */
+		boolean apply(JSONObject pObject);
+	}
 
 	/**
 	 * Creates a new version migrator. Can be reused.
@@ -100,156 +130,146 @@ public final class VersionMigrator
 		}
 		
 		aMigrated = false;
+		aDependencies.clear();
 
 		// JSONObject to JSONObject conversions
-		convertPackageNodeToPackageDescriptionNode(pDiagram);
-		removeSelfDependencies(pDiagram);
-		addDirectionalityPropertyToDependencyEdges(pDiagram);
-		replaceDualDependenciesWithBidirectionalEdge(pDiagram);
-		removeInterfaceStereotype(pDiagram);
-		flipInversedAssociations(pDiagram);
-		renameAssociationDirectionality(pDiagram);
+		pDiagram.put("nodes", migrate(pDiagram.getJSONArray("nodes"), aNodeRules));
+		pDiagram.put("edges", migrate(pDiagram.getJSONArray("edges"), aEdgeRules));
 
 		return new VersionedDiagram(JsonDecoder.decode(pDiagram), version, aMigrated);
 	}
-
-	private void convertPackageNodeToPackageDescriptionNode(JSONObject pDiagram)
+	
+	/*
+	 * Applies all of pRules to each object of pElements, and returns 
+	 * the objects that were not removed, in their original order.
+	 */
+	private static JSONArray migrate(JSONArray pElements, List<Rule> pRules)
 	{
-		JSONArray nodes = pDiagram.getJSONArray("nodes");
-		for( int i = 0; i < nodes.length(); i++ )
+		JSONArray result = new JSONArray();
+		for( int i = 0; i < pElements.length(); i++ )
 		{
-			JSONObject object = nodes.getJSONObject(i);
-			if( object.getString("type").equals("PackageNode") && !object.has("children") && object.has("contents") )
+			JSONObject object = pElements.getJSONObject(i);
+			if( applyAll(pRules, object) )
 			{
-				object.put("type", "PackageDescriptionNode");
-				aMigrated = true;
+				result.put(object);
 			}
 		}
+		return result;
 	}
 	
-	private void removeInterfaceStereotype(JSONObject pDiagram)
+	private static boolean applyAll(List<Rule> pRules, JSONObject pObject)
 	{
-		JSONArray nodes = pDiagram.getJSONArray("nodes");
-		for( int i = 0; i < nodes.length(); i++ )
+		for( Rule rule : pRules )
 		{
-			JSONObject object = nodes.getJSONObject(i);
-			if( object.getString("type").equals("InterfaceNode") )
+			if( !rule.apply(pObject) )
 			{
-				if( object.getString("name").contains("\u00ABinterface\u00BB"))
-				{
-					object.put("name", object.getString("name").replace("\u00ABinterface\u00BB", "").trim());
-					aMigrated = true;
-				}
+				return false;
 			}
 		}
+		return true;
 	}
 
-	private void removeSelfDependencies(JSONObject pDiagram)
+	private boolean convertPackageNodeToPackageDescriptionNode(JSONObject pNode)
 	{
-		JSONArray edges = pDiagram.getJSONArray("edges");
-		List<JSONObject> newEdges = new ArrayList<>();
-		for( int i = 0; i < edges.length(); i++ )
+		if( pNode.getString("type").equals("PackageNode") && !pNode.has("children") && pNode.has("contents") )
 		{
-			JSONObject object = edges.getJSONObject(i);
-			if( object.getString("type").equals("DependencyEdge") && object.getInt("start") == object.getInt("end") )
-			{
-				aMigrated = true; // We don't add the dependency, essentially removing it.
-			}
-			else
-			{
-				newEdges.add(object);
-			}
+			pNode.put("type", "PackageDescriptionNode");
+			aMigrated = true;
 		}
-		pDiagram.put("edges", new JSONArray(newEdges));
+		return true;
 	}
-
-	private void addDirectionalityPropertyToDependencyEdges(JSONObject pDiagram)
+	
+	private boolean removeInterfaceStereotype(JSONObject pNode)
 	{
-		JSONArray edges = pDiagram.getJSONArray("edges");
-		for( int i = 0; i < edges.length(); i++ )
+		if( pNode.getString("type").equals("InterfaceNode") )
 		{
-			JSONObject object = edges.getJSONObject(i);
-			if( object.getString("type").equals("DependencyEdge") )
+			if( pNode.getString("name").contains("\u00ABinterface\u00BB"))
 			{
-				object.put("directionality", "Unidirectional");
+				pNode.put("name", pNode.getString("name").replace("\u00ABinterface\u00BB", "").trim());
 				aMigrated = true;
 			}
 		}
+		return true;
+	}
+
+	private boolean removeSelfDependency(JSONObject pEdge)
+	{
+		if( pEdge.getString("type").equals("DependencyEdge") && pEdge.getInt("start") == pEdge.getInt("end") )
+		{
+			aMigrated = true; // We don't keep the dependency, essentially removing it.
+			return false;
+		}
+		return true;
+	}
+
+	private boolean addDirectionalityPropertyToDependencyEdge(JSONObject pEdge)
+	{
+		if( pEdge.getString("type").equals("DependencyEdge") )
+		{
+			pEdge.put("directionality", "Unidirectional");
+			aMigrated = true;
+		}
+		return true;
 	}
 	
 	/*
 	 * Replace associations with a "Start" directionality with
 	 * a directional edge in the reverse direction. 
 	 */
-	private void flipInversedAssociations(JSONObject pDiagram)
+	private boolean flipInversedAssociation(JSONObject pEdge)
 	{
-		JSONArray edges = pDiagram.getJSONArray("edges");
-		for( int i = 0; i < edges.length(); i++ )
+		if( pEdge.getString("type").equals("AssociationEdge") && pEdge.getString("directionality").equals("Start"))
 		{
-			JSONObject object = edges.getJSONObject(i);
-			if( object.getString("type").equals("AssociationEdge") && object.getString("directionality").equals("Start"))
-			{
-				object.put("directionality", "End");
-				int start = object.getInt("start");
-				int end = object.getInt("end");
-				object.put("start", end);
-				object.put("end", start);
-				aMigrated = true;
-			}
+			pEdge.put("directionality", "End");
+			int start = pEdge.getInt("start");
+			int end = pEdge.getInt("end");
+			pEdge.put("start", end);
+			pEdge.put("end", start);
+			aMigrated = true;
 		}
+		return true;
 	}
 	
-	private void renameAssociationDirectionality(JSONObject pDiagram)
+	private boolean renameAssociationDirectionality(JSONObject pEdge)
 	{
-		JSONArray edges = pDiagram.getJSONArray("edges");
-		for( int i = 0; i < edges.length(); i++ )
+		if( pEdge.getString("type").equals("AssociationEdge"))
 		{
-			JSONObject object = edges.getJSONObject(i);
-			if( object.getString("type").equals("AssociationEdge"))
+			if( pEdge.get("directionality").equals("None"))
 			{
-				if( object.get("directionality").equals("None"))
-				{
-					object.put("directionality", "Unspecified");
-				}
-				else if( object.get("directionality").equals("End"))
-				{
-					object.put("directionality", "Unidirectional");
-				}
-				else if( object.get("directionality").equals("Both"))
-				{
-					object.put("directionality", "Bidirectional");
-				}
-				aMigrated = true;
+				pEdge.put("directionality", "Unspecified");
+			}
+			else if( pEdge.get("directionality").equals("End"))
+			{
+				pEdge.put("directionality", "Unidirectional");
+			}
+			else if( pEdge.get("directionality").equals("Both"))
+			{
+				pEdge.put("directionality", "Bidirectional");
 			}
+			aMigrated = true;
 		}
+		return true;
 	}
 
-	private void replaceDualDependenciesWithBidirectionalEdge(JSONObject pDiagram)
+	/*
+	 * Merges a dependency edge into a previous dependency edge between the same 
+	 * two nodes, if there is one, which becomes bidirectional.
+	 */
+	private boolean replaceDualDependencyWithBidirectionalEdge(JSONObject pEdge)
 	{
-		Map<Set<Integer>, JSONObject> links = new HashMap<>();
-		List<JSONObject> newEdges = new ArrayList<>();
-		
-		JSONArray edges = pDiagram.getJSONArray("edges");
-		for( int i = 0; i < edges.length(); i++ )
+		if( pEdge.getString("type").equals("DependencyEdge") ) 
 		{
-			JSONObject object = edges.getJSONObject(i);
-			newEdges.add(object);
-			if( object.getString("type").equals("DependencyEdge") ) 
+			Set<Integer> key = Set.of(pEdge.getInt("start"), pEdge.getInt("end"));
+			JSONObject link = aDependencies.get(key);
+			if( link != null )
 			{
-				Set<Integer> key = Set.of(object.getInt("start"), object.getInt("end"));
-				if( links.containsKey(key))
-				{
-					newEdges.remove(object);
-					links.get(key).put("directionality", "Bidirectional");
-					links.get(key).put("middleLabel", links.get(key).get("middleLabel") + " + " + object.get("middleLabel"));
-					aMigrated = true;
-				}
-				else
-				{
-					links.put(Set.of(object.getInt("start"), object.getInt("end")), object);
-				}
+				link.put("directionality", "Bidirectional");
+				link.put("middleLabel", link.get("middleLabel") + " + " + pEdge.get("middleLabel"));
+				aMigrated = true;
+				return false;
 			}
+			aDependencies.put(key, pEdge);
 		}
-		pDiagram.put("edges", new JSONArray(newEdges));
+		return true;
 	}
 }
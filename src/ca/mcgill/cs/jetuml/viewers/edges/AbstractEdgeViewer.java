@@ -23,15 +23,16 @@ package ca.mcgill.cs.jetuml.viewers.edges;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Direction;
+import ca.mcgill.cs.jetuml.geom.GeomUtils;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.StringViewer.Alignment;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.geometry.Bounds;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
@@ -87,9 +88,42 @@ public abstract class AbstractEdgeViewer implements EdgeViewer
 			return false;
 		}
 
-		Shape fatPath = getShape(pEdge);
-		fatPath.setStrokeWidth(2 * MAX_DISTANCE);
-		return fatPath.contains(pPoint.getX(), pPoint.getY());
+		return isNearPath(pEdge, pPoint);
+	}
+	
+	/**
+	 * Tests whether a point is within MAX_DISTANCE of the path of an edge. 
+	 * The default behavior is to test the distance to the straight line between
+	 * the connection points, consistently with getShape.
+	 * 
+	 * @param pEdge The edge to test.
+	 * @param pPoint The point to test.
+	 * @return True if pPoint is near the path of pEdge.
+	 * @pre pEdge != null && pPoint != null
+	 */
+	protected boolean isNearPath(Edge pEdge, Point pPoint)
+	{
+		assert pEdge != null && pPoint != null;
+		Line connectionPoints = getConnectionPoints(pEdge);
+		return GeomUtils.distanceToSegment(pPoint, connectionPoints.getX1(), connectionPoints.getY1(), 
+				connectionPoints.getX2(), connectionPoints.getY2()) <= MAX_DISTANCE;
+	}
+	
+	/**
+	 * Tests whether a point is within MAX_DISTANCE of the outline of a shape. 
+	 * This requires building the shape, so it should only be used for outlines
+	 * that have no simple geometric description.
+	 * 
+	 * @param pShape The shape to test.
+	 * @param pPoint The point to test.
+	 * @return True if pPoint is near the outline of pShape.
+	 * @pre pShape != null && pPoint != null
+	 */
+	protected static boolean isNearShape(Shape pShape, Point pPoint)
+	{
+		assert pShape != null && pPoint != null;
+		pShape.setStrokeWidth(2 * MAX_DISTANCE);
+		return pShape.contains(pPoint.getX(), pPoint.getY());
 	}
 	
 	@Override
@@ -119,7 +153,7 @@ public abstract class AbstractEdgeViewer implements EdgeViewer
 	}
 
 	@Override
-	public void drawSelectionHandles(Edge pEdge, GraphicsContext pGraphics)
+	public void drawSelectionHandles(Edge pEdge, RenderingSurface pGraphics)
 	{
 		ToolGraphics.drawHandles(pGraphics, getConnectionPoints(pEdge));		
 	}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.edges;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
+import ca.mcgill.cs.jetuml.views.GeometryCache;
+
+/**
+ * Caches values computed for a node from the edges attached to it, such as the 
+ * position of these edges on each side of the node. The value depends on the bounds 
+ * of the node, and on the properties, end points and end point bounds of every edge 
+ * attached to it. These inputs are checked by a single cache of revisions shared by all 
+ * instances, so that they are compared once per node when the diagram changes, 
+ * however many values depend on them.
+ * 
+ * @param <V> The type of value cached.
+ */
+final class AttachedEdgesCache<V> extends GeometryCache<Node, V>
+{
+	private static final Revisions REVISIONS = new Revisions();
+	
+	AttachedEdgesCache(Function<Node, V> pFunction)
+	{
+		super(pFunction);
+	}
+	
+	/**
+	 * @param pNode The node whose revision to obtain.
+	 * @return An object that is replaced by a different one whenever pNode 
+	 *     or one of the edges attached to it changes.
+	 * @pre pNode != null && pNode.getDiagram().isPresent()
+	 */
+	static Object revisionOf(Node pNode)
+	{
+		assert pNode != null && pNode.getDiagram().isPresent();
+		return REVISIONS.get(pNode);
+	}
+
+	@Override
+	protected Optional<Diagram> diagramOf(Node pNode)
+	{
+		return pNode.getDiagram();
+	}
+
+	@Override
+	protected boolean isIn(Node pNode, Diagram pDiagram)
+	{
+		return pNode.getDiagram().isPresent() && pNode.getDiagram().get() == pDiagram;
+	}
+
+	@Override
+	protected void recordInputs(Node pNode, Consumer<Object> pInputs)
+	{
+		pInputs.accept(revisionOf(pNode));
+	}
+	
+	/**
+	 * Creates a new revision object for a node whenever the node or
+	 * one of the edges attached to it changes.
+	 */
+	private static final class Revisions extends GeometryCache<Node, Object>
+	{
+		Revisions()
+		{
+			super(pNode -> new Object());
+		}
+		
+		@Override
+		protected Optional<Diagram> diagramOf(Node pNode)
+		{
+			return pNode.getDiagram();
+		}
+
+		@Override
+		protected boolean isIn(Node pNode, Diagram pDiagram)
+		{
+			return pNode.getDiagram().isPresent() && pNode.getDiagram().get() == pDiagram;
+		}
+		
+		@Override
+		protected void recordInputs(Node pNode, Consumer<Object> pInputs)
+		{
+			pInputs.accept(NodeViewerRegistry.getBounds(pNode));
+			for( Edge edge : pNode.getDiagram().get().edgesConnectedTo(pNode) )
+			{
+				EdgeGeometryCache.recordOwnInputs(edge, pInputs);
+			}
+		}
+	}
+}
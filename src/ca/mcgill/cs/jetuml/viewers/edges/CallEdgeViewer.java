@@ -30,19 +30,21 @@ import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
 import ca.mcgill.cs.jetuml.geom.Conversions;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Direction;
+import ca.mcgill.cs.jetuml.geom.GeomUtils;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
 import ca.mcgill.cs.jetuml.views.ArrowHead;
 import ca.mcgill.cs.jetuml.views.ArrowHeadView;
+import ca.mcgill.cs.jetuml.views.CanvasRenderingSurface;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.StringViewer.Alignment;
 import ca.mcgill.cs.jetuml.views.StringViewer.TextDecoration;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
@@ -77,6 +79,21 @@ public final class CallEdgeViewer extends AbstractEdgeViewer
 		return path;
 	}
 	
+	@Override
+	protected boolean isNearPath(Edge pEdge, Point pPoint)
+	{
+		Point[] points = getPoints(pEdge);
+		for( int i = 1; i < points.length; i++ )
+		{
+			if( GeomUtils.distanceToSegment(pPoint, points[i-1].getX(), points[i-1].getY(), 
+					points[i].getX(), points[i].getY()) <= MAX_DISTANCE )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	@Override
 	public Line getConnectionPoints(Edge pEdge)
 	{
@@ -113,7 +130,7 @@ public final class CallEdgeViewer extends AbstractEdgeViewer
 	}
 
 	@Override
-	public void draw(Edge pEdge, GraphicsContext pGraphics)
+	public void draw(Edge pEdge, RenderingSurface pGraphics)
 	{
 		ToolGraphics.strokeSharpPath(pGraphics, (Path) getShape(pEdge), LineStyle.SOLID);
 		
@@ -146,7 +163,7 @@ public final class CallEdgeViewer extends AbstractEdgeViewer
 		}
 	}
 
-	private void drawLabel(CallEdge pEdge, GraphicsContext pGraphics, String pLabel)
+	private void drawLabel(CallEdge pEdge, RenderingSurface pGraphics, String pLabel)
 	{
 		if( pEdge.isSelfEdge() )
 		{
@@ -209,7 +226,7 @@ public final class CallEdgeViewer extends AbstractEdgeViewer
 		final float scale = 0.6f;
 		final int offset = 15;
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		RenderingSurface graphics = new CanvasRenderingSurface(canvas.getGraphicsContext2D());
 		canvas.getGraphicsContext2D().scale(scale, scale);
 		Path path = new Path();
 		path.getElements().addAll(new MoveTo(1, offset), new LineTo(BUTTON_SIZE*(1/scale)-1, offset));
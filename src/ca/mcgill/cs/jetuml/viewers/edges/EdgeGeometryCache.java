@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.edges;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
+import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
+import ca.mcgill.cs.jetuml.views.GeometryCache;
+
+/**
+ * Caches the geometry of edges, such as their bounds or path. The geometry of an 
+ * edge depends on its properties, its end points and their bounds. Because the path 
+ * of an edge can depend on the position of the other edges connected to the same nodes, 
+ * it also depends on the properties, end points and end point bounds of these edges.
+ * These are checked once per node, rather than once per edge, through the revision 
+ * of the node kept by AttachedEdgesCache.
+ * 
+ * @param <V> The type of geometric value cached.
+ */
+final class EdgeGeometryCache<V> extends GeometryCache<Edge, V>
+{
+	EdgeGeometryCache(Function<Edge, V> pFunction)
+	{
+		super(pFunction);
+	}
+
+	/*
+	 * Edges are only cached once both of their nodes are in the diagram.
+	 */
+	@Override
+	protected Optional<Diagram> diagramOf(Edge pEdge)
+	{
+		Diagram diagram = pEdge.getDiagram();
+		if( diagram == null || !isInDiagram(pEdge.getStart(), diagram) || !isInDiagram(pEdge.getEnd(), diagram) )
+		{
+			return Optional.empty();
+		}
+		return Optional.of(diagram);
+	}
+	
+	private static boolean isInDiagram(Node pNode, Diagram pDiagram)
+	{
+		return pNode.getDiagram().isPresent() && pNode.getDiagram().get() == pDiagram;
+	}
+
+	@Override
+	protected boolean isIn(Edge pEdge, Diagram pDiagram)
+	{
+		return pEdge.getDiagram() == pDiagram && pDiagram.edgesFrom(pEdge.getStart()).contains(pEdge);
+	}
+
+	@Override
+	protected void recordInputs(Edge pEdge, Consumer<Object> pInputs)
+	{
+		recordOwnInputs(pEdge, pInputs);
+		pInputs.accept(AttachedEdgesCache.revisionOf(pEdge.getStart()));
+		if( pEdge.getEnd() != pEdge.getStart() )
+		{
+			pInputs.accept(AttachedEdgesCache.revisionOf(pEdge.getEnd()));
+		}
+	}
+	
+	static void recordOwnInputs(Edge pEdge, Consumer<Object> pInputs)
+	{
+		pInputs.accept(pEdge);
+		pInputs.accept(pEdge.getStart());
+		pInputs.accept(pEdge.getEnd());
+		for( Property property : pEdge.properties() )
+		{
+			pInputs.accept(property.get());
+		}
+		pInputs.accept(NodeViewerRegistry.getBounds(pEdge.getStart()));
+		pInputs.accept(NodeViewerRegistry.getBounds(pEdge.getEnd()));
+	}
+}
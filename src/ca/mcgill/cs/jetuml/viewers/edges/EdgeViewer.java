@@ -24,8 +24,8 @@ import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Abstract strategy that describes objects that can draw and
@@ -48,7 +48,7 @@ public interface EdgeViewer
      * @param pGraphics the graphics context
      * @pre pEdge != null
 	 */
-   	void draw(Edge pEdge, GraphicsContext pGraphics);
+   	void draw(Edge pEdge, RenderingSurface pGraphics);
    	
    	/**
    	 * Returns an icon that represents pEdge.
@@ -64,7 +64,7 @@ public interface EdgeViewer
      * @param pGraphics the graphics context
      * @pre pEdge != null && pGraphics != null
 	 */
-   	void drawSelectionHandles(Edge pEdge, GraphicsContext pGraphics);
+   	void drawSelectionHandles(Edge pEdge, RenderingSurface pGraphics);
    	
    	/**
      * Tests whether pEdge contains a point.
@@ -40,8 +40,8 @@ import ca.mcgill.cs.jetuml.diagram.edges.UseCaseGeneralizationEdge;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Keeps track of the association between an edge type and the viewer
@@ -53,6 +53,7 @@ public final class EdgeViewerRegistry
 	
 	private IdentityHashMap<Class<? extends Edge>, EdgeViewer> aRegistry = 
 			new IdentityHashMap<>();
+	private final EdgeGeometryCache<Rectangle> aBoundsCache = new EdgeGeometryCache<>(pEdge -> viewerFor(pEdge).getBounds(pEdge));
 	
 	private EdgeViewerRegistry() 
 	{
@@ -111,7 +112,7 @@ public final class EdgeViewerRegistry
      * @param pGraphics the graphics context
      * @pre pEdge != null
 	 */
-   	public static void draw(Edge pEdge, GraphicsContext pGraphics)
+   	public static void draw(Edge pEdge, RenderingSurface pGraphics)
    	{
    		INSTANCE.viewerFor(pEdge).draw(pEdge, pGraphics);
    	}
@@ -122,7 +123,7 @@ public final class EdgeViewerRegistry
      * @param pGraphics the graphics context
      * @pre pEdge != null && pGraphics != null
 	 */
-   	public static void drawSelectionHandles(Edge pEdge, GraphicsContext pGraphics)
+   	public static void drawSelectionHandles(Edge pEdge, RenderingSurface pGraphics)
    	{
    		INSTANCE.viewerFor(pEdge).drawSelectionHandles(pEdge, pGraphics);
    	}
@@ -130,13 +131,15 @@ public final class EdgeViewerRegistry
 	/**
      * Gets the smallest rectangle that bounds pEdge.
      * The bounding rectangle contains all labels.
+     * The bounds of an edge in a diagram are cached and only recomputed
+     * when its properties, its nodes, or the edges it depends on change.
      * @param pEdge The edge whose bounds we wish to compute.
      * @return the bounding rectangle
      * @pre pEdge != null
    	 */
 	public static Rectangle getBounds(Edge pEdge)
 	{
-		return INSTANCE.viewerFor(pEdge).getBounds(pEdge);
+		return INSTANCE.aBoundsCache.get(pEdge);
 	}
 	
   	/**
@@ -27,10 +27,11 @@ import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
 import ca.mcgill.cs.jetuml.views.ArrowHead;
+import ca.mcgill.cs.jetuml.views.CanvasRenderingSurface;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
@@ -57,6 +58,15 @@ public final class ObjectReferenceEdgeViewer extends AbstractEdgeViewer
 		}			
 	}
 	
+	/*
+	 * The curves of the path are tested through its shape.
+	 */
+	@Override
+	protected boolean isNearPath(Edge pEdge, Point pPoint)
+	{
+		return isNearShape(getShape(pEdge), pPoint);
+	}
+	
 	private Path getSShape(Line pConnectionPoints)
 	{
 		final int x1 = pConnectionPoints.getX1() + ENDSIZE;
@@ -108,7 +118,7 @@ public final class ObjectReferenceEdgeViewer extends AbstractEdgeViewer
 	}
 
 	@Override
-	public void draw(Edge pEdge, GraphicsContext pGraphics)
+	public void draw(Edge pEdge, RenderingSurface pGraphics)
 	{
 		ToolGraphics.strokeSharpPath(pGraphics, (Path) getShape(pEdge), LineStyle.SOLID);
 		Line connectionPoints = getConnectionPoints(pEdge);
@@ -145,7 +155,7 @@ public final class ObjectReferenceEdgeViewer extends AbstractEdgeViewer
 	public Canvas createIcon(Edge pEdge)
 	{   //CSOFF: Magic numbers
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		RenderingSurface graphics = new CanvasRenderingSurface(canvas.getGraphicsContext2D());
 		graphics.scale(0.6, 0.6);
 		Path path = getCShape(new Line(new Point(5, 5), new Point(15,25)));
 		ToolGraphics.strokeSharpPath(graphics, path, LineStyle.SOLID);
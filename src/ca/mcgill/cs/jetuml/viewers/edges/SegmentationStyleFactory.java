@@ -23,13 +23,16 @@ package ca.mcgill.cs.jetuml.viewers.edges;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
-import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge.Type;
 import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
@@ -55,6 +58,8 @@ public final class SegmentationStyleFactory
 	private static final int MARGIN = 20;
 	private static final int MIN_SEGMENT = 10;
 	private static final int MAX_NUDGE = 11;
+	
+	private static final AttachedEdgesCache<Slots> SLOTS = new AttachedEdgesCache<>(SegmentationStyleFactory::computeSlots);
 
 	private SegmentationStyleFactory(){}
 	
@@ -227,14 +232,7 @@ public final class SegmentationStyleFactory
 	private static boolean hasSelfEdge(Node pNode)
 	{
 		assert pNode.getDiagram().isPresent();
-		for( Edge edge : pNode.getDiagram().get().edgesConnectedTo(pNode))
-		{
-			if( edge.getStart() == edge.getEnd())
-			{
-				return true;
-			}
-		}
-		return false;
+		return SLOTS.get(pNode).aHasSelfEdge;
 	}
 	
 	/**
@@ -250,88 +248,83 @@ public final class SegmentationStyleFactory
 	private static Position computePosition(Edge pEdge, Side pStartSide, boolean pForward)
 	{
 		assert pEdge != null && pStartSide != null && pEdge.getDiagram() != null;
-		Node tempTarget = pEdge.getStart();
+		Node target = pEdge.getStart();
 		if( !pForward )
 		{
-			tempTarget = pEdge.getEnd();
-		}
-		final Node target = tempTarget;
-		List<Edge> edgesOnSelectedSide = getAllEdgesForSide(target, pStartSide);
-		sortPositions(edgesOnSelectedSide, target, pStartSide);
-		
-		// Group identical edge ends
-		List<Edge> finalPositions = new ArrayList<>();
-		int index = -1;
-		for( Edge edge : edgesOnSelectedSide )
-		{
-			int aggregated = -1;
-			for( Edge classifiedEdge : finalPositions )
-			{
-				if( canAggregate(edge, classifiedEdge, target))
-				{
-					aggregated = finalPositions.indexOf(classifiedEdge);
-					break;
-				}
-			}
-			if( aggregated < 0 )
-			{
-				finalPositions.add(edge);
-				aggregated = finalPositions.size() - 1;
-			}
-			if( edge == pEdge )
-			{
-				index = aggregated;
-			}
+			target = pEdge.getEnd();
 		}
-		return new Position(index + 1, finalPositions.size());
+		return SLOTS.get(target).getPosition(pEdge, pStartSide);
 	}
 	
-	// CSOFF:
-	private static boolean canAggregate(Edge pEdge1, Edge pEdge2, Node pTarget)
-	{
-		if( pEdge1.getEnd() == pTarget && pEdge2.getEnd() == pTarget &&
-				pEdge1 instanceof GeneralizationEdge && pEdge2 instanceof GeneralizationEdge &&
-				((GeneralizationEdge)pEdge1).getType() == ((GeneralizationEdge)pEdge2).getType())
-		{
-			return true;
-		}
-		else if( pEdge1.getStart() == pTarget && pEdge2.getStart() == pTarget && 
-				pEdge1 instanceof AggregationEdge && pEdge2 instanceof AggregationEdge &&
-				((AggregationEdge)pEdge1).getType() == Type.Aggregation &&
-				((AggregationEdge)pEdge2).getType() == Type.Aggregation)
-		{
-			return true;
-		}
-		else if( pEdge1.getStart() == pTarget && pEdge2.getStart() == pTarget && 
-				pEdge1 instanceof AggregationEdge && pEdge2 instanceof AggregationEdge &&
-				((AggregationEdge)pEdge1).getType() == Type.Composition &&
-				((AggregationEdge)pEdge2).getType() == Type.Composition)
-		{
-			return true;
-		}
-		else
-		{
-			return false;
-		}
-	} // CSON:
-	
-	private static List<Edge> getAllEdgesForSide(Node pTarget, Side pSide)
+	/*
+	 * Assigns a slot to each class relationship edge attached to a side of pTarget. 
+	 * The edges on a side are sorted by the position of the node at their other end, 
+	 * and edges that can be aggregated share the slot of the first one of them.
+	 */
+	private static Slots computeSlots(Node pTarget)
 	{
 		assert pTarget.getDiagram().isPresent();
-		List<Edge> edgesOnSelectedSide = new ArrayList<>();
+		Slots slots = new Slots();
+		Map<Side, List<Edge>> edgesBySide = new EnumMap<>(Side.class);
 		for( Edge edge : pTarget.getDiagram().get().edgesConnectedTo(pTarget))
 		{
 			if( otherNode(edge, pTarget) == pTarget)
 			{
+				slots.aHasSelfEdge = true;
 				continue; // Do not count self-edges
 			}
 			if( !(isClassRelationshipEdge(edge)))
 			{
 				continue;
 			}
-			getAttachedSide(edge, pTarget).filter( side -> side == pSide ).ifPresent( side -> edgesOnSelectedSide.add(edge) );
+			getAttachedSide(edge, pTarget).ifPresent( side -> 
+				edgesBySide.computeIfAbsent(side, key -> new ArrayList<>()).add(edge) );
 		}
-		return edgesOnSelectedSide;
+		for( Map.Entry<Side, List<Edge>> side : edgesBySide.entrySet() )
+		{
+			sortPositions(side.getValue(), pTarget, side.getKey());
+			Map<Edge, Integer> indices = new IdentityHashMap<>();
+			Map<Enum<?>, Integer> aggregated = new HashMap<>();
+			int total = 0;
+			for( Edge edge : side.getValue() )
+			{
+				Optional<Enum<?>> key = getAggregationKey(edge, pTarget);
+				if( key.isPresent() && aggregated.containsKey(key.get()) )
+				{
+					indices.put(edge, aggregated.get(key.get()));
+				}
+				else
+				{
+					indices.put(edge, total);
+					if( key.isPresent() )
+					{
+						aggregated.put(key.get(), total);
+					}
+					total++;
+				}
+			}
+			slots.aIndices.put(side.getKey(), indices);
+			slots.aTotals.put(side.getKey(), total);
+		}
+		return slots;
+	}
+	
+	/*
+	 * Returns the type shared by the edges that can be aggregated with pEdge at
+	 * pTarget: generalizations of the same type that end at pTarget, and aggregations
+	 * or compositions that start at pTarget.
+	 */
+	private static Optional<Enum<?>> getAggregationKey(Edge pEdge, Node pTarget)
+	{
+		if( pEdge.getEnd() == pTarget && pEdge instanceof GeneralizationEdge )
+		{
+			return Optional.of(((GeneralizationEdge)pEdge).getType());
+		}
+		else if( pEdge.getStart() == pTarget && pEdge instanceof AggregationEdge )
+		{
+			return Optional.of(((AggregationEdge)pEdge).getType());
+		}
+		return Optional.empty();
 	}
 	
 	private static boolean isClassRelationshipEdge(Edge pEdge)
@@ -674,6 +667,25 @@ public final class SegmentationStyleFactory
 		}
 	}
 	
+	/*
+	 * The slots of the edges attached to each side of a node.
+	 */
+	private static final class Slots
+	{
+		private final Map<Side, Map<Edge, Integer>> aIndices = new EnumMap<>(Side.class);
+		private final Map<Side, Integer> aTotals = new EnumMap<>(Side.class);
+		private boolean aHasSelfEdge;
+		
+		/*
+		 * An edge that is not attached to pSide gets index 0.
+		 */
+		Position getPosition(Edge pEdge, Side pSide)
+		{
+			Map<Edge, Integer> indices = aIndices.getOrDefault(pSide, Collections.emptyMap());
+			return new Position(indices.getOrDefault(pEdge, -1) + 1, aTotals.getOrDefault(pSide, 0));
+		}
+	}
+	
 	/** 
 	 * Indicates the total number of connection points
 	 * on the side of a rectangular node, and the index
@@ -23,20 +23,23 @@ package ca.mcgill.cs.jetuml.viewers.edges;
 import java.util.function.Function;
 
 import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.geom.BoundsAccumulator;
 import ca.mcgill.cs.jetuml.geom.Conversions;
 import ca.mcgill.cs.jetuml.geom.Dimension;
+import ca.mcgill.cs.jetuml.geom.GeomUtils;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.views.ArrowHead;
+import ca.mcgill.cs.jetuml.views.CanvasRenderingSurface;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.StringViewer.Alignment;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
@@ -50,6 +53,8 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 	private static final StringViewer TOP_CENTERED_STRING_VIEWER = StringViewer.get(Alignment.TOP_CENTER);
 	private static final StringViewer BOTTOM_CENTERED_STRING_VIEWER = StringViewer.get(Alignment.BOTTOM_CENTER);
 	private static final StringViewer LEFT_JUSTIFIED_STRING_VIEWER = StringViewer.get(Alignment.TOP_LEFT);
+	// Larger than the length of the largest arrowhead, the diamond, plus MAX_DISTANCE
+	private static final int ARROW_HEAD_REACH = 25;
 			
 	private Function<Edge, LineStyle> aLineStyleExtractor;
 	private Function<Edge, ArrowHead> aArrowStartExtractor;
@@ -57,7 +62,7 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 	private Function<Edge, String> aStartLabelExtractor;
 	private Function<Edge, String> aMiddleLabelExtractor;
 	private Function<Edge, String> aEndLabelExtractor;
-	private SegmentationStyle aStyle;
+	private final EdgeGeometryCache<Route> aRouteCache;
 	
 	/**
 	 * @param pStyle The segmentation style.
@@ -72,7 +77,7 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 			Function<Edge, ArrowHead> pEnd, Function<Edge, String> pStartLabelExtractor, 
 			Function<Edge, String> pMiddleLabelExtractor, Function<Edge, String> pEndLabelExtractor)
 	{
-		aStyle = pStyle;
+		aRouteCache = new EdgeGeometryCache<>(edge -> new Route(pStyle.getPath(edge)));
 		aLineStyleExtractor = pLineStyle;
 		aArrowStartExtractor = pStart;
 		aArrowEndExtractor = pEnd;
@@ -89,7 +94,7 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 	 * @param pString the string to draw 
 	 * @param pCenter true if the string should be centered along the segment
 	 */
-	private static void drawString(GraphicsContext pGraphics, Point2D pEndPoint1, Point2D pEndPoint2, 
+	private static void drawString(RenderingSurface pGraphics, Point2D pEndPoint1, Point2D pEndPoint2, 
 			ArrowHead pArrowHead, String pString, boolean pCenter)
 	{
 		if (pString == null || pString.length() == 0)
@@ -115,10 +120,11 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 	}
 	
 	@Override
-	public void draw(Edge pEdge, GraphicsContext pGraphics)
+	public void draw(Edge pEdge, RenderingSurface pGraphics)
 	{
-		Point2D[] points = getPoints(pEdge);		
-		ToolGraphics.strokeSharpPath(pGraphics, getSegmentPath(pEdge), aLineStyleExtractor.apply(pEdge));
+		Route route = aRouteCache.get(pEdge);
+		Point2D[] points = route.aPoints;
+		ToolGraphics.strokeSharpPath(pGraphics, route.aPath, aLineStyleExtractor.apply(pEdge));
 		aArrowStartExtractor.apply(pEdge).view().draw(pGraphics, 
 				Conversions.toPoint(points[1]), 
 				Conversions.toPoint(points[0]));
@@ -197,9 +203,12 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 		return new Point2D(attach.getX() + xoff, attach.getY() + yoff);
 	}
 	
+	/*
+	 * The returned array is shared and must not be modified.
+	 */
 	private Point2D[] getPoints(Edge pEdge)
 	{
-		return aStyle.getPath(pEdge);
+		return aRouteCache.get(pEdge).aPoints;
 	}
 
 	@Override
@@ -213,8 +222,8 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 	@Override
 	protected Shape getShape(Edge pEdge)
 	{
-		Path path = getSegmentPath(pEdge);
 		Point2D[] points = getPoints(pEdge);
+		Path path = createSegmentPath(points);
 		path.getElements().addAll(aArrowStartExtractor.apply(pEdge).view().getPath(
 				Conversions.toPoint(points[1]),
 				Conversions.toPoint(points[0])).getElements());
@@ -224,16 +233,45 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 		return path;
 	}
 
-	private Path getSegmentPath(Edge pEdge)
+	/*
+	 * The segments are tested geometrically. The shape of the arrowheads is only 
+	 * built when the point is close enough to the end of the path to be on it.
+	 */
+	@Override
+	protected boolean isNearPath(Edge pEdge, Point pPoint)
 	{
 		Point2D[] points = getPoints(pEdge);
+		for( int i = 1; i < points.length; i++ )
+		{
+			if( GeomUtils.distanceToSegment(pPoint, points[i-1].getX(), points[i-1].getY(), 
+					points[i].getX(), points[i].getY()) <= MAX_DISTANCE )
+			{
+				return true;
+			}
+		}
+		return isNearArrowHead(aArrowStartExtractor.apply(pEdge), points[1], points[0], pPoint) ||
+				isNearArrowHead(aArrowEndExtractor.apply(pEdge), points[points.length - 2], points[points.length - 1], pPoint);
+	}
+	
+	private static boolean isNearArrowHead(ArrowHead pArrowHead, Point2D pAxis, Point2D pEnd, Point pPoint)
+	{
+		if( pArrowHead == ArrowHead.NONE || 
+				Math.hypot(pPoint.getX() - pEnd.getX(), pPoint.getY() - pEnd.getY()) > ARROW_HEAD_REACH )
+		{
+			return false;
+		}
+		return isNearShape(pArrowHead.view().getPath(Conversions.toPoint(pAxis), Conversions.toPoint(pEnd)), pPoint);
+	}
+	
+	private static Path createSegmentPath(Point2D[] pPoints)
+	{
 		Path path = new Path();
-		Point2D p = points[points.length - 1];
+		Point2D p = pPoints[pPoints.length - 1];
 		MoveTo moveTo = new MoveTo((float) p.getX(), (float) p.getY());
 		path.getElements().add(moveTo);
-		for(int i = points.length - 2; i >= 0; i--)
+		for(int i = pPoints.length - 2; i >= 0; i--)
 		{
-			p = points[i];
+			p = pPoints[i];
 			LineTo lineTo = new LineTo((float) p.getX(), (float) p.getY());
 			path.getElements().add(lineTo);
 		}
@@ -268,27 +306,61 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 	public Rectangle getBounds(Edge pEdge)
 	{
 		Point2D[] points = getPoints(pEdge);
-		Rectangle bounds = super.getBounds(pEdge);
-		bounds = bounds.add(getStringBounds(points[1], points[0], 
-				aArrowStartExtractor.apply(pEdge), aStartLabelExtractor.apply(pEdge), false));
-		bounds = bounds.add(getStringBounds(points[points.length / 2 - 1], 
-				points[points.length / 2], null, aMiddleLabelExtractor.apply(pEdge), true));
-		bounds = bounds.add(getStringBounds(points[points.length - 2], points[points.length - 1], 
-				aArrowEndExtractor.apply(pEdge), aEndLabelExtractor.apply(pEdge), false));
-		return bounds;
+		BoundsAccumulator bounds = new BoundsAccumulator().add(super.getBounds(pEdge));
+		addStringBounds(bounds, points[1], points[0], 
+				aArrowStartExtractor.apply(pEdge), aStartLabelExtractor.apply(pEdge), false);
+		addStringBounds(bounds, points[points.length / 2 - 1], 
+				points[points.length / 2], null, aMiddleLabelExtractor.apply(pEdge), true);
+		addStringBounds(bounds, points[points.length - 2], points[points.length - 1], 
+				aArrowEndExtractor.apply(pEdge), aEndLabelExtractor.apply(pEdge), false);
+		return bounds.toRectangle();
+	}
+	
+	/*
+	 * Same as getStringBounds, but only adds the end point of the segment
+	 * when there is no string to draw.
+	 */
+	private static void addStringBounds(BoundsAccumulator pBounds, Point2D pEndPoint1, Point2D pEndPoint2, 
+			ArrowHead pArrow, String pString, boolean pCenter)
+	{
+		if (pString == null || pString.isEmpty())
+		{
+			pBounds.add((int)Math.round(pEndPoint2.getX()), (int)Math.round(pEndPoint2.getY()));
+		}
+		else
+		{
+			pBounds.add(getStringBounds(pEndPoint1, pEndPoint2, pArrow, pString, pCenter));
+		}
 	}
 	
 	@Override
 	public Canvas createIcon(Edge pEdge) 
 	{
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
+		RenderingSurface graphics = new CanvasRenderingSurface(canvas.getGraphicsContext2D());
 		Path path = new Path();
 		path.getElements().addAll(new MoveTo(OFFSET, OFFSET), new LineTo(BUTTON_SIZE-OFFSET, BUTTON_SIZE-OFFSET));
-		ToolGraphics.strokeSharpPath(canvas.getGraphicsContext2D(), path, aLineStyleExtractor.apply(pEdge));
-		aArrowEndExtractor.apply(pEdge).view().draw(canvas.getGraphicsContext2D(), 
+		ToolGraphics.strokeSharpPath(graphics, path, aLineStyleExtractor.apply(pEdge));
+		aArrowEndExtractor.apply(pEdge).view().draw(graphics, 
 				new Point(OFFSET, OFFSET), new Point(BUTTON_SIZE-OFFSET, BUTTON_SIZE - OFFSET));
-		aArrowStartExtractor.apply(pEdge).view().draw(canvas.getGraphicsContext2D(), 
+		aArrowStartExtractor.apply(pEdge).view().draw(graphics, 
 				new Point(BUTTON_SIZE-OFFSET, BUTTON_SIZE - OFFSET), new Point(OFFSET, OFFSET));
 		return canvas;
 	}
+	
+	/**
+	 * The points of the path of an edge, computed by its segmentation
+	 * style, and the path that joins them.
+	 */
+	private static final class Route
+	{
+		private final Point2D[] aPoints;
+		private final Path aPath;
+		
+		Route(Point2D[] pPoints)
+		{
+			aPoints = pPoints;
+			aPath = createSegmentPath(pPoints);
+		}
+	}
 }
@@ -25,19 +25,21 @@ import ca.mcgill.cs.jetuml.diagram.edges.StateTransitionEdge;
 import ca.mcgill.cs.jetuml.geom.Conversions;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Direction;
+import ca.mcgill.cs.jetuml.geom.GeomUtils;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
 import ca.mcgill.cs.jetuml.views.ArrowHead;
+import ca.mcgill.cs.jetuml.views.CanvasRenderingSurface;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import ca.mcgill.cs.jetuml.views.StringViewer.Alignment;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Arc;
 import javafx.scene.shape.ArcType;
@@ -55,6 +57,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	private static final int DEGREES_5 = 5;
 	private static final int DEGREES_10 = 10;
 	private static final int DEGREES_20 = 20;
+	private static final int DEGREES_45 = 45;
 	private static final int DEGREES_270 = 270;
 	private static final double LINE_WIDTH = 0.6;
 	
@@ -67,7 +70,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	private static final int VERTICAL_TOLERANCE = 20; 
 	
 	@Override
-	public void draw(Edge pEdge, GraphicsContext pGraphics)
+	public void draw(Edge pEdge, RenderingSurface pGraphics)
 	{
 		if(isSelfEdge(pEdge))
 		{
@@ -82,7 +85,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		drawArrowHead(pEdge, pGraphics);
 	}
 	
-	private void drawArrowHead(Edge pEdge, GraphicsContext pGraphics)
+	private void drawArrowHead(Edge pEdge, RenderingSurface pGraphics)
 	{
 		if( isSelfEdge(pEdge) )
 		{
@@ -108,7 +111,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	 *  Draws the label.
 	 *  @param pGraphics2D the graphics context
 	 */
-	private void drawLabel(StateTransitionEdge pEdge, GraphicsContext pGraphics)
+	private void drawLabel(StateTransitionEdge pEdge, RenderingSurface pGraphics)
 	{
 		String label = wrapLabel(pEdge);
 		Rectangle2D labelBounds = getLabelBounds(pEdge);
@@ -118,7 +121,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		STRING_VIEWER.draw(label, pGraphics, drawingRectangle);
 	}
 	
-	private void drawSelfEdge(Edge pEdge, GraphicsContext pGraphics)
+	private void drawSelfEdge(Edge pEdge, RenderingSurface pGraphics)
 	{
 		Arc arc = (Arc) getShape(pEdge);
 		double width = pGraphics.getLineWidth();
@@ -302,15 +305,49 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	@Override
 	public boolean contains(Edge pEdge, Point pPoint)
 	{
-		boolean result = super.contains(pEdge, pPoint);
-		if (getShape(pEdge) instanceof Arc)
+		if( isSelfEdge(pEdge) )
+		{
+			return isInSelfEdgeArc(pEdge, pPoint);
+		}
+		return super.contains(pEdge, pPoint);
+	}
+	
+	@Override
+	protected boolean isNearPath(Edge pEdge, Point pPoint)
+	{
+		Line line = getConnectionPoints(pEdge);
+		Point2D control = getControlPoint(pEdge);
+		return GeomUtils.distanceToQuadCurve(pPoint, line.getX1(), line.getY1(), control.getX(), control.getY(), 
+				line.getX2(), line.getY2()) <= MAX_DISTANCE;
+	}
+	
+	/*
+	 * Tests whether the arc of getSelfEdgeShape, with its radius increased by 2 * MAX_DISTANCE,
+	 * contains pPoint, without building the arc. Because the arc is open and filled, it contains 
+	 * the points of its disk that are not beyond the chord that closes the 90-degree gap of the arc.
+	 * Arc angles are counterclockwise, with the y axis pointing up.
+	 */
+	private boolean isInSelfEdgeArc(Edge pEdge, Point pPoint)
+	{
+		Line line = getSelfEdgeConnectionPoints(pEdge);
+		double centerX = line.getX1() - SELF_EDGE_OFFSET;
+		double centerY = line.getY1() - SELF_EDGE_OFFSET * 2;
+		double startAngle = 1;
+		if( getPosition(pEdge) == 1 )
+		{
+			centerX = line.getX1();
+			centerY = line.getY1() - SELF_EDGE_OFFSET;
+			startAngle = DEGREES_270;
+		}
+		double radius = SELF_EDGE_OFFSET * 2 + 2 * MAX_DISTANCE;
+		double dx = pPoint.getX() - centerX;
+		double dy = pPoint.getY() - centerY;
+		if( dx * dx + dy * dy > radius * radius )
 		{
-			Arc arc = (Arc) getShape(pEdge);
-			arc.setRadiusX(arc.getRadiusX() + 2 * MAX_DISTANCE);
-			arc.setRadiusY(arc.getRadiusY() + 2 * MAX_DISTANCE);
-			result = arc.contains(pPoint.getX(), pPoint.getY());
+			return false;
 		}
-		return result;
+		double gapBisector = Math.toRadians(startAngle + DEGREES_270 + DEGREES_45);
+		return dx * Math.cos(gapBisector) - dy * Math.sin(gapBisector) <= radius * Math.cos(Math.toRadians(DEGREES_45));
 	}
 	
 	/** 
@@ -434,7 +471,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	public Canvas createIcon(Edge pEdge)
 	{   //CSOFF: Magic numbers
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		RenderingSurface graphics = new CanvasRenderingSurface(canvas.getGraphicsContext2D());
 		graphics.scale(0.6, 0.6);
 		Line line = new Line(new Point(2,2), new Point(40,40));
 		final double tangent = Math.tan(Math.toRadians(DEGREES_10));
@@ -27,10 +27,11 @@ import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.CanvasRenderingSurface;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.StringViewer.Alignment;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
 /**
@@ -49,7 +50,7 @@ public final class FieldNodeViewer extends AbstractNodeViewer
 	private static final ObjectNodeViewer OBJECT_NODE_VIEWER = new ObjectNodeViewer();
 	
 	@Override
-	public void draw(Node pNode, GraphicsContext pGraphics)
+	public void draw(Node pNode, RenderingSurface pGraphics)
 	{
 		final Rectangle bounds = getBounds(pNode);
 		final int split = getSplitPosition(pNode);
@@ -78,7 +79,6 @@ public final class FieldNodeViewer extends AbstractNodeViewer
 	@Override
 	public Rectangle getBounds(Node pNode)
 	{
-		final int leftWidth = leftWidth(pNode);
 		final int height = getHeight(pNode);
 		if( pNode.hasParent() )
 		{
@@ -86,6 +86,7 @@ public final class FieldNodeViewer extends AbstractNodeViewer
 			Rectangle parentBounds = OBJECT_NODE_VIEWER.getBounds(pNode.getParent());
 			return new Rectangle(parentBounds.getX() + XGAP, yPosition, parentBounds.getWidth() - 2*XGAP, height);
 		}
+		final int leftWidth = leftWidth(pNode);
 		return new Rectangle(DEFAULT_WIDTH / 2 - leftWidth, 0, leftWidth + rightWidth(pNode), height);
 	}
 	
@@ -145,7 +146,7 @@ public final class FieldNodeViewer extends AbstractNodeViewer
 		double scaleY = (BUTTON_SIZE - OFFSET)/ (double) height;
 		double scale = Math.min(scaleX, scaleY);
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		RenderingSurface graphics = new CanvasRenderingSurface(canvas.getGraphicsContext2D());
 		graphics.scale(scale, scale);
 		graphics.translate(Math.max((height - width) / 2, 0), 0);
 		graphics.setFill(Color.WHITE);
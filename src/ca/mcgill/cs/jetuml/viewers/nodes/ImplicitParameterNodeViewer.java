@@ -22,40 +22,36 @@ package ca.mcgill.cs.jetuml.viewers.nodes;
 
 import static ca.mcgill.cs.jetuml.geom.GeomUtils.max;
 
-import java.util.List;
 import java.util.Optional;
 
-import ca.mcgill.cs.jetuml.diagram.ControlFlow;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.Node;
-import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.StringViewer.Alignment;
 import ca.mcgill.cs.jetuml.views.StringViewer.TextDecoration;
 import ca.mcgill.cs.jetuml.views.ViewUtils;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * An object to render an implicit parameter in a Sequence diagram.
  */
 public final class ImplicitParameterNodeViewer extends AbstractNodeViewer
 {
+	static final int DEFAULT_HEIGHT = 120;
+	static final int TAIL_HEIGHT = 20; // Piece of the life line below the last call node
+	static final int TOP_HEIGHT = 60;
+	static final int Y_GAP_SMALL = 20; 
 	private static final int DEFAULT_WIDTH = 80;
-	private static final int DEFAULT_HEIGHT = 120;
 	private static final int HORIZONTAL_PADDING = 10; // 2x the left and right padding around the name of the implicit parameter
-	private static final int TAIL_HEIGHT = 20; // Piece of the life line below the last call node
-	private static final int TOP_HEIGHT = 60;
-	private static final int Y_GAP_SMALL = 20; 
 	private static final StringViewer NAME_VIEWER = StringViewer.get(Alignment.CENTER_CENTER, TextDecoration.PADDED, TextDecoration.UNDERLINED);
-	private static final CallNodeViewer CALL_NODE_VIEWER = new CallNodeViewer();
 	
 	@Override
-	public void draw(Node pNode, GraphicsContext pGraphics)
+	public void draw(Node pNode, RenderingSurface pGraphics)
 	{
 		Rectangle top = getTopRectangle(pNode);
 		ViewUtils.drawRectangle(pGraphics, top);
@@ -108,9 +104,10 @@ public final class ImplicitParameterNodeViewer extends AbstractNodeViewer
 		int width = Math.max(NAME_VIEWER.getDimension(((ImplicitParameterNode)pNode).getName()).width()+ 
 				HORIZONTAL_PADDING, DEFAULT_WIDTH);
 		int yVal = 0;
-		if( isInConstructorCall(pNode) )
+		Optional<Diagram> diagram = pNode.getDiagram();
+		if( diagram.isPresent() )
 		{
-			yVal = getYWithConstructorCall(pNode);
+			yVal = SequenceDiagramLayout.of(diagram.get()).getTopY(pNode);
 		}
 		return new Rectangle(pNode.position().getX(), yVal, width, TOP_HEIGHT);
 	}
@@ -124,59 +121,4 @@ public final class ImplicitParameterNodeViewer extends AbstractNodeViewer
 		int height = max(DEFAULT_HEIGHT, childrenMaxXY.getY() + TAIL_HEIGHT) - topRectangle.getY();	
 		return new Rectangle(pNode.position().getX(), topRectangle.getY(), width, height);
 	}
-	
-	private int getYWithConstructorCall(Node pNode) 
-	{
-		assert isInConstructorCall(pNode);
-		ControlFlow controlFlow = new ControlFlow(pNode.getDiagram().get());
-		CallNode child = (CallNode) getFirstChild(pNode).get();
-		// If the node is the first callee, set a fix distance from its caller
-		if( controlFlow.isFirstCallee(child) )
-		{
-			CallNode caller = controlFlow.getCaller(child).get(); 
-			return CALL_NODE_VIEWER.getY(caller) + Y_GAP_SMALL;
-		}
-		Node prevCallee = controlFlow.getPreviousCallee(child);
-		// If the node is not the first callee but the previous callee is in constructor call
-		if( controlFlow.isConstructorExecution(prevCallee) )
-		{
-			// Returns a fixed distance from the bound of the previous callee's parent
-			return getBounds(prevCallee.getParent()).getMaxY();
-		}
-		else
-		{
-			// Returns a fixed distance from the previous callee
-			return CALL_NODE_VIEWER.getMaxY(prevCallee) + Y_GAP_SMALL;
-		}
-	}
-
-	/*
-	 * Returns true if the ImplicitParameterNode is in the constructor call
-	 */
-	private boolean isInConstructorCall(Node pNode) 
-	{
-		Optional<Diagram> diagram = pNode.getDiagram();
-		if(diagram.isPresent())
-		{
-			ControlFlow flow = new ControlFlow(diagram.get());
-			Optional<Node> child = getFirstChild(pNode);
-			return child.isPresent() && flow.isConstructorExecution(child.get());
-		}	
-		return false;
-	}
-	
-	/*
-	 * Returns the Optional of the first child node of the ImplicitParameterNode if exists;
-	 * otherwise, returns Optional.empty().
-	 */
-	private Optional<Node> getFirstChild(Node pNode)
-	{
-		assert pNode!=null;
-		List<Node> children = pNode.getChildren();
-		if(!children.isEmpty()) 
-		{
-			return Optional.of(children.get(0));
-		}
-		return Optional.empty();
-	}
 }
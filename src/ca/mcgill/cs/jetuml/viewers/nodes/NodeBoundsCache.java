@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.nodes;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
+import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ObjectNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.GeometryCache;
+
+/**
+ * Caches the bounds of nodes. The bounds of a node depend on its position 
+ * and properties. In addition:
+ * - the bounds of a package depend on the bounds of its children;
+ * - the bounds of an object depend on the name and value of its fields;
+ * - the bounds of a field depend on its object and on the other fields of the object;
+ * - the bounds of a call node depend on its implicit parameter node;
+ * - the bounds of call nodes and implicit parameter nodes depend on the 
+ *   structure of their sequence diagram.
+ */
+final class NodeBoundsCache extends GeometryCache<Node, Rectangle>
+{
+	NodeBoundsCache(Function<Node, Rectangle> pBoundsFunction)
+	{
+		super(pBoundsFunction);
+	}
+
+	@Override
+	protected Optional<Diagram> diagramOf(Node pNode)
+	{
+		return pNode.getDiagram();
+	}
+
+	@Override
+	protected boolean isIn(Node pNode, Diagram pDiagram)
+	{
+		return pNode.getDiagram().isPresent() && pNode.getDiagram().get() == pDiagram;
+	}
+
+	@Override
+	protected void recordInputs(Node pNode, Consumer<Object> pInputs)
+	{
+		recordOwnInputs(pNode, pInputs);
+		if( pNode instanceof CallNode || pNode instanceof ImplicitParameterNode )
+		{
+			pInputs.accept(pNode.getDiagram().get().getStructuralRevision());
+		}
+		if( pNode instanceof CallNode && pNode.hasParent() )
+		{
+			recordOwnInputs(pNode.getParent(), pInputs);
+		}
+		else if( pNode instanceof FieldNode && pNode.hasParent() )
+		{
+			recordOwnInputs(pNode.getParent(), pInputs);
+			recordChildrenInputs(pNode.getParent(), pInputs);
+		}
+		else if( pNode instanceof ObjectNode )
+		{
+			recordChildrenInputs(pNode, pInputs);
+		}
+		else if( pNode instanceof PackageNode )
+		{
+			for( Node child : pNode.getChildren() )
+			{
+				pInputs.accept(child);
+				pInputs.accept(NodeViewerRegistry.getBounds(child));
+			}
+		}
+	}
+	
+	private static void recordChildrenInputs(Node pNode, Consumer<Object> pInputs)
+	{
+		for( Node child : pNode.getChildren() )
+		{
+			recordOwnInputs(child, pInputs);
+		}
+	}
+	
+	private static void recordOwnInputs(Node pNode, Consumer<Object> pInputs)
+	{
+		pInputs.accept(pNode);
+		pInputs.accept(pNode.position());
+		for( Property property : pNode.properties() )
+		{
+			pInputs.accept(property.get());
+		}
+	}
+}
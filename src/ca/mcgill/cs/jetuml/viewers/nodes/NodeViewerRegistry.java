@@ -41,8 +41,8 @@ import ca.mcgill.cs.jetuml.diagram.nodes.UseCaseNode;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Keeps track of the association between a node type and the viewer
@@ -54,6 +54,7 @@ public final class NodeViewerRegistry
 	
 	private IdentityHashMap<Class<? extends Node>, NodeViewer> aRegistry = 
 			new IdentityHashMap<>();
+	private final NodeBoundsCache aBoundsCache = new NodeBoundsCache(pNode -> viewerFor(pNode).getBounds(pNode));
 	
 	private NodeViewerRegistry() 
 	{
@@ -113,7 +114,7 @@ public final class NodeViewerRegistry
      * @param pGraphics the graphics context
      * @pre pNode != null
 	 */
-   	public static void draw(Node pNode, GraphicsContext pGraphics)
+   	public static void draw(Node pNode, RenderingSurface pGraphics)
    	{
    		INSTANCE.viewerFor(pNode).draw(pNode, pGraphics);
    	}
@@ -124,7 +125,7 @@ public final class NodeViewerRegistry
      * @param pGraphics the graphics context
      * @pre pNode != null && pGraphics != null
 	 */
-   	public static void drawSelectionHandles(Node pNode, GraphicsContext pGraphics)
+   	public static void drawSelectionHandles(Node pNode, RenderingSurface pGraphics)
    	{
    		INSTANCE.viewerFor(pNode).drawSelectionHandles(pNode, pGraphics);
    	}
@@ -132,13 +133,15 @@ public final class NodeViewerRegistry
 	/**
      * Gets the smallest rectangle that bounds pNode.
      * The bounding rectangle contains all labels.
+     * The bounds of a node in a diagram are cached and only recomputed
+     * when its position, properties, or the elements it depends on change.
      * @param pNode The node whose bounds we wish to compute.
      * @return the bounding rectangle
      * @pre pNode != null
    	 */
 	public static Rectangle getBounds(Node pNode)
 	{
-		return INSTANCE.viewerFor(pNode).getBounds(pNode);
+		return INSTANCE.aBoundsCache.get(pNode);
 	}
 	
   	/**
@@ -20,21 +20,35 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.viewers.nodes;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
 import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ObjectNode;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.GeometryCache;
 import ca.mcgill.cs.jetuml.views.Grid;
 import ca.mcgill.cs.jetuml.views.LineStyle;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.StringViewer.Alignment;
 import ca.mcgill.cs.jetuml.views.StringViewer.TextDecoration;
 import ca.mcgill.cs.jetuml.views.ViewUtils;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * An object to render an object in an object diagram.
+ * 
+ * The split position, the position of each field, and the bounds of an 
+ * object are computed together in a single pass over its fields. For objects
+ * in a diagram, this layout is reused for as long as the name of the object 
+ * and the fields and their properties do not change, so that the fields of an
+ * object can be drawn without measuring the text of their siblings again.
  */
 public final class ObjectNodeViewer extends AbstractNodeViewer
 {
@@ -46,27 +60,21 @@ public final class ObjectNodeViewer extends AbstractNodeViewer
 	private static final StringViewer NAME_VIEWER = StringViewer.get(Alignment.CENTER_CENTER, 
 			TextDecoration.BOLD, TextDecoration.UNDERLINED, TextDecoration.PADDED);
 	private static final FieldNodeViewer FIELD_NODE_VIEWER = new FieldNodeViewer();
+	private static final LayoutCache LAYOUTS = new LayoutCache();
 	
 	@Override
-	public void draw(Node pNode, GraphicsContext pGraphics)
+	public void draw(Node pNode, RenderingSurface pGraphics)
 	{
-		final Rectangle bounds = getBounds(pNode);
-		final Rectangle topRectangle = getTopRectangle(pNode);
-		int dividerPosition = topRectangle.getMaxY();
+		final Layout layout = LAYOUTS.get(pNode);
+		final Rectangle bounds = layout.getBounds(pNode);
+		int dividerPosition = bounds.getY() + layout.aTopHeight;
 		ViewUtils.drawRectangle(pGraphics, bounds);
 		if( ((ObjectNode)pNode).getChildren().size() > 0 ) 
 		{
 			ViewUtils.drawLine(pGraphics, bounds.getX(), dividerPosition, bounds.getMaxX(), dividerPosition, LineStyle.SOLID);
 		}
 		NAME_VIEWER.draw(((ObjectNode)pNode).getName(), pGraphics, 
-				new Rectangle(bounds.getX(), bounds.getY(), bounds.getWidth(), topRectangle.getHeight()));
-	}
-	
-	private Rectangle getTopRectangle(Node pNode)
-	{
-		Dimension bounds = NAME_VIEWER.getDimension(((ObjectNode)pNode).getName() + TEXT_HORIZONTAL_MARGIN); 
-		bounds = bounds.include(DEFAULT_WIDTH, DEFAULT_HEIGHT);
-		return new Rectangle(0, 0, bounds.width(), bounds.height()).translated(pNode.position().getX(), pNode.position().getY());
+				new Rectangle(bounds.getX(), bounds.getY(), bounds.getWidth(), layout.aTopHeight));
 	}
 	
 	/**
@@ -75,34 +83,13 @@ public final class ObjectNodeViewer extends AbstractNodeViewer
 	 */
 	public int getSplitPosition(Node pNode)
 	{
-		int leftWidth = 0;
-		for(Node field : ((ObjectNode)pNode).getChildren())
-		{
-			leftWidth = Math.max(leftWidth, FIELD_NODE_VIEWER.leftWidth(field));
-		}
-		return pNode.position().getX() + leftWidth + XGAP;
+		return pNode.position().getX() + LAYOUTS.get(pNode).aSplit;
 	}
 	
 	@Override
 	public Rectangle getBounds(Node pNode)
 	{
-		Rectangle bounds = getTopRectangle(pNode);
-		int leftWidth = 0;
-		int rightWidth = 0;
-		int height = 0;
-		if( ((ObjectNode)pNode).getChildren().size() > 0 )
-		{
-			height = YGAP;
-		}
-		for(Node field : ((ObjectNode)pNode).getChildren())
-		{
-			height += FIELD_NODE_VIEWER.getHeight(field) + YGAP;   
-			leftWidth = Math.max(leftWidth, FIELD_NODE_VIEWER.leftWidth(field));
-			rightWidth = Math.max(rightWidth, FIELD_NODE_VIEWER.rightWidth(field));
-		}
-		int width = Math.max(bounds.getWidth(), leftWidth + rightWidth + 2 * XGAP);
-		width = Grid.toMultiple(width);
-		return new Rectangle(bounds.getX(), bounds.getY(), width, Grid.toMultiple(bounds.getHeight() + height));
+		return LAYOUTS.get(pNode).getBounds(pNode);
 	}
 	
 	/**
@@ -113,17 +100,90 @@ public final class ObjectNodeViewer extends AbstractNodeViewer
 	public int getYPosition(Node pNode, FieldNode pFieldNode)
 	{
 		assert ((ObjectNode)pNode).getChildren().contains(pFieldNode);
-		Rectangle bounds = getTopRectangle(pNode);
-		int yPosition = bounds.getMaxY() + YGAP; 
-		for( Node field : ((ObjectNode)pNode).getChildren() )
+		return pNode.position().getY() + LAYOUTS.get(pNode).aYOffsets.get(pFieldNode);
+	}
+	
+	/**
+	 * The geometry of an object and of its fields, relative to the position of the object.
+	 */
+	private static final class Layout
+	{
+		private final int aTopHeight;
+		private final int aWidth;
+		private final int aHeight;
+		private final int aSplit;
+		private final Map<Node, Integer> aYOffsets = new IdentityHashMap<>();
+		
+		Layout(ObjectNode pNode)
+		{
+			Dimension top = NAME_VIEWER.getDimension(pNode.getName() + TEXT_HORIZONTAL_MARGIN); 
+			top = top.include(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+			aTopHeight = top.height();
+			int leftWidth = 0;
+			int rightWidth = 0;
+			int height = 0;
+			if( pNode.getChildren().size() > 0 )
+			{
+				height = YGAP;
+			}
+			for( Node field : pNode.getChildren() )
+			{
+				aYOffsets.put(field, aTopHeight + height + YGAP);
+				height += FIELD_NODE_VIEWER.getHeight(field) + YGAP;
+				leftWidth = Math.max(leftWidth, FIELD_NODE_VIEWER.leftWidth(field));
+				rightWidth = Math.max(rightWidth, FIELD_NODE_VIEWER.rightWidth(field));
+			}
+			aSplit = leftWidth + XGAP;
+			aWidth = Grid.toMultiple(Math.max(top.width(), leftWidth + rightWidth + 2 * XGAP));
+			aHeight = Grid.toMultiple(aTopHeight + height);
+		}
+		
+		Rectangle getBounds(Node pNode)
+		{
+			return new Rectangle(pNode.position().getX(), pNode.position().getY(), aWidth, aHeight);
+		}
+	}
+	
+	/**
+	 * Caches the layout of objects. The layout is relative to the position of
+	 * the object, so it only depends on the properties of the object and of its fields.
+	 */
+	private static final class LayoutCache extends GeometryCache<Node, Layout>
+	{
+		LayoutCache()
+		{
+			super(pNode -> new Layout((ObjectNode)pNode));
+		}
+		
+		@Override
+		protected Optional<Diagram> diagramOf(Node pNode)
+		{
+			return pNode.getDiagram();
+		}
+
+		@Override
+		protected boolean isIn(Node pNode, Diagram pDiagram)
+		{
+			return pNode.getDiagram().isPresent() && pNode.getDiagram().get() == pDiagram;
+		}
+
+		@Override
+		protected void recordInputs(Node pNode, Consumer<Object> pInputs)
+		{
+			recordProperties(pNode, pInputs);
+			for( Node field : pNode.getChildren() )
+			{
+				pInputs.accept(field);
+				recordProperties(field, pInputs);
+			}
+		}
+		
+		private static void recordProperties(Node pNode, Consumer<Object> pInputs)
 		{
-			yPosition += YGAP;
-			if( field == pFieldNode )
+			for( Property property : pNode.properties() )
 			{
-				return yPosition;
+				pInputs.accept(property.get());
 			}
-			yPosition += FIELD_NODE_VIEWER.getHeight(field);
 		}
-		return yPosition;
 	}
 }
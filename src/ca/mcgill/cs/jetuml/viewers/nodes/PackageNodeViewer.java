@@ -27,6 +27,7 @@ import java.util.Optional;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.nodes.AbstractPackageNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.geom.BoundsAccumulator;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
@@ -45,20 +46,13 @@ public final class PackageNodeViewer extends AbstractPackageNodeViewer
 		{
 			return Optional.empty();
 		}
-		Rectangle childBounds = null;
+		BoundsAccumulator childBounds = new BoundsAccumulator();
 		for( Node child : ((PackageNode)pNode).getChildren() )
 		{
-			if( childBounds == null )
-			{
-				childBounds = NodeViewerRegistry.getBounds(child);
-			}
-			else
-			{
-				childBounds = childBounds.add(NodeViewerRegistry.getBounds(child));
-			}
+			childBounds.add(NodeViewerRegistry.getBounds(child));
 		}
-		assert childBounds != null;
-		return Optional.of(childBounds);
+		assert !childBounds.isEmpty();
+		return Optional.of(childBounds.toRectangle());
 	}
 	
 	/*
@@ -24,7 +24,7 @@ import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
-import javafx.scene.canvas.GraphicsContext;
+import ca.mcgill.cs.jetuml.views.RenderingSurface;
 
 /**
  * An object to render a PointNode.
@@ -52,7 +52,7 @@ public final class PointNodeViewer extends AbstractNodeViewer
 	}
 	
 	@Override
-	public void draw(Node pNode, GraphicsContext pGraphics) 
+	public void draw(Node pNode, RenderingSurface pGraphics) 
 	{
 		// Do nothing, a point is invisible.
 	}
@@ -0,0 +1,369 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.nodes;
+
+import static java.util.Collections.emptyList;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ca.mcgill.cs.jetuml.application.UserPreferences;
+import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreference;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
+import ca.mcgill.cs.jetuml.diagram.DiagramListener;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.edges.CallEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.ConstructorEdge;
+import ca.mcgill.cs.jetuml.views.StringViewer;
+import ca.mcgill.cs.jetuml.views.StringViewer.Alignment;
+import ca.mcgill.cs.jetuml.views.StringViewer.TextDecoration;
+
+/**
+ * Computes the vertical layout of the call nodes and implicit parameter nodes 
+ * of a sequence diagram. 
+ * 
+ * The control-flow relations of the diagram are indexed in a single pass over 
+ * its edges, and the vertical position of each node is then computed at most once. 
+ * A layout remains valid for as long as the structural revision of the diagram 
+ * and the font size do not change. Horizontal positions are not stored because 
+ * they depend on the position and name of implicit parameter nodes, which can
+ * change without affecting the structure of the diagram.
+ * 
+ * The most recently used layout is cached for each thread. The cache only 
+ * refers to it weakly: the layout is registered as a listener of its diagram, 
+ * which keeps it alive for as long as the diagram is, so that the layout of a 
+ * diagram that is no longer used does not keep the diagram in memory.
+ */
+final class SequenceDiagramLayout implements DiagramListener
+{
+	// Inserts gaps between call nodes so that call edge labels don't intersect
+	private static final StringViewer NODE_GAP_TESTER = StringViewer.get(Alignment.CENTER_CENTER, TextDecoration.PADDED);
+	private static final String TEST_STRING = "|";
+	private static final int MINIMUM_SHIFT_THRESHOLD = 10;
+	
+	private static final ThreadLocal<WeakReference<SequenceDiagramLayout>> CACHE = 
+			ThreadLocal.withInitial(() -> new WeakReference<>(null));
+	
+	private final Diagram aDiagram;
+	private final int aRevision;
+	private final int aFontSize;
+	private final int aShift;
+	
+	private final Map<Node, List<Node>> aCallees = new IdentityHashMap<>();
+	private final Map<Node, Node> aCallers = new IdentityHashMap<>();
+	private final Set<Node> aConstructorExecutions = Collections.newSetFromMap(new IdentityHashMap<>());
+	
+	private final Map<Node, Integer> aY = new IdentityHashMap<>();
+	private final Map<Node, Integer> aMaxY = new IdentityHashMap<>();
+	private final Map<Node, Integer> aNestingDepth = new IdentityHashMap<>();
+	private final Map<Node, Integer> aTopY = new IdentityHashMap<>();
+	
+	private SequenceDiagramLayout(Diagram pDiagram, int pFontSize)
+	{
+		aDiagram = pDiagram;
+		aRevision = pDiagram.getStructuralRevision();
+		aFontSize = pFontSize;
+		aShift = computeShift();
+		for( Edge edge : pDiagram.edges() )
+		{
+			if( edge instanceof CallEdge )
+			{
+				aCallees.computeIfAbsent(edge.getStart(), key -> new ArrayList<>()).add(edge.getEnd());
+				aCallers.putIfAbsent(edge.getEnd(), edge.getStart());
+				if( edge.getClass() == ConstructorEdge.class )
+				{
+					aConstructorExecutions.add(edge.getEnd());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the layout of pDiagram, computing it only if the diagram 
+	 * changed since the last time its layout was requested.
+	 * 
+	 * @param pDiagram The diagram to lay out.
+	 * @return The layout for pDiagram.
+	 * @pre pDiagram != null
+	 */
+	static SequenceDiagramLayout of(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		int fontSize = UserPreferences.instance().getInteger(IntegerPreference.fontSize);
+		SequenceDiagramLayout layout = CACHE.get().get();
+		if( layout == null || !layout.isValidFor(pDiagram, fontSize) )
+		{
+			if( layout != null )
+			{
+				layout.aDiagram.removeListener(layout);
+			}
+			layout = new SequenceDiagramLayout(pDiagram, fontSize);
+			pDiagram.addListener(layout);
+			CACHE.set(new WeakReference<>(layout));
+		}
+		return layout;
+	}
+	
+	/**
+	 * Does nothing: layouts are only registered with their diagram to remain 
+	 * reachable from it, and detect changes through its structural revision.
+	 * 
+	 * @param pEvent The description of the change.
+	 */
+	@Override
+	public void diagramChanged(DiagramEvent pEvent)
+	{}
+	
+	private boolean isValidFor(Diagram pDiagram, int pFontSize)
+	{
+		return aDiagram == pDiagram && aRevision == pDiagram.getStructuralRevision() && aFontSize == pFontSize;
+	}
+	
+	private static int computeShift()
+	{
+		int shift = NODE_GAP_TESTER.getDimension(TEST_STRING).height() / 3;
+		// Only apply shift if necessary
+		if( shift < MINIMUM_SHIFT_THRESHOLD )
+		{
+			shift = 0;
+		}
+		return shift;
+	}
+	
+	/*
+	 * The nodes pointed to by a call edge starting at pNode, in
+	 * the order of the call sequence.
+	 */
+	private List<Node> getCallees(Node pNode)
+	{
+		return aCallees.getOrDefault(pNode, emptyList());
+	}
+	
+	private boolean isFirstCallee(Node pCallee, Node pCaller)
+	{
+		return getCallees(pCaller).get(0) == pCallee;
+	}
+	
+	private Node getPreviousCallee(Node pCallee, Node pCaller)
+	{
+		List<Node> callees = getCallees(pCaller);
+		int index = callees.indexOf(pCallee);
+		assert index >= 1;
+		return callees.get(index - 1);
+	}
+	
+	/**
+	 * @param pNode The node to check.
+	 * @return True if pNode is at the end of a ConstructorEdge.
+	 */
+	boolean isConstructorExecution(Node pNode)
+	{
+		return aConstructorExecutions.contains(pNode);
+	}
+	
+	/**
+	 * @param pCallNode The call node to check.
+	 * @return The number of call nodes upstream in the control-flow
+	 *     that are on the same implicit parameter node.
+	 * @pre pCallNode != null
+	 */
+	int getNestingDepth(Node pCallNode)
+	{
+		assert pCallNode != null;
+		Integer depth = aNestingDepth.get(pCallNode);
+		if( depth == null )
+		{
+			int result = 0;
+			Node caller = aCallers.get(pCallNode);
+			while( caller != null )
+			{
+				if( caller.getParent() == pCallNode.getParent() )
+				{
+					result++;
+				}
+				caller = aCallers.get(caller);
+			}
+			depth = result;
+			aNestingDepth.put(pCallNode, depth);
+		}
+		return depth;
+	}
+	
+	/**
+	 * If the node has a caller, the Y coordinate is a gap below the last return Y value
+	 * of the caller or a set distance before the previous call node, whatever is lower.
+	 * If not, it's simply a set distance below the previous call node. The execution 
+	 * of a constructor is placed a fixed distance below the top rectangle of the 
+	 * constructed object.
+	 * 
+	 * @param pCallNode The call node.
+	 * @return The y-coordinate of the top of pCallNode.
+	 * @pre pCallNode != null
+	 */
+	int getY(Node pCallNode)
+	{
+		assert pCallNode != null;
+		Integer y = aY.get(pCallNode);
+		if( y == null )
+		{
+			y = computeY(pCallNode) + aShift;
+			aY.put(pCallNode, y);
+		}
+		return y;
+	}
+	
+	private int computeY(Node pCallNode)
+	{
+		if( !pCallNode.hasParent() )
+		{
+			return 0; // Only used for the ImageCreator
+		}
+		final Node implicitParameterNode = pCallNode.getParent();
+		if( isConstructorExecution(pCallNode) )
+		{
+			return getTopMaxY(implicitParameterNode) + CallNodeViewer.Y_GAP_TINY;
+		}
+		Node caller = aCallers.get(pCallNode);
+		if( caller == null )
+		{
+			return getTopMaxY(implicitParameterNode) + ImplicitParameterNodeViewer.Y_GAP_SMALL;
+		}
+		return computeYBelowCaller(pCallNode, caller);
+	}
+	
+	/*
+	 * A call node with a caller is placed a gap below its previous sibling callee,
+	 * or below the top of its caller if it is the first callee.
+	 */
+	private int computeYBelowCaller(Node pCallNode, Node pCaller)
+	{
+		if( !isFirstCallee(pCallNode, pCaller) )
+		{
+			return getMaxY(getPreviousCallee(pCallNode, pCaller)) + ImplicitParameterNodeViewer.Y_GAP_SMALL;
+		}
+		if( pCaller.getParent() == pCallNode.getParent() )
+		{
+			return getY(pCaller) + CallNodeViewer.Y_GAP_BIG; // Nested call on the same object
+		}
+		return getY(pCaller) + ImplicitParameterNodeViewer.Y_GAP_SMALL;
+	}
+	
+	/**
+	 * @param pCallNode The call node.
+	 * @return If there's no callee, returns a fixed offset from the y position.
+	 *     Otherwise, return with a gap from last callee.
+	 * @pre pCallNode != null
+	 */
+	int getMaxY(Node pCallNode)
+	{
+		assert pCallNode != null;
+		Integer maxY = aMaxY.get(pCallNode);
+		if( maxY == null )
+		{
+			List<Node> callees = getCallees(pCallNode);
+			if( callees.isEmpty() )
+			{
+				maxY = getY(pCallNode) + CallNodeViewer.DEFAULT_HEIGHT;
+			}
+			else
+			{
+				maxY = getMaxY(callees.get(callees.size() - 1)) + ImplicitParameterNodeViewer.Y_GAP_SMALL;
+			}
+			aMaxY.put(pCallNode, maxY);
+		}
+		return maxY;
+	}
+	
+	/**
+	 * Returns the y-coordinate of the top rectangle of an implicit parameter node. 
+	 * This is zero unless the object is created by a constructor call, in which case it
+	 * is placed below the call that precedes its construction.
+	 * 
+	 * @param pImplicitParameterNode The implicit parameter node.
+	 * @return The y-coordinate of the top of pImplicitParameterNode.
+	 * @pre pImplicitParameterNode != null
+	 */
+	int getTopY(Node pImplicitParameterNode)
+	{
+		assert pImplicitParameterNode != null;
+		Integer y = aTopY.get(pImplicitParameterNode);
+		if( y == null )
+		{
+			y = computeTopY(pImplicitParameterNode);
+			aTopY.put(pImplicitParameterNode, y);
+		}
+		return y;
+	}
+	
+	private int computeTopY(Node pImplicitParameterNode)
+	{
+		List<Node> children = pImplicitParameterNode.getChildren();
+		if( children.isEmpty() || !isConstructorExecution(children.get(0)) )
+		{
+			return 0;
+		}
+		Node child = children.get(0);
+		Node caller = aCallers.get(child);
+		assert caller != null;
+		// If the node is the first callee, set a fix distance from its caller
+		if( isFirstCallee(child, caller) )
+		{
+			return getY(caller) + ImplicitParameterNodeViewer.Y_GAP_SMALL;
+		}
+		Node previousCallee = getPreviousCallee(child, caller);
+		// If the node is not the first callee but the previous callee is in constructor call
+		if( isConstructorExecution(previousCallee) )
+		{
+			// Returns a fixed distance from the bound of the previous callee's parent
+			return getLifelineMaxY(previousCallee.getParent());
+		}
+		// Returns a fixed distance from the previous callee
+		return getMaxY(previousCallee) + ImplicitParameterNodeViewer.Y_GAP_SMALL;
+	}
+	
+	private int getTopMaxY(Node pImplicitParameterNode)
+	{
+		return getTopY(pImplicitParameterNode) + ImplicitParameterNodeViewer.TOP_HEIGHT;
+	}
+	
+	/**
+	 * @param pImplicitParameterNode The implicit parameter node.
+	 * @return The y-coordinate of the bottom of the life line of pImplicitParameterNode.
+	 * @pre pImplicitParameterNode != null
+	 */
+	int getLifelineMaxY(Node pImplicitParameterNode)
+	{
+		assert pImplicitParameterNode != null;
+		int childrenMaxY = 0;
+		for( Node child : pImplicitParameterNode.getChildren() )
+		{
+			childrenMaxY = Math.max(childrenMaxY, getMaxY(child));
+		}
+		return Math.max(ImplicitParameterNodeViewer.DEFAULT_HEIGHT, childrenMaxY + ImplicitParameterNodeViewer.TAIL_HEIGHT);
+	}
+}
@@ -21,17 +21,18 @@
 
 package ca.mcgill.cs.jetuml.views;
 
+import java.util.List;
 import java.util.Optional;
 
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.DiagramElement;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.geom.BoundsAccumulator;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.viewers.edges.EdgeViewerRegistry;
 import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * A strategy for drawing a diagram and computing geometric properties of a 
@@ -43,24 +44,59 @@ public class DiagramViewer
 	/**
 	 * Draws pDiagram onto pGraphics.
 	 * 
-	 * @param pGraphics the graphics context where the
+	 * @param pGraphics the surface where the
 	 *     diagram should be drawn.
 	 * @param pDiagram the diagram to draw.
 	 * @pre pDiagram != null && pGraphics != null.
 	 */
-	public final void draw(Diagram pDiagram, GraphicsContext pGraphics)
+	public final void draw(Diagram pDiagram, RenderingSurface pGraphics)
 	{
 		assert pDiagram != null && pGraphics != null;
 		pDiagram.rootNodes().forEach(node -> drawNode(node, pGraphics));
 		pDiagram.edges().forEach(edge -> EdgeViewerRegistry.draw(edge, pGraphics));
 	}
 	
-	private void drawNode(Node pNode, GraphicsContext pGraphics)
+	/**
+	 * Draws the elements of pDiagram whose bounds intersect pRegion onto pGraphics,
+	 * in the same order as draw(Diagram, RenderingSurface). If pGraphics is clipped to 
+	 * pRegion, the result is the same as drawing the entire diagram.
+	 * 
+	 * @param pDiagram the diagram to draw.
+	 * @param pGraphics the surface where the
+	 *     diagram should be drawn.
+	 * @param pRegion the region of the diagram to draw.
+	 * @pre pDiagram != null && pGraphics != null && pRegion != null.
+	 */
+	public final void draw(Diagram pDiagram, RenderingSurface pGraphics, Rectangle pRegion)
+	{
+		assert pDiagram != null && pGraphics != null && pRegion != null;
+		pDiagram.rootNodes().forEach(node -> drawNode(node, pGraphics, pRegion));
+		for( Edge edge : pDiagram.edges() )
+		{
+			if( EdgeViewerRegistry.getBounds(edge).intersects(pRegion) )
+			{
+				EdgeViewerRegistry.draw(edge, pGraphics);
+			}
+		}
+	}
+	
+	private void drawNode(Node pNode, RenderingSurface pGraphics)
 	{
 		NodeViewerRegistry.draw(pNode, pGraphics);
 		pNode.getChildren().forEach(node -> drawNode(node, pGraphics));
 	}
 	
+	/* Children are visited even when their parent is outside of the region
+	 * because the bounds of a child are not necessarily within those of its parent. */
+	private void drawNode(Node pNode, RenderingSurface pGraphics, Rectangle pRegion)
+	{
+		if( NodeViewerRegistry.getBounds(pNode).intersects(pRegion) )
+		{
+			NodeViewerRegistry.draw(pNode, pGraphics);
+		}
+		pNode.getChildren().forEach(node -> drawNode(node, pGraphics, pRegion));
+	}
+	
 	/**
 	 * Finds the edge that contains the given point, if it 
 	 * exists.
@@ -73,7 +109,28 @@ public class DiagramViewer
 	public final Optional<Edge> findEdge(Diagram pDiagram, Point pPoint)
 	{
 		assert pDiagram != null && pPoint != null;
-		for(Edge edge : pDiagram.edges())
+		return findEdge(pDiagram.edges(), pPoint);
+	}
+	
+	/**
+	 * Finds the edge that contains the given point, if it 
+	 * exists, only testing the edges pIndex reports as close to pPoint. 
+	 * The result is the same as for findEdge(Diagram, Point).
+	 * 
+	 * @param pIndex The spatial index of the diagram to query
+	 * @param pPoint a point
+	 * @return An edge containing pPoint or null if no edge contains pPoint
+	 * @pre pIndex != null && pPoint != null
+	 */
+	public final Optional<Edge> findEdge(SpatialIndex pIndex, Point pPoint)
+	{
+		assert pIndex != null && pPoint != null;
+		return findEdge(pIndex.edgesAt(pPoint), pPoint);
+	}
+	
+	private static Optional<Edge> findEdge(List<Edge> pEdges, Point pPoint)
+	{
+		for(Edge edge : pEdges)
 		{
 			if(EdgeViewerRegistry.contains(edge, pPoint))
 			{
@@ -94,8 +151,28 @@ public class DiagramViewer
 	public final Optional<Node> findNode(Diagram pDiagram, Point pPoint)
 	{
 		assert pDiagram != null && pPoint != null;
+		return findNode(pDiagram, pDiagram.rootNodes(), pPoint);
+	}
+	
+	/**
+     * Finds a node that contains the given point, only searching the root nodes
+     * returned by candidateRootNodes. The result is the same as for 
+     * findNode(Diagram, Point).
+     * @param pIndex The spatial index of the diagram to query.
+     * @param pPoint A point
+     * @return a node containing pPoint or null if no nodes contain pPoint
+     * @pre pIndex != null && pPoint != null.
+     */
+	public final Optional<Node> findNode(SpatialIndex pIndex, Point pPoint)
+	{
+		assert pIndex != null && pPoint != null;
+		return findNode(pIndex.getDiagram(), candidateRootNodes(pIndex, pPoint), pPoint);
+	}
+	
+	private Optional<Node> findNode(Diagram pDiagram, List<Node> pRootNodes, Point pPoint)
+	{
 		Node result = null;
-		for(Node node : pDiagram.rootNodes())
+		for(Node node : pRootNodes)
 		{
 			Node temp = deepFindNode(pDiagram, node, pPoint);
 			if (temp != null)
@@ -106,6 +183,21 @@ public class DiagramViewer
 		return Optional.ofNullable(result);
 	}
 	
+	/**
+	 * Returns the root nodes that need to be searched to find a node that
+	 * contains pPoint. By default, these are the root nodes whose subtree is 
+	 * close to pPoint according to pIndex. 
+	 * 
+	 * @param pIndex The spatial index of the diagram to query.
+	 * @param pPoint A point.
+	 * @return The root nodes to search, in the order in which they appear in the diagram.
+	 * @pre pIndex != null && pPoint != null.
+	 */
+	protected List<Node> candidateRootNodes(SpatialIndex pIndex, Point pPoint)
+	{
+		return pIndex.rootNodesAt(pPoint);
+	}
+	
 	/**
 	 * Find the "deepest" child that contains pPoint,
 	 * where depth is measured in terms of distance from
@@ -150,30 +242,16 @@ public class DiagramViewer
 	public final Rectangle getBounds(Diagram pDiagram)
 	{
 		assert pDiagram != null;
-		Rectangle bounds = null;
+		BoundsAccumulator bounds = new BoundsAccumulator();
 		for(Node node : pDiagram.rootNodes() )
 		{
-			if(bounds == null)
-			{
-				bounds = NodeViewerRegistry.getBounds(node);
-			}
-			else
-			{
-				bounds = bounds.add(NodeViewerRegistry.getBounds(node));
-			}
+			bounds.add(NodeViewerRegistry.getBounds(node));
 		}
 		for(Edge edge : pDiagram.edges())
 		{
-			bounds = bounds.add(EdgeViewerRegistry.getBounds(edge));
-		}
-		if(bounds == null )
-		{
-			return new Rectangle(0, 0, 0, 0);
-		}
-		else
-		{
-			return new Rectangle(bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight());
+			bounds.add(EdgeViewerRegistry.getBounds(edge));
 		}
+		return bounds.toRectangle();
 	}
 	
 	/**
@@ -184,16 +262,12 @@ public class DiagramViewer
 	 */
 	public boolean isOverlapping(Rectangle pCurrentSelectionBounds, Iterable<DiagramElement> pNewElements) 
 	{
-		Rectangle newElementBounds = null;
+		BoundsAccumulator newElementBounds = new BoundsAccumulator();
 		for (DiagramElement element : pNewElements) 
 		{
-			if (newElementBounds == null) 
-			{
-				newElementBounds = ViewerUtilities.getBounds(element);
-			}
-			newElementBounds = newElementBounds.add(ViewerUtilities.getBounds(element));
+			newElementBounds.add(ViewerUtilities.getBounds(element));
 		}
-		if (pCurrentSelectionBounds.equals(newElementBounds)) 
+		if (!newElementBounds.isEmpty() && pCurrentSelectionBounds.equals(newElementBounds.toRectangle())) 
 		{
 			return true;
 		}
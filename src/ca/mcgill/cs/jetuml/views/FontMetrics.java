@@ -20,6 +20,10 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.views;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import javafx.geometry.Bounds;
 import javafx.scene.text.Font;
@@ -47,12 +51,29 @@ import javafx.scene.text.Text;
  * Hence, upon calling getHeight(), to get tight bounds, one should subtract
  * off the leading value (found by getting the max Y value of a one-lined text
  * box)
+ * 
+ * Because laying out text is expensive, the dimensions of the most recently 
+ * measured strings are cached. In addition, the width of single-line strings 
+ * of printable ASCII characters is computed by adding the advance of each 
+ * character, which is measured once for each character when the object is created.
+ * Other strings, e.g., multi-line strings or strings in other scripts, are 
+ * measured by laying them out. A FontMetrics object is specific to a font, so
+ * the dimensions it caches are discarded along with the object when the font 
+ * changes.
  */
 public class FontMetrics 
 {
 	public static final int DEFAULT_FONT_SIZE = 12;
 	private static final String BLANK = "";
-	private Text aTextNode;
+	private static final int CACHE_CAPACITY = 1000;
+	private static final char FIRST_ADVANCE = ' ';
+	private static final char LAST_ADVANCE = '~';
+	
+	private final Text aTextNode;
+	private final double aLeading;
+	private final int aLineHeight;
+	private final double[] aAdvances = new double[LAST_ADVANCE - FIRST_ADVANCE + 1];
+	private final Map<String, Dimension> aDimensions = new LinkedHashMap<>(CACHE_CAPACITY, 0.75f, true);
 
 	/**
 	 * Creates a new FontMetrics object.
@@ -65,6 +86,14 @@ public class FontMetrics
 		
 		aTextNode = new Text();
 		aTextNode.setFont(pFont);
+		aLeading = aTextNode.getLayoutBounds().getMaxY();
+		for( char character = FIRST_ADVANCE; character <= LAST_ADVANCE; character++ )
+		{
+			aTextNode.setText(String.valueOf(character));
+			aAdvances[character - FIRST_ADVANCE] = aTextNode.getLayoutBounds().getWidth();
+		}
+		aLineHeight = (int) Math.round(aTextNode.getLayoutBounds().getHeight() - aLeading);
+		aTextNode.setText(BLANK);
 	}
 
 	/**
@@ -72,14 +101,58 @@ public class FontMetrics
 	 * @param pString The string to which the bounds pertain.
 	 * @return The dimension of the string
 	 */
-	public Dimension getDimension(String pString)
+	public synchronized Dimension getDimension(String pString)
 	{
 		assert pString != null;
 		
+		Dimension dimension = aDimensions.get(pString);
+		if( dimension == null )
+		{
+			dimension = measure(pString);
+			aDimensions.put(pString, dimension);
+			if( aDimensions.size() > CACHE_CAPACITY )
+			{
+				Iterator<String> leastRecentlyUsed = aDimensions.keySet().iterator();
+				leastRecentlyUsed.next();
+				leastRecentlyUsed.remove();
+			}
+		}
+		return dimension;
+	}
+	
+	private Dimension measure(String pString)
+	{
+		if( pString.isEmpty() )
+		{
+			return layOut(pString);
+		}
+		double width = 0;
+		for( int i = 0; i < pString.length(); i++ )
+		{
+			char character = pString.charAt(i);
+			if( character < FIRST_ADVANCE || character > LAST_ADVANCE )
+			{
+				return layOut(pString);
+			}
+			width += aAdvances[character - FIRST_ADVANCE];
+		}
+		return new Dimension((int) Math.round(width), aLineHeight);
+	}
+	
+	/**
+	 * Measures pString by laying it out as a text node, without using the 
+	 * character advances or the cache.
+	 * 
+	 * @param pString The string to measure.
+	 * @return The dimension of pString when laid out.
+	 * @pre pString != null
+	 */
+	synchronized Dimension layOut(String pString)
+	{
+		assert pString != null;
 		aTextNode.setText(pString);
 		Bounds bounds = aTextNode.getLayoutBounds();
 		aTextNode.setText(BLANK);
-		double leading = aTextNode.getLayoutBounds().getMaxY();
-		return new Dimension((int) Math.round(bounds.getWidth()), (int) Math.round(bounds.getHeight() - leading));
+		return new Dimension((int) Math.round(bounds.getWidth()), (int) Math.round(bounds.getHeight() - aLeading));
 	}
 } 
\ No newline at end of file
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import ca.mcgill.cs.jetuml.application.UserPreferences;
+import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreference;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
+
+/**
+ * Memoizes a geometric property, such as the bounds or the path, of 
+ * the elements of a diagram.
+ * 
+ * The value computed for each element is stored along with the inputs it was 
+ * computed from, typically the position and property values of the element 
+ * and of the elements it depends on, and with the geometry revision of the 
+ * diagram at which these inputs were last checked. While the revision of the
+ * diagram is unchanged, stored values are returned without further checks. 
+ * Once the diagram changes, the inputs of an element are compared the first 
+ * time its value is requested, and the stored value is reused if they are 
+ * unchanged. As a result, changing an element only causes the value of this 
+ * element and of the elements that depend on it to be recomputed, whether the
+ * change is made through a property, a move, or a change to the structure of 
+ * the diagram, and the cache does not need to be notified of changes to the diagram.
+ * 
+ * Each thread keeps the values of the elements of the last diagram it 
+ * queried. The entries of elements that are no longer in the diagram are 
+ * discarded whenever the structure of the diagram changes, and all entries are
+ * discarded when the font size changes. The values of elements that are not
+ * in a diagram are not cached.
+ * 
+ * @param <E> The type of element whose geometry is cached.
+ * @param <V> The type of the cached values. Values are shared by all callers
+ *     and must not be modified.
+ */
+public abstract class GeometryCache<E extends DiagramElement, V>
+{
+	private final Function<E, V> aFunction;
+	private final ThreadLocal<State<E, V>> aState = ThreadLocal.withInitial(State::new);
+	
+	/**
+	 * Creates a cache for the values computed by pFunction.
+	 * 
+	 * @param pFunction The function that computes the value for an element.
+	 * @pre pFunction != null
+	 */
+	protected GeometryCache(Function<E, V> pFunction)
+	{
+		assert pFunction != null;
+		aFunction = pFunction;
+	}
+	
+	/**
+	 * @param pElement The element whose diagram to obtain.
+	 * @return The diagram pElement belongs to, if any.
+	 * @pre pElement != null
+	 */
+	protected abstract Optional<Diagram> diagramOf(E pElement);
+	
+	/**
+	 * @param pElement The element to test.
+	 * @param pDiagram The diagram to test.
+	 * @return True if pElement is currently part of pDiagram.
+	 * @pre pElement != null && pDiagram != null
+	 */
+	protected abstract boolean isIn(E pElement, Diagram pDiagram);
+	
+	/**
+	 * Supplies to pInputs, in a fixed order, every value that the cached value 
+	 * for pElement depends on. Inputs must be immutable.
+	 * 
+	 * @param pElement The element whose inputs to record.
+	 * @param pInputs The consumer of the inputs.
+	 * @pre pElement != null && pInputs != null
+	 * @pre diagramOf(pElement).isPresent()
+	 */
+	protected abstract void recordInputs(E pElement, Consumer<Object> pInputs);
+	
+	/**
+	 * Obtains the value for pElement, computing it only if
+	 * one of its inputs changed since it was last computed. Inputs are 
+	 * only compared if the diagram changed since they were last checked.
+	 * 
+	 * @param pElement The element whose value to obtain.
+	 * @return The value for pElement.
+	 * @pre pElement != null
+	 */
+	public final V get(E pElement)
+	{
+		assert pElement != null;
+		Optional<Diagram> diagram = diagramOf(pElement);
+		if( !diagram.isPresent() )
+		{
+			return aFunction.apply(pElement);
+		}
+		State<E, V> state = aState.get();
+		synchronize(state, diagram.get());
+		int revision = diagram.get().getGeometryRevision();
+		Entry<V> entry = state.aEntries.get(pElement);
+		if( entry != null && (entry.aRevision == revision || hasInputs(pElement, entry.aInputs)) )
+		{
+			entry.aRevision = revision;
+			return entry.aValue;
+		}
+		List<Object> inputs = new ArrayList<>();
+		recordInputs(pElement, inputs::add);
+		V value = aFunction.apply(pElement);
+		state.aEntries.put(pElement, new Entry<>(inputs.toArray(), value, revision));
+		return value;
+	}
+	
+	/*
+	 * Resets the state if it is for a different diagram or font size, and 
+	 * discards the entries of elements removed from the diagram if its structure changed.
+	 */
+	private void synchronize(State<E, V> pState, Diagram pDiagram)
+	{
+		int fontSize = UserPreferences.instance().getInteger(IntegerPreference.fontSize);
+		if( pState.aDiagram != pDiagram || pState.aFontSize != fontSize )
+		{
+			pState.aEntries.clear();
+			pState.aDiagram = pDiagram;
+			pState.aFontSize = fontSize;
+		}
+		else if( pState.aRevision != pDiagram.getStructuralRevision() )
+		{
+			pState.aEntries.keySet().removeIf(element -> !isIn(element, pDiagram));
+		}
+		pState.aRevision = pDiagram.getStructuralRevision();
+	}
+	
+	private boolean hasInputs(E pElement, Object[] pInputs)
+	{
+		InputMatcher matcher = new InputMatcher(pInputs);
+		recordInputs(pElement, matcher);
+		return matcher.matches();
+	}
+	
+	/**
+	 * The cached state for one thread.
+	 */
+	private static final class State<E, V>
+	{
+		private final Map<E, Entry<V>> aEntries = new IdentityHashMap<>();
+		private Diagram aDiagram;
+		private int aFontSize;
+		private int aRevision;
+	}
+	
+	/**
+	 * A value along with the inputs it was computed from and the 
+	 * revision of the diagram at which these inputs were last checked.
+	 */
+	private static final class Entry<V>
+	{
+		private final Object[] aInputs;
+		private final V aValue;
+		private int aRevision;
+		
+		Entry(Object[] pInputs, V pValue, int pRevision)
+		{
+			aInputs = pInputs;
+			aValue = pValue;
+			aRevision = pRevision;
+		}
+	}
+	
+	/**
+	 * Compares a sequence of inputs with the one previously recorded.
+	 */
+	private static final class InputMatcher implements Consumer<Object>
+	{
+		private final Object[] aExpected;
+		private int aIndex;
+		private boolean aMatches = true;
+		
+		InputMatcher(Object[] pExpected)
+		{
+			aExpected = pExpected;
+		}
+		
+		@Override
+		public void accept(Object pInput)
+		{
+			if( aMatches && (aIndex >= aExpected.length || !Objects.equals(aExpected[aIndex], pInput)))
+			{
+				aMatches = false;
+			}
+			aIndex++;
+		}
+		
+		boolean matches()
+		{
+			return aMatches && aIndex == aExpected.length;
+		}
+	}
+}
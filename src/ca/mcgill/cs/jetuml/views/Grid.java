@@ -21,12 +21,20 @@
 
 package ca.mcgill.cs.jetuml.views;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
 import javafx.scene.paint.Paint;
+import javafx.scene.transform.Transform;
 
 /**
  * A grid to which points and rectangles can be "snapped". The
@@ -36,34 +44,80 @@ public final class Grid
 {
 	private static final Color GRID_COLOR = Color.rgb(220, 220, 220);
 	private static final double GRID_SIZE = 10;
+	private static final int TILE_SIZE = 100; // Must be a multiple of GRID_SIZE
+	
+	// One tile per output scale, rendered lazily because it requires the JavaFX toolkit
+	private static final Map<Double, ImagePattern> TILES = new HashMap<>();
+	private static double aTileLineWidth;
 	
 	private Grid() {}
 	
 	/**
-     * Draws this grid inside a rectangle.
+     * Draws this grid inside a rectangle. The grid lines are aligned 
+     * on multiples of the grid size independently of the origin of the
+     * rectangle, so that any region of a canvas can be redrawn separately.
+     * The grid is filled with a tile of grid lines that is rendered once
+     * for each output scale of the screens the canvas is shown on, at the 
+     * resolution of the screen, and reused for as long as the line width 
+     * of pGraphics does not change.
      * @param pGraphics the graphics context
      * @param pBounds the bounding rectangle
      */
 	public static void draw(GraphicsContext pGraphics, Rectangle pBounds)
 	{
-		Paint oldStroke = pGraphics.getStroke();
-		pGraphics.setStroke(GRID_COLOR);
-		int x1 = pBounds.getX();
-		int y1 = pBounds.getY();
-		int x2 = pBounds.getMaxX();
-		int y2 = pBounds.getMaxY();
-		for(int x = x1; x < x2; x += GRID_SIZE)
+		Paint oldFill = pGraphics.getFill();
+		pGraphics.setFill(tile(pGraphics.getLineWidth(), outputScale(pGraphics.getCanvas())));
+		pGraphics.fillRect(pBounds.getX(), pBounds.getY(), pBounds.getWidth(), pBounds.getHeight());
+		pGraphics.setFill(oldFill);
+	}
+	
+	/*
+	 * The number of pixels per unit of the screen the canvas is shown on, 
+	 * or 1 if the canvas is not shown.
+	 */
+	private static double outputScale(Canvas pCanvas)
+	{
+		Scene scene = pCanvas.getScene();
+		if( scene == null || scene.getWindow() == null )
+		{
+			return 1;
+		}
+		return scene.getWindow().getOutputScaleX();
+	}
+	
+	/*
+	 * The tile is drawn in pScale pixels per unit, and the pattern maps its 
+	 * TILE_SIZE * pScale pixels to TILE_SIZE units so that each pixel of the 
+	 * tile lands on a pixel of the screen.
+	 */
+	private static ImagePattern tile(double pLineWidth, double pScale)
+	{
+		if( aTileLineWidth != pLineWidth )
 		{
-			ToolGraphics.strokeSharpLine(pGraphics, x, y1, x, y2);
+			TILES.clear();
+			aTileLineWidth = pLineWidth;
 		}
-		for(int y = y1; y < y2; y += GRID_SIZE)
+		return TILES.computeIfAbsent(pScale, scale -> renderTile(pLineWidth, scale));
+	}
+	
+	private static ImagePattern renderTile(double pLineWidth, double pScale)
+	{
+		Canvas canvas = new Canvas(TILE_SIZE, TILE_SIZE);
+		RenderingSurface context = new CanvasRenderingSurface(canvas.getGraphicsContext2D());
+		context.setLineWidth(pLineWidth);
+		context.setStroke(GRID_COLOR);
+		for(int offset = 0; offset < TILE_SIZE; offset += GRID_SIZE)
 		{
-			ToolGraphics.strokeSharpLine(pGraphics, x1, y, x2, y);
+			// The lines extend past the tile so that they are continuous across tiles
+			ToolGraphics.strokeSharpLine(context, offset, -1, offset, TILE_SIZE);
+			ToolGraphics.strokeSharpLine(context, -1, offset, TILE_SIZE, offset);
 		}
-		pGraphics.setStroke(oldStroke);
+		SnapshotParameters parameters = new SnapshotParameters();
+		parameters.setFill(Color.TRANSPARENT);
+		parameters.setTransform(Transform.scale(pScale, pScale));
+		return new ImagePattern(canvas.snapshot(parameters, null), 0, 0, TILE_SIZE, TILE_SIZE, false);
 	}
 
-	
 	/**
      * Creates a rectangle that is the original rectangle, snapped to
      * the nearest grid point.
@@ -20,11 +20,13 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.views;
 
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
@@ -42,6 +44,9 @@ public final class ImageCreator
 	
 	/**
 	 * Creates an image of an entire diagram, with a white border around.
+	 * The diagram is drawn on a JavaFX Canvas, so this method must be called
+	 * on the JavaFX application thread.
+	 * 
 	 * @param pDiagram The diagram to create an image off.
 	 * @return An image of the diagram.
 	 * @pre pDiagram != null.
@@ -53,14 +58,42 @@ public final class ImageCreator
 		Rectangle bounds = viewer.getBounds(pDiagram);
 		Canvas canvas = new Canvas(bounds.getWidth() + DIAGRAM_PADDING * 2, 
 				bounds.getHeight() + DIAGRAM_PADDING *2);
-		GraphicsContext context = canvas.getGraphicsContext2D();
-		context.setLineWidth(LINE_WIDTH);
-		context.setFill(Color.WHITE);
-		context.translate(-bounds.getX()+DIAGRAM_PADDING, -bounds.getY()+DIAGRAM_PADDING);
-		viewer.draw(pDiagram, context);
+		draw(pDiagram, viewer, bounds, new CanvasRenderingSurface(canvas.getGraphicsContext2D()));
 		WritableImage image = new WritableImage(bounds.getWidth() + DIAGRAM_PADDING * 2, 
 				bounds.getHeight() + DIAGRAM_PADDING *2);
 		canvas.snapshot(null, image);
 		return image;
 	}
+	
+	/**
+	 * Creates an image of an entire diagram, with a white border around. 
+	 * The diagram is drawn with Java2D, so this method can be called on any 
+	 * thread, including for different diagrams at the same time. 
+	 * 
+	 * @param pDiagram The diagram to create an image off.
+	 * @return An image of the diagram.
+	 * @pre pDiagram != null.
+	 */
+	public static BufferedImage createBufferedImage(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		DiagramViewer viewer = DiagramType.viewerFor(pDiagram);
+		Rectangle bounds = viewer.getBounds(pDiagram);
+		BufferedImage image = new BufferedImage(bounds.getWidth() + DIAGRAM_PADDING * 2, 
+				bounds.getHeight() + DIAGRAM_PADDING *2, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(java.awt.Color.WHITE);
+		graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+		draw(pDiagram, viewer, bounds, new Java2DRenderingSurface(graphics));
+		graphics.dispose();
+		return image;
+	}
+	
+	private static void draw(Diagram pDiagram, DiagramViewer pViewer, Rectangle pBounds, RenderingSurface pSurface)
+	{
+		pSurface.setLineWidth(LINE_WIDTH);
+		pSurface.setFill(Color.WHITE);
+		pSurface.translate(-pBounds.getX()+DIAGRAM_PADDING, -pBounds.getY()+DIAGRAM_PADDING);
+		pViewer.draw(pDiagram, pSurface);
+	}
 }
\ No newline at end of file
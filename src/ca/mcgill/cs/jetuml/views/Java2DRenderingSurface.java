@@ -0,0 +1,439 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import java.awt.BasicStroke;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.util.Locale;
+
+import javafx.geometry.VPos;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ArcType;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * A rendering surface that draws with a Java2D Graphics2D object, for example 
+ * one obtained from a BufferedImage. It does not depend on a JavaFX Canvas, so
+ * different diagrams can be drawn on different surfaces on any thread.
+ * 
+ * The initial state of the surface is the same as that of a new JavaFX 
+ * GraphicsContext. The result is close to, but not identical to, what a Canvas 
+ * would show: text is drawn with the Java2D font that corresponds to the JavaFX 
+ * font, and shadows are drawn as an offset copy of the shape, without blur.
+ */
+public final class Java2DRenderingSurface implements RenderingSurface
+{
+	private static final float MITER_LIMIT = 10;
+	private static final String SYSTEM_FONT = "System";
+	
+	private final Graphics2D aGraphics;
+	private Color aStroke = Color.BLACK;
+	private Color aFill = Color.BLACK;
+	private double aLineWidth = 1;
+	private double[] aLineDashes;
+	private BasicStroke aBasicStroke;
+	private Font aFont = Font.getDefault();
+	private java.awt.Font aAwtFont = toAwtFont(aFont);
+	private TextAlignment aTextAlign = TextAlignment.LEFT;
+	private VPos aTextBaseline = VPos.BASELINE;
+	private DropShadow aShadow;
+	private Path2D aPath = new Path2D.Double();
+	
+	/**
+	 * Creates a surface that draws with pGraphics. The rendering hints 
+	 * of pGraphics are set to anti-alias shapes and text.
+	 * 
+	 * @param pGraphics The graphics object to draw with.
+	 * @pre pGraphics != null
+	 */
+	public Java2DRenderingSurface(Graphics2D pGraphics)
+	{
+		assert pGraphics != null;
+		aGraphics = pGraphics;
+		aGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		aGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		aGraphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+		aGraphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+		updateStroke();
+	}
+	
+	@Override
+	public Color getStroke()
+	{
+		return aStroke;
+	}
+
+	@Override
+	public void setStroke(Color pStroke)
+	{
+		assert pStroke != null;
+		aStroke = pStroke;
+	}
+
+	@Override
+	public Color getFill()
+	{
+		return aFill;
+	}
+
+	@Override
+	public void setFill(Color pFill)
+	{
+		assert pFill != null;
+		aFill = pFill;
+	}
+
+	@Override
+	public double getLineWidth()
+	{
+		return aLineWidth;
+	}
+
+	@Override
+	public void setLineWidth(double pWidth)
+	{
+		assert pWidth > 0;
+		aLineWidth = pWidth;
+		updateStroke();
+	}
+
+	@Override
+	public double[] getLineDashes()
+	{
+		if( aLineDashes == null )
+		{
+			return null;
+		}
+		return aLineDashes.clone();
+	}
+
+	@Override
+	public void setLineDashes(double... pDashes)
+	{
+		if( pDashes == null || pDashes.length == 0 )
+		{
+			aLineDashes = null;
+		}
+		else
+		{
+			aLineDashes = pDashes.clone();
+		}
+		updateStroke();
+	}
+	
+	private void updateStroke()
+	{
+		float[] dashes = null;
+		if( aLineDashes != null )
+		{
+			dashes = new float[aLineDashes.length];
+			for( int i = 0; i < dashes.length; i++ )
+			{
+				dashes[i] = (float) aLineDashes[i];
+			}
+		}
+		aBasicStroke = new BasicStroke((float) aLineWidth, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER, 
+				MITER_LIMIT, dashes, 0);
+	}
+
+	@Override
+	public Font getFont()
+	{
+		return aFont;
+	}
+
+	@Override
+	public void setFont(Font pFont)
+	{
+		assert pFont != null;
+		if( !pFont.equals(aFont) )
+		{
+			aFont = pFont;
+			aAwtFont = toAwtFont(pFont);
+		}
+	}
+	
+	/*
+	 * "System" is the logical family of the default JavaFX font, which
+	 * corresponds to the sans serif logical font of Java2D.
+	 */
+	private static java.awt.Font toAwtFont(Font pFont)
+	{
+		String family = pFont.getFamily();
+		if( SYSTEM_FONT.equals(family) )
+		{
+			family = java.awt.Font.SANS_SERIF;
+		}
+		String style = pFont.getStyle().toLowerCase(Locale.ROOT);
+		int awtStyle = java.awt.Font.PLAIN;
+		if( style.contains("bold") )
+		{
+			awtStyle |= java.awt.Font.BOLD;
+		}
+		if( style.contains("italic") )
+		{
+			awtStyle |= java.awt.Font.ITALIC;
+		}
+		return new java.awt.Font(family, awtStyle, 1).deriveFont((float) pFont.getSize());
+	}
+
+	@Override
+	public TextAlignment getTextAlign()
+	{
+		return aTextAlign;
+	}
+
+	@Override
+	public void setTextAlign(TextAlignment pAlignment)
+	{
+		assert pAlignment != null;
+		aTextAlign = pAlignment;
+	}
+
+	@Override
+	public VPos getTextBaseline()
+	{
+		return aTextBaseline;
+	}
+
+	@Override
+	public void setTextBaseline(VPos pBaseline)
+	{
+		assert pBaseline != null;
+		aTextBaseline = pBaseline;
+	}
+
+	@Override
+	public void setShadow(DropShadow pShadow)
+	{
+		aShadow = pShadow;
+	}
+
+	@Override
+	public void translate(double pX, double pY)
+	{
+		aGraphics.translate(pX, pY);
+	}
+
+	@Override
+	public void scale(double pX, double pY)
+	{
+		aGraphics.scale(pX, pY);
+	}
+
+	@Override
+	public void strokeLine(double pX1, double pY1, double pX2, double pY2)
+	{
+		strokeShape(new Line2D.Double(pX1, pY1, pX2, pY2));
+	}
+
+	@Override
+	public void fillRect(double pX, double pY, double pWidth, double pHeight)
+	{
+		fillShape(new Rectangle2D.Double(pX, pY, pWidth, pHeight));
+	}
+
+	@Override
+	public void strokeRect(double pX, double pY, double pWidth, double pHeight)
+	{
+		strokeShape(new Rectangle2D.Double(pX, pY, pWidth, pHeight));
+	}
+
+	@Override
+	public void fillRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight)
+	{
+		fillShape(new RoundRectangle2D.Double(pX, pY, pWidth, pHeight, pArcWidth, pArcHeight));
+	}
+
+	@Override
+	public void strokeRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight)
+	{
+		strokeShape(new RoundRectangle2D.Double(pX, pY, pWidth, pHeight, pArcWidth, pArcHeight));
+	}
+
+	@Override
+	public void fillOval(double pX, double pY, double pWidth, double pHeight)
+	{
+		fillShape(new Ellipse2D.Double(pX, pY, pWidth, pHeight));
+	}
+
+	@Override
+	public void strokeOval(double pX, double pY, double pWidth, double pHeight)
+	{
+		strokeShape(new Ellipse2D.Double(pX, pY, pWidth, pHeight));
+	}
+
+	@Override
+	public void strokeArc(double pX, double pY, double pWidth, double pHeight, double pStartAngle, double pExtent, ArcType pType)
+	{
+		int closure = Arc2D.OPEN;
+		if( pType == ArcType.CHORD )
+		{
+			closure = Arc2D.CHORD;
+		}
+		else if( pType == ArcType.ROUND )
+		{
+			closure = Arc2D.PIE;
+		}
+		strokeShape(new Arc2D.Double(pX, pY, pWidth, pHeight, pStartAngle, pExtent, closure));
+	}
+
+	@Override
+	public void fillText(String pText, double pX, double pY)
+	{
+		java.awt.FontMetrics metrics = aGraphics.getFontMetrics(aAwtFont);
+		String[] lines = pText.split("\n", -1);
+		double lineHeight = metrics.getHeight();
+		double baseline = pY;
+		if( aTextBaseline == VPos.TOP )
+		{
+			baseline = pY + metrics.getAscent();
+		}
+		else if( aTextBaseline == VPos.CENTER )
+		{
+			double height = metrics.getAscent() + metrics.getDescent() + lineHeight * (lines.length - 1);
+			baseline = pY - height / 2 + metrics.getAscent();
+		}
+		else if( aTextBaseline == VPos.BOTTOM )
+		{
+			baseline = pY - metrics.getDescent() - lineHeight * (lines.length - 1);
+		}
+		aGraphics.setFont(aAwtFont);
+		aGraphics.setColor(toAwtColor(aFill));
+		for( String line : lines )
+		{
+			double width = metrics.getStringBounds(line, aGraphics).getWidth();
+			double x = pX;
+			if( aTextAlign == TextAlignment.CENTER )
+			{
+				x = pX - width / 2;
+			}
+			else if( aTextAlign == TextAlignment.RIGHT )
+			{
+				x = pX - width;
+			}
+			aGraphics.drawString(line, (float) x, (float) baseline);
+			baseline += lineHeight;
+		}
+	}
+
+	@Override
+	public void beginPath()
+	{
+		aPath = new Path2D.Double();
+	}
+
+	@Override
+	public void moveTo(double pX, double pY)
+	{
+		aPath.moveTo(pX, pY);
+	}
+
+	/* Like in JavaFX, a path that does not start with moveTo starts at the first point. */
+	@Override
+	public void lineTo(double pX, double pY)
+	{
+		if( aPath.getCurrentPoint() == null )
+		{
+			aPath.moveTo(pX, pY);
+		}
+		else
+		{
+			aPath.lineTo(pX, pY);
+		}
+	}
+
+	@Override
+	public void quadraticCurveTo(double pControlX, double pControlY, double pX, double pY)
+	{
+		if( aPath.getCurrentPoint() == null )
+		{
+			aPath.moveTo(pControlX, pControlY);
+		}
+		aPath.quadTo(pControlX, pControlY, pX, pY);
+	}
+
+	@Override
+	public void stroke()
+	{
+		strokeShape(aPath);
+	}
+
+	@Override
+	public void fill()
+	{
+		fillShape(aPath);
+	}
+	
+	private void strokeShape(Shape pShape)
+	{
+		aGraphics.setStroke(aBasicStroke);
+		if( aShadow != null )
+		{
+			drawShadow(pShape, false);
+		}
+		aGraphics.setColor(toAwtColor(aStroke));
+		aGraphics.draw(pShape);
+	}
+	
+	private void fillShape(Shape pShape)
+	{
+		if( aShadow != null )
+		{
+			drawShadow(pShape, true);
+		}
+		aGraphics.setColor(toAwtColor(aFill));
+		aGraphics.fill(pShape);
+	}
+	
+	private void drawShadow(Shape pShape, boolean pFill)
+	{
+		AffineTransform transform = aGraphics.getTransform();
+		aGraphics.translate(aShadow.getOffsetX(), aShadow.getOffsetY());
+		aGraphics.setColor(toAwtColor(aShadow.getColor()));
+		if( pFill )
+		{
+			aGraphics.fill(pShape);
+		}
+		else
+		{
+			aGraphics.draw(pShape);
+		}
+		aGraphics.setTransform(transform);
+	}
+	
+	private static java.awt.Color toAwtColor(Color pColor)
+	{
+		return new java.awt.Color((float) pColor.getRed(), (float) pColor.getGreen(), 
+				(float) pColor.getBlue(), (float) pColor.getOpacity());
+	}
+}
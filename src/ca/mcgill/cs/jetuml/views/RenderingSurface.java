@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import javafx.geometry.VPos;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ArcType;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * A surface on which diagram elements are drawn. The operations and their
+ * semantics are the subset of those of the JavaFX GraphicsContext that the 
+ * viewers need, so that diagrams can be drawn either on a JavaFX Canvas, see
+ * CanvasRenderingSurface, or on a Java2D Graphics2D object, see
+ * Java2DRenderingSurface. Unlike a Canvas, the latter can be used on any thread.
+ * 
+ * Coordinates are in the user space of the surface, which is the space of the
+ * diagram unless the surface was transformed. Paths are built with beginPath,
+ * moveTo, lineTo, and quadraticCurveTo, and then stroked or filled.
+ */
+public interface RenderingSurface
+{
+	/**
+	 * @return The color used to stroke shapes.
+	 */
+	Color getStroke();
+	
+	/**
+	 * @param pStroke The color used to stroke shapes.
+	 * @pre pStroke != null
+	 */
+	void setStroke(Color pStroke);
+	
+	/**
+	 * @return The color used to fill shapes and text.
+	 */
+	Color getFill();
+	
+	/**
+	 * @param pFill The color used to fill shapes and text.
+	 * @pre pFill != null
+	 */
+	void setFill(Color pFill);
+	
+	/**
+	 * @return The width of the lines used to stroke shapes.
+	 */
+	double getLineWidth();
+	
+	/**
+	 * @param pWidth The width of the lines used to stroke shapes.
+	 * @pre pWidth > 0
+	 */
+	void setLineWidth(double pWidth);
+	
+	/**
+	 * @return The dash pattern of the lines used to stroke shapes, 
+	 *     or null if they are solid.
+	 */
+	double[] getLineDashes();
+	
+	/**
+	 * @param pDashes The dash pattern of the lines used to stroke shapes. 
+	 *     An empty or null pattern draws solid lines.
+	 */
+	void setLineDashes(double... pDashes);
+	
+	/**
+	 * @return The font used to draw text.
+	 */
+	Font getFont();
+	
+	/**
+	 * @param pFont The font used to draw text.
+	 * @pre pFont != null
+	 */
+	void setFont(Font pFont);
+	
+	/**
+	 * @return How text is aligned horizontally with respect to the position where it is drawn.
+	 */
+	TextAlignment getTextAlign();
+	
+	/**
+	 * @param pAlignment How text is aligned horizontally with respect to the position 
+	 *     where it is drawn.
+	 * @pre pAlignment != null
+	 */
+	void setTextAlign(TextAlignment pAlignment);
+	
+	/**
+	 * @return How text is aligned vertically with respect to the position where it is drawn.
+	 */
+	VPos getTextBaseline();
+	
+	/**
+	 * @param pBaseline How text is aligned vertically with respect to the position 
+	 *     where it is drawn.
+	 * @pre pBaseline != null
+	 */
+	void setTextBaseline(VPos pBaseline);
+	
+	/**
+	 * Sets the shadow drawn under the shapes that are stroked or filled until 
+	 * the shadow is removed.
+	 * 
+	 * @param pShadow The shadow, or null to remove it.
+	 */
+	void setShadow(DropShadow pShadow);
+	
+	/**
+	 * Translates the user space of the surface.
+	 * 
+	 * @param pX The translation along the x axis.
+	 * @param pY The translation along the y axis.
+	 */
+	void translate(double pX, double pY);
+	
+	/**
+	 * Scales the user space of the surface.
+	 * 
+	 * @param pX The scale factor along the x axis.
+	 * @param pY The scale factor along the y axis.
+	 */
+	void scale(double pX, double pY);
+	
+	/**
+	 * Strokes a line.
+	 * 
+	 * @param pX1 The x-coordinate of the first point.
+	 * @param pY1 The y-coordinate of the first point.
+	 * @param pX2 The x-coordinate of the second point.
+	 * @param pY2 The y-coordinate of the second point.
+	 */
+	void strokeLine(double pX1, double pY1, double pX2, double pY2);
+	
+	/**
+	 * Fills a rectangle.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner.
+	 * @param pY The y-coordinate of the top-left corner.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 */
+	void fillRect(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Strokes a rectangle.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner.
+	 * @param pY The y-coordinate of the top-left corner.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 */
+	void strokeRect(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Fills a rectangle with rounded corners.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner.
+	 * @param pY The y-coordinate of the top-left corner.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 * @param pArcWidth The horizontal diameter of the corners.
+	 * @param pArcHeight The vertical diameter of the corners.
+	 */
+	void fillRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight);
+	
+	/**
+	 * Strokes a rectangle with rounded corners.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner.
+	 * @param pY The y-coordinate of the top-left corner.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 * @param pArcWidth The horizontal diameter of the corners.
+	 * @param pArcHeight The vertical diameter of the corners.
+	 */
+	void strokeRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight);
+	
+	/**
+	 * Fills an oval.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner of the bounds of the oval.
+	 * @param pY The y-coordinate of the top-left corner of the bounds of the oval.
+	 * @param pWidth The width of the oval.
+	 * @param pHeight The height of the oval.
+	 */
+	void fillOval(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Strokes an oval.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner of the bounds of the oval.
+	 * @param pY The y-coordinate of the top-left corner of the bounds of the oval.
+	 * @param pWidth The width of the oval.
+	 * @param pHeight The height of the oval.
+	 */
+	void strokeOval(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Strokes an arc of an oval.
+	 * 
+	 * @param pX The x-coordinate of the top-left corner of the bounds of the oval.
+	 * @param pY The y-coordinate of the top-left corner of the bounds of the oval.
+	 * @param pWidth The width of the oval.
+	 * @param pHeight The height of the oval.
+	 * @param pStartAngle The angle where the arc starts, in degrees.
+	 * @param pExtent The angular extent of the arc, in degrees.
+	 * @param pType How the arc is closed.
+	 */
+	void strokeArc(double pX, double pY, double pWidth, double pHeight, double pStartAngle, double pExtent, ArcType pType);
+	
+	/**
+	 * Fills pText at the given position, according to the text alignment
+	 * and baseline of the surface. Each line of a multi-line string is aligned 
+	 * separately.
+	 * 
+	 * @param pText The text to draw.
+	 * @param pX The x-coordinate of the text.
+	 * @param pY The y-coordinate of the text.
+	 */
+	void fillText(String pText, double pX, double pY);
+	
+	/**
+	 * Starts a new, empty path.
+	 */
+	void beginPath();
+	
+	/**
+	 * Starts a new segment of the current path.
+	 * 
+	 * @param pX The x-coordinate of the start of the segment.
+	 * @param pY The y-coordinate of the start of the segment.
+	 */
+	void moveTo(double pX, double pY);
+	
+	/**
+	 * Adds a straight line to the current path.
+	 * 
+	 * @param pX The x-coordinate of the end of the line.
+	 * @param pY The y-coordinate of the end of the line.
+	 */
+	void lineTo(double pX, double pY);
+	
+	/**
+	 * Adds a quadratic Bezier curve to the current path.
+	 * 
+	 * @param pControlX The x-coordinate of the control point.
+	 * @param pControlY The y-coordinate of the control point.
+	 * @param pX The x-coordinate of the end of the curve.
+	 * @param pY The y-coordinate of the end of the curve.
+	 */
+	void quadraticCurveTo(double pControlX, double pControlY, double pX, double pY);
+	
+	/**
+	 * Strokes the current path.
+	 */
+	void stroke();
+	
+	/**
+	 * Fills the current path.
+	 */
+	void fill();
+}
@@ -21,11 +21,14 @@
 
 package ca.mcgill.cs.jetuml.views;
 
+import java.util.List;
+
 import ca.mcgill.cs.jetuml.diagram.ControlFlow;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.DiagramElement;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
+import ca.mcgill.cs.jetuml.geom.BoundsAccumulator;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 
@@ -55,6 +58,17 @@ public class SequenceDiagramViewer extends DiagramViewer
 		return super.deepFindNode(pDiagram, pNode, pPoint);
 	}
 	
+	/*
+	 * All root nodes are searched because implicit parameter nodes contain any point 
+	 * within their horizontal extent, and because the search for a node proceeds from 
+	 * call nodes to their callees, which are in the subtree of other root nodes.
+	 */
+	@Override
+	protected List<Node> candidateRootNodes(SpatialIndex pIndex, Point pPoint)
+	{
+		return pIndex.getDiagram().rootNodes();
+	}
+	
 	/*
 	 * Used during pasting to determine whether the current selection bounds completely overlaps the new elements.
 	 * For sequence diagrams the height between the selection bounds and the bounds of the new elements may vary, but 
@@ -67,19 +81,16 @@ public class SequenceDiagramViewer extends DiagramViewer
 	@Override
 	public boolean isOverlapping(Rectangle pCurrentSelectionBounds, Iterable<DiagramElement> pNewElements) 
 	{
-		Rectangle newElementBounds = null;
+		BoundsAccumulator accumulator = new BoundsAccumulator();
 		for (DiagramElement element : pNewElements) 
 		{
-			if (newElementBounds == null) 
-			{
-				newElementBounds = ViewerUtilities.getBounds(element);
-			}
-			newElementBounds = newElementBounds.add(ViewerUtilities.getBounds(element));
+			accumulator.add(ViewerUtilities.getBounds(element));
 		}
-		if (newElementBounds == null)
+		if (accumulator.isEmpty())
 		{
 			return false;
 		}
+		Rectangle newElementBounds = accumulator.toRectangle();
 		if (pCurrentSelectionBounds.getX() == newElementBounds.getX() && 
 				pCurrentSelectionBounds.getY() == newElementBounds.getY() && 
 				pCurrentSelectionBounds.getWidth() == newElementBounds.getWidth())
@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import ca.mcgill.cs.jetuml.application.UserPreferences;
+import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreference;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.geom.BoundsAccumulator;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.viewers.edges.EdgeViewerRegistry;
+import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
+
+/**
+ * A uniform grid over the root nodes and edges of a diagram, used to 
+ * narrow down hit-testing to the elements whose bounds are close to a point.
+ * 
+ * Root nodes are indexed with the bounds of their entire subtree. Because 
+ * an element can be hit slightly outside of its bounds, e.g., near a point 
+ * node or within the stroke used to select an edge, elements are registered 
+ * in every cell within TOLERANCE of their bounds.
+ * 
+ * The index is brought up to date with its diagram when it is queried after
+ * the geometry revision of the diagram or the font size changed: only the 
+ * elements whose bounds changed since the last update are moved between cells,
+ * and elements removed from the diagram are only looked for when the structure
+ * of the diagram changed. Queries made while the diagram is unchanged do not
+ * look at the elements of the diagram.
+ */
+public final class SpatialIndex
+{
+	private static final int CELL_SIZE = 128;
+	// Half the width of the stroke used to select edges, times the default miter limit.
+	private static final int TOLERANCE = 30;
+	
+	private final Diagram aDiagram;
+	private final Map<DiagramElement, Entry> aEntries = new IdentityHashMap<>();
+	private final Map<Long, List<DiagramElement>> aCells = new HashMap<>();
+	private int aStructuralRevision = -1;
+	private int aGeometryRevision = -1;
+	private int aFontSize;
+	private int aGeneration;
+	
+	/**
+	 * Creates an index for pDiagram.
+	 * 
+	 * @param pDiagram The diagram to index.
+	 * @pre pDiagram != null
+	 */
+	public SpatialIndex(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		aDiagram = pDiagram;
+	}
+	
+	/**
+	 * @return The indexed diagram.
+	 */
+	public Diagram getDiagram()
+	{
+		return aDiagram;
+	}
+	
+	/**
+	 * @param pPoint The point to test.
+	 * @return The root nodes whose subtree could contain pPoint, in the order
+	 *     in which they appear in the diagram.
+	 * @pre pPoint != null
+	 */
+	public List<Node> rootNodesAt(Point pPoint)
+	{
+		return elementsAt(pPoint, Node.class);
+	}
+	
+	/**
+	 * @param pPoint The point to test.
+	 * @return The edges that could contain pPoint, in the order
+	 *     in which they appear in the diagram.
+	 * @pre pPoint != null
+	 */
+	public List<Edge> edgesAt(Point pPoint)
+	{
+		return elementsAt(pPoint, Edge.class);
+	}
+	
+	private <E extends DiagramElement> List<E> elementsAt(Point pPoint, Class<E> pType)
+	{
+		assert pPoint != null;
+		refresh();
+		List<E> result = new ArrayList<>();
+		for( DiagramElement element : aCells.getOrDefault(cellKey(cellOf(pPoint.getX()), cellOf(pPoint.getY())), 
+				Collections.emptyList()) )
+		{
+			if( pType.isInstance(element) && aEntries.get(element).aBounds.contains(pPoint) )
+			{
+				result.add(pType.cast(element));
+			}
+		}
+		result.sort(Comparator.comparingInt(element -> aEntries.get(element).aOrder));
+		return result;
+	}
+	
+	/*
+	 * If the diagram changed since the last update, re-registers the elements whose 
+	 * bounds changed and, if the structure of the diagram changed, unregisters the 
+	 * elements no longer in the diagram.
+	 */
+	private void refresh()
+	{
+		int fontSize = UserPreferences.instance().getInteger(IntegerPreference.fontSize);
+		if( aGeometryRevision == aDiagram.getGeometryRevision() && aFontSize == fontSize )
+		{
+			return;
+		}
+		aGeometryRevision = aDiagram.getGeometryRevision();
+		aFontSize = fontSize;
+		aGeneration++;
+		int order = 0;
+		for( Node node : aDiagram.rootNodes() )
+		{
+			update(node, subtreeBounds(node), order++);
+		}
+		for( Edge edge : aDiagram.edges() )
+		{
+			update(edge, EdgeViewerRegistry.getBounds(edge), order++);
+		}
+		if( aStructuralRevision != aDiagram.getStructuralRevision() )
+		{
+			aStructuralRevision = aDiagram.getStructuralRevision();
+			for( Iterator<Entry> iterator = aEntries.values().iterator(); iterator.hasNext(); )
+			{
+				Entry entry = iterator.next();
+				if( entry.aGeneration != aGeneration )
+				{
+					unregister(entry);
+					iterator.remove();
+				}
+			}
+		}
+	}
+	
+	private static Rectangle subtreeBounds(Node pNode)
+	{
+		BoundsAccumulator bounds = new BoundsAccumulator();
+		addSubtreeBounds(pNode, bounds);
+		return bounds.toRectangle();
+	}
+	
+	private static void addSubtreeBounds(Node pNode, BoundsAccumulator pBounds)
+	{
+		pBounds.add(NodeViewerRegistry.getBounds(pNode));
+		for( Node child : pNode.getChildren() )
+		{
+			addSubtreeBounds(child, pBounds);
+		}
+	}
+	
+	private void update(DiagramElement pElement, Rectangle pBounds, int pOrder)
+	{
+		Rectangle bounds = new Rectangle(pBounds.getX() - TOLERANCE, pBounds.getY() - TOLERANCE, 
+				pBounds.getWidth() + 2 * TOLERANCE, pBounds.getHeight() + 2 * TOLERANCE);
+		Entry entry = aEntries.get(pElement);
+		if( entry == null )
+		{
+			entry = new Entry(pElement, bounds);
+			aEntries.put(pElement, entry);
+			register(entry);
+		}
+		else if( !entry.aBounds.equals(bounds) )
+		{
+			unregister(entry);
+			entry.aBounds = bounds;
+			register(entry);
+		}
+		entry.aOrder = pOrder;
+		entry.aGeneration = aGeneration;
+	}
+	
+	private void register(Entry pEntry)
+	{
+		for( int x = cellOf(pEntry.aBounds.getX()); x <= cellOf(pEntry.aBounds.getMaxX()); x++ )
+		{
+			for( int y = cellOf(pEntry.aBounds.getY()); y <= cellOf(pEntry.aBounds.getMaxY()); y++ )
+			{
+				aCells.computeIfAbsent(cellKey(x, y), key -> new ArrayList<>()).add(pEntry.aElement);
+			}
+		}
+	}
+	
+	private void unregister(Entry pEntry)
+	{
+		for( int x = cellOf(pEntry.aBounds.getX()); x <= cellOf(pEntry.aBounds.getMaxX()); x++ )
+		{
+			for( int y = cellOf(pEntry.aBounds.getY()); y <= cellOf(pEntry.aBounds.getMaxY()); y++ )
+			{
+				Long key = cellKey(x, y);
+				List<DiagramElement> cell = aCells.get(key);
+				cell.remove(pEntry.aElement);
+				if( cell.isEmpty() )
+				{
+					aCells.remove(key);
+				}
+			}
+		}
+	}
+	
+	private static int cellOf(int pCoordinate)
+	{
+		return Math.floorDiv(pCoordinate, CELL_SIZE);
+	}
+	
+	private static Long cellKey(int pX, int pY)
+	{
+		return ((long) pX << Integer.SIZE) | Integer.toUnsignedLong(pY);
+	}
+	
+	/**
+	 * The indexed bounds of an element and its position in the diagram.
+	 */
+	private static final class Entry
+	{
+		private final DiagramElement aElement;
+		private Rectangle aBounds;
+		private int aOrder;
+		private int aGeneration;
+		
+		Entry(DiagramElement pElement, Rectangle pBounds)
+		{
+			aElement = pElement;
+			aBounds = pBounds;
+		}
+	}
+}
@@ -33,7 +33,6 @@ import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreferenceChangeHa
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import javafx.geometry.VPos;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.TextAlignment;
@@ -121,13 +120,14 @@ public final class StringViewer
 	}
 	
 	/**
-	 * Lazily creates or retrieves an instance of StringViewer.
+	 * Lazily creates or retrieves an instance of StringViewer. Viewers can be
+	 * created on any thread, so access to the instances is synchronized.
 	 * @param pAlign The alignment to use.
 	 * @param pDecorations The decorations to apply.
 	 * @pre pAlign != null
 	 * @return The StringViewer instance with the requested properties.
 	 */
-	public static StringViewer get(Alignment pAlign, TextDecoration... pDecorations)
+	public static synchronized StringViewer get(Alignment pAlign, TextDecoration... pDecorations)
 	{
 		assert pAlign != null;
 		
@@ -223,7 +223,7 @@ public final class StringViewer
      * @param pGraphics the graphics context
      * @param pRectangle the rectangle into which to place the string
 	 */
-	public void draw(String pString, GraphicsContext pGraphics, Rectangle pRectangle)
+	public void draw(String pString, RenderingSurface pGraphics, Rectangle pRectangle)
 	{
 		final VPos oldVPos = pGraphics.getTextBaseline();
 		final TextAlignment oldAlign = pGraphics.getTextAlign();
@@ -328,7 +328,7 @@ public final class StringViewer
 		 * @param pString The canvas on which to draw the string
 		 * @param pBold If the text should be bold
 		 */
-		public void drawString(GraphicsContext pGraphics, int pTextX, int pTextY, String pString, boolean pBold)
+		public void drawString(RenderingSurface pGraphics, int pTextX, int pTextY, String pString, boolean pBold)
 		{
 			ViewUtils.drawText(pGraphics, pTextX, pTextY, pString, getFont(pBold));
 		}
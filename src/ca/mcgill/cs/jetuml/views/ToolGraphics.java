@@ -23,10 +23,8 @@ package ca.mcgill.cs.jetuml.views;
 
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
@@ -55,10 +53,10 @@ public final class ToolGraphics
 	 * @param pX The x-coordinate of the center of the handle.
 	 * @param pY The y-coordinate of the center of the handle.
 	 */
-	private static void drawHandle(GraphicsContext pGraphics, int pX, int pY)
+	private static void drawHandle(RenderingSurface pGraphics, int pX, int pY)
 	{
-		Paint oldStroke = pGraphics.getStroke();
-		Paint oldFill = pGraphics.getFill();
+		Color oldStroke = pGraphics.getStroke();
+		Color oldFill = pGraphics.getFill();
 		pGraphics.setStroke(SELECTION_COLOR);
 		pGraphics.strokeRect((int)(pX - HANDLE_SIZE / 2.0) + 0.5, (int)(pY - HANDLE_SIZE / 2.0)+ 0.5, HANDLE_SIZE, HANDLE_SIZE);
 		pGraphics.setFill(SELECTION_FILL_COLOR);
@@ -74,7 +72,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the handles.
 	 * @param pBounds Defines the four points where to draw the handles
 	 */
-	public static void drawHandles(GraphicsContext pGraphics, Rectangle pBounds)
+	public static void drawHandles(RenderingSurface pGraphics, Rectangle pBounds)
 	{
 		drawHandle(pGraphics, pBounds.getX(), pBounds.getY());
 		drawHandle(pGraphics, pBounds.getX(), pBounds.getMaxY());
@@ -89,7 +87,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the handles.
 	 * @param pBounds Defines the two points where to draw the handles
 	 */
-	public static void drawHandles(GraphicsContext pGraphics, Line pBounds)
+	public static void drawHandles(RenderingSurface pGraphics, Line pBounds)
 	{
 		drawHandle(pGraphics, pBounds.getX1(), pBounds.getY1());
 		drawHandle(pGraphics, pBounds.getX2(), pBounds.getY2());
@@ -102,9 +100,9 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the line.
 	 * @param pLine The line that represents the rubberband.
 	 */
-	public static void drawRubberband(GraphicsContext pGraphics, Line pLine)
+	public static void drawRubberband(RenderingSurface pGraphics, Line pLine)
 	{
-		Paint oldStroke = pGraphics.getStroke();
+		Color oldStroke = pGraphics.getStroke();
 		pGraphics.setStroke(SELECTION_FILL_COLOR);
 		strokeSharpLine(pGraphics, pLine.getX1(), pLine.getY1(), pLine.getX2(), pLine.getY2());
 		pGraphics.setStroke(oldStroke);
@@ -117,7 +115,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the lasso.
 	 * @param pRectangle The rectangle that defines the lasso.
 	 */
-	public static void drawLasso(GraphicsContext pGraphics, Rectangle pRectangle)
+	public static void drawLasso(RenderingSurface pGraphics, Rectangle pRectangle)
 	{
 		ViewUtils.drawRectangle(pGraphics, SELECTION_COLOR, SELECTION_FILL_TRANSPARENT, 
 				pRectangle.getX(), pRectangle.getY(), pRectangle.getWidth(), pRectangle.getHeight());
@@ -134,7 +132,7 @@ public final class ToolGraphics
 	 * @param pX2 The x-coordinate of the second point.
 	 * @param pY2 The y-coordinate of the second point.
 	 */
-	public static void strokeSharpLine(GraphicsContext pGraphics, int pX1, int pY1, int pX2, int pY2)
+	public static void strokeSharpLine(RenderingSurface pGraphics, int pX1, int pY1, int pX2, int pY2)
 	{
 		pGraphics.strokeLine(pX1 + 0.5, pY1 + 0.5, pX2 + 0.5, pY2 + 0.5);
 	}
@@ -149,7 +147,7 @@ public final class ToolGraphics
 	 * @param pPath The path to stroke
 	 * @param pStyle The line style for the path.
 	 */
-	public static void strokeSharpPath(GraphicsContext pGraphics, Path pPath, LineStyle pStyle)
+	public static void strokeSharpPath(RenderingSurface pGraphics, Path pPath, LineStyle pStyle)
 	{
 		double[] oldDash = pGraphics.getLineDashes();
 		pGraphics.setLineDashes(pStyle.getLineDashes());
@@ -161,7 +159,7 @@ public final class ToolGraphics
 		pGraphics.setLineWidth(width);
 	}
 	
-	private static void applyPath(GraphicsContext pGraphics, Path pPath)
+	private static void applyPath(RenderingSurface pGraphics, Path pPath)
 	{
 		pGraphics.beginPath();
 		for(PathElement element : pPath.getElements())
@@ -193,22 +191,22 @@ public final class ToolGraphics
 	 * @param pFill The fill color for the path.
 	 * @param pShadow True to include a drop shadow.
 	 */
-	public static void strokeAndFillSharpPath(GraphicsContext pGraphics, Path pPath, Paint pFill, boolean pShadow)
+	public static void strokeAndFillSharpPath(RenderingSurface pGraphics, Path pPath, Color pFill, boolean pShadow)
 	{
 		double width = pGraphics.getLineWidth();
-		Paint fill = pGraphics.getFill();
+		Color fill = pGraphics.getFill();
 		pGraphics.setLineWidth(LINE_WIDTH);
 		pGraphics.setFill(pFill);
 		applyPath(pGraphics, pPath);
 		
 		if( pShadow )
 		{
-			pGraphics.setEffect(DROP_SHADOW);
+			pGraphics.setShadow(DROP_SHADOW);
 		}
 		pGraphics.fill();
 		pGraphics.stroke();
 		pGraphics.setLineWidth(width);
 		pGraphics.setFill(fill);
-		pGraphics.setEffect(null);
+		pGraphics.setShadow(null);
 	}
 }
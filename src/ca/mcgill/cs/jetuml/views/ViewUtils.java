@@ -21,10 +21,8 @@
 package ca.mcgill.cs.jetuml.views;
 
 import ca.mcgill.cs.jetuml.geom.Rectangle;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
 import javafx.scene.text.Font;
 
 /**
@@ -54,7 +52,7 @@ public final class ViewUtils
 	 * @param pDiameter The diameter of the circle.
 	 * @param pShadow True to include a drop shadow.
 	 */
-	public static void drawCircle(GraphicsContext pGraphics, int pX, int pY, int pDiameter, Paint pFill, boolean pShadow)
+	public static void drawCircle(RenderingSurface pGraphics, int pX, int pY, int pDiameter, Color pFill, boolean pShadow)
 	{
 		drawOval( pGraphics, pX, pY, pDiameter, pDiameter, pFill, pShadow);
 	}
@@ -70,19 +68,19 @@ public final class ViewUtils
 	 * @param pHeight The height of the oval to draw.
 	 * @param pShadow True to include a drop shadow.
 	 */
-	public static void drawOval(GraphicsContext pGraphics, int pX, int pY, int pWidth, int pHeight, Paint pFill, boolean pShadow)
+	public static void drawOval(RenderingSurface pGraphics, int pX, int pY, int pWidth, int pHeight, Color pFill, boolean pShadow)
 	{
 		assert pWidth > 0 && pHeight > 0 && pFill != null && pGraphics != null;
-		Paint oldFill = pGraphics.getFill();
+		Color oldFill = pGraphics.getFill();
 		pGraphics.setFill(pFill);
 		if( pShadow )
 		{
-			pGraphics.setEffect(DROP_SHADOW);
+			pGraphics.setShadow(DROP_SHADOW);
 		}
 		pGraphics.fillOval(pX + 0.5, pY + 0.5, pWidth, pHeight);
 		pGraphics.strokeOval(pX + 0.5, pY + 0.5, pWidth, pHeight);
 		pGraphics.setFill(oldFill);
-		pGraphics.setEffect(null);
+		pGraphics.setShadow(null);
 	}
 	
 	/**
@@ -91,13 +89,13 @@ public final class ViewUtils
 	 * @param pGraphics The graphics context.
 	 * @param pRectangle The rectangle to draw.
 	 */
-	public static void drawRoundedRectangle(GraphicsContext pGraphics, Rectangle pRectangle)
+	public static void drawRoundedRectangle(RenderingSurface pGraphics, Rectangle pRectangle)
 	{
 		assert pGraphics != null && pRectangle != null;
-		pGraphics.setEffect(DROP_SHADOW);
+		pGraphics.setShadow(DROP_SHADOW);
 		pGraphics.fillRoundRect(pRectangle.getX() + 0.5, pRectangle.getY() + 0.5, 
 				pRectangle.getWidth(), pRectangle.getHeight(), ARC_SIZE, ARC_SIZE );
-		pGraphics.setEffect(null);
+		pGraphics.setShadow(null);
 		pGraphics.strokeRoundRect(pRectangle.getX() + 0.5, pRectangle.getY() + 0.5, 
 				pRectangle.getWidth(), pRectangle.getHeight(), ARC_SIZE, ARC_SIZE);
 	}
@@ -115,11 +113,11 @@ public final class ViewUtils
 	 * @param pWidth The width.
 	 * @param pHeight The height.
 	 */
-	public static void drawRectangle(GraphicsContext pGraphics, Paint pStroke, Paint pFill, 
+	public static void drawRectangle(RenderingSurface pGraphics, Color pStroke, Color pFill, 
 			int pX, int pY, int pWidth, int pHeight)
 	{
-		Paint oldFill = pGraphics.getFill();
-		Paint oldStroke = pGraphics.getStroke();
+		Color oldFill = pGraphics.getFill();
+		Color oldStroke = pGraphics.getStroke();
 		pGraphics.setFill(pFill);
 		pGraphics.setStroke(pStroke);
 		pGraphics.fillRect(pX + 0.5, pY + 0.5, pWidth, pHeight);
@@ -134,12 +132,12 @@ public final class ViewUtils
 	 * @param pGraphics The graphics context on which to draw the rectangle.
 	 * @param pRectangle The rectangle to draw.
 	 */
-	public static void drawRectangle( GraphicsContext pGraphics, Rectangle pRectangle)
+	public static void drawRectangle( RenderingSurface pGraphics, Rectangle pRectangle)
 	{
 		assert pGraphics != null && pRectangle != null;
-		pGraphics.setEffect(DROP_SHADOW);
+		pGraphics.setShadow(DROP_SHADOW);
 		pGraphics.fillRect(pRectangle.getX() + 0.5, pRectangle.getY() + 0.5, pRectangle.getWidth(), pRectangle.getHeight());
-		pGraphics.setEffect(null);
+		pGraphics.setShadow(null);
 		pGraphics.strokeRect(pRectangle.getX() + 0.5, pRectangle.getY() + 0.5, pRectangle.getWidth(), pRectangle.getHeight());
 	}
 	
@@ -153,7 +151,7 @@ public final class ViewUtils
 	 * @param pY2 The y-coordinate of the second point
 	 * @param pStyle The line style for the path.
 	 */
-	public static void drawLine(GraphicsContext pGraphics, int pX1, int pY1, int pX2, int pY2, LineStyle pStyle)
+	public static void drawLine(RenderingSurface pGraphics, int pX1, int pY1, int pX2, int pY2, LineStyle pStyle)
 	{
 		double[] oldDash = pGraphics.getLineDashes();
 		pGraphics.setLineDashes(pStyle.getLineDashes());
@@ -170,7 +168,7 @@ public final class ViewUtils
 	 * @param pText The text to draw.
 	 * @param pFont The font to use.
 	 */
-	public static void drawText(GraphicsContext pGraphics, int pX, int pY, String pText, Font pFont)
+	public static void drawText(RenderingSurface pGraphics, int pX, int pY, String pText, Font pFont)
 	{
 		Font font = pGraphics.getFont();
 		pGraphics.setFont(pFont);
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class TestBatchRenderer
+{
+	private static final Path OUTPUT = Paths.get("testdata", "render");
+	
+	private final ByteArrayOutputStream aOutput = new ByteArrayOutputStream();
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@AfterEach
+	public void deleteOutput() throws IOException
+	{
+		if( Files.exists(OUTPUT) )
+		{
+			try( Stream<Path> paths = Files.walk(OUTPUT) )
+			{
+				for( Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList()) )
+				{
+					Files.delete(path);
+				}
+			}
+		}
+	}
+	
+	private int run(String... pArguments)
+	{
+		return BatchRenderer.run(Arrays.asList(pArguments), new PrintStream(aOutput, true, StandardCharsets.UTF_8));
+	}
+	
+	private String output()
+	{
+		return new String(aOutput.toByteArray(), StandardCharsets.UTF_8);
+	}
+	
+	@Test
+	public void testRenderGlob() throws IOException
+	{
+		assertEquals(0, run("-o", OUTPUT.toString(), "-j", "2", "testdata/testPersistenceService*.jet"));
+		List<Path> images;
+		try( Stream<Path> paths = Files.list(OUTPUT) )
+		{
+			images = paths.sorted().collect(Collectors.toList());
+		}
+		assertEquals(6, images.size());
+		for( Path image : images )
+		{
+			assertTrue(image.getFileName().toString().endsWith(".png"));
+			assertNotNull(ImageIO.read(image.toFile()));
+		}
+		assertTrue(output().contains("Rendered 6 of 6 files"));
+	}
+	
+	@Test
+	public void testRenderFile()
+	{
+		assertEquals(0, run("-o", OUTPUT.toString(), "testdata/testPersistenceService.class.jet"));
+		assertTrue(Files.exists(OUTPUT.resolve("testPersistenceService.class.png")));
+	}
+	
+	@Test
+	public void testMissingFile()
+	{
+		assertEquals(1, run("-o", OUTPUT.toString(), "testdata/testPersistenceService.class.jet", "testdata/missing.class.jet"));
+		assertTrue(Files.exists(OUTPUT.resolve("testPersistenceService.class.png")));
+		assertFalse(Files.exists(OUTPUT.resolve("missing.class.png")));
+		assertTrue(output().contains("FAILED"));
+	}
+	
+	@Test
+	public void testDuplicateInput()
+	{
+		assertEquals(0, run("-o", OUTPUT.toString(), "testdata/testPersistenceService.class.jet", 
+				"testdata/testPersistenceService.class.jet", "testdata/./testPersistenceService.class.jet"));
+		assertTrue(Files.exists(OUTPUT.resolve("testPersistenceService.class.png")));
+		assertTrue(output().contains("Rendered 1 of 1 files"));
+	}
+	
+	@Test
+	public void testOutputCollision() throws IOException
+	{
+		Path copy = OUTPUT.resolve("copy").resolve("testPersistenceService.class.jet");
+		Files.createDirectories(copy.getParent());
+		Files.copy(Paths.get("testdata", "testPersistenceService.class.jet"), copy);
+		assertEquals(1, run("-o", OUTPUT.toString(), "testdata/testPersistenceService.class.jet", copy.toString(), 
+				"testdata/testPersistenceService.sequence.jet"));
+		assertFalse(Files.exists(OUTPUT.resolve("testPersistenceService.class.png")));
+		assertTrue(Files.exists(OUTPUT.resolve("testPersistenceService.sequence.png")));
+		assertTrue(output().contains("Rendered 1 of 3 files"));
+		assertEquals(2, output().lines().filter(line -> line.contains("FAILED")).count());
+	}
+	
+	@Test
+	public void testUsage()
+	{
+		assertEquals(2, BatchRenderer.run(Collections.emptyList(), new PrintStream(aOutput, true, StandardCharsets.UTF_8)));
+		assertEquals(2, run("-x", "testdata"));
+		assertEquals(2, run("-j", "0", "testdata"));
+		assertEquals(2, run("-j", "many", "testdata"));
+		assertEquals(2, run("-o"));
+	}
+}
@@ -27,11 +27,14 @@ import static ca.mcgill.cs.jetuml.testutils.CollectionAssertions.hasElementsEqua
 import static ca.mcgill.cs.jetuml.testutils.CollectionAssertions.hasElementsSameAs;
 import static ca.mcgill.cs.jetuml.testutils.CollectionAssertions.hasSize;
 import static ca.mcgill.cs.jetuml.testutils.CollectionAssertions.isEmpty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -41,6 +44,7 @@ import org.junit.jupiter.api.Test;
 
 import ca.mcgill.cs.jetuml.JavaFXLoader;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
@@ -149,6 +153,28 @@ public class TestClipboard
 		assertThat(extract(edges, Edge::getEnd), hasElementsSameAs, nodes.get(1));
 	}
 	
+	@Test
+	public void testCopyDoesNotNotifyDiagram()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(aNode1, aNode2, aDiagram);
+		aDiagram.addEdge(edge);
+		List<DiagramEvent> events = new ArrayList<>();
+		aDiagram.addListener(events::add);
+		int structuralRevision = aDiagram.getStructuralRevision();
+		int geometryRevision = aDiagram.getGeometryRevision();
+		
+		aClipboard.copy(Arrays.asList(aNode1, aNode2, edge));
+		assertThat(getClipboardEdges(), hasSize, 1);
+		assertTrue(events.isEmpty());
+		assertEquals(structuralRevision, aDiagram.getStructuralRevision());
+		assertEquals(geometryRevision, aDiagram.getGeometryRevision());
+		assertSame(aNode1, edge.getStart());
+		assertSame(aDiagram, edge.getDiagram());
+	}
+	
 	@Test
 	public void testCopyDanglingEdgeFlat()
 	{
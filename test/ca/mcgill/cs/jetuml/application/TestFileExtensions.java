@@ -24,6 +24,7 @@ import static ca.mcgill.cs.jetuml.testutils.CollectionAssertions.assertThat;
 import static ca.mcgill.cs.jetuml.testutils.CollectionAssertions.hasNoNullElements;
 import static ca.mcgill.cs.jetuml.testutils.CollectionAssertions.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -42,7 +43,7 @@ public class TestFileExtensions
 	public void all() 
 	{
 		List<ExtensionFilter> filters = FileExtensions.all();
-		assertThat(filters, hasSize, 7);
+		assertThat(filters, hasSize, 8);
 		assertThat(filters, hasNoNullElements );
 	}
 	
@@ -62,7 +63,8 @@ public class TestFileExtensions
 		assertEquals("*.state.jet", filters.get(3).getExtensions().get(0));
 		assertEquals("*.object.jet", filters.get(4).getExtensions().get(0));
 		assertEquals("*.usecase.jet", filters.get(5).getExtensions().get(0));
-		assertEquals("*.*", filters.get(6).getExtensions().get(0));
+		assertEquals("*.jetb", filters.get(6).getExtensions().get(0));
+		assertEquals("*.*", filters.get(7).getExtensions().get(0));
 	}
 	
 	@Test
@@ -88,4 +90,18 @@ public class TestFileExtensions
 		assertNotSame(file, FileExtensions.clipApplicationExtension(file));
 		assertEquals(new File("XXX").getAbsolutePath(), FileExtensions.clipApplicationExtension(file).getAbsolutePath());
 	}
+	
+	@Test
+	public void testClipApplicationExtension_hasBinaryExtension()
+	{
+		File file = new File("XXX.class.jetb");
+		assertEquals(new File("XXX.class").getAbsolutePath(), FileExtensions.clipApplicationExtension(file).getAbsolutePath());
+	}
+	
+	@Test
+	public void testIsBinary()
+	{
+		assertTrue(FileExtensions.isBinary(new File("XXX.class.jetb")));
+		assertFalse(FileExtensions.isBinary(new File("XXX.class.jet")));
+	}
 }
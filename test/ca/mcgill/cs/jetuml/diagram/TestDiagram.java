@@ -25,6 +25,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -34,11 +36,15 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
 import ca.mcgill.cs.jetuml.diagram.nodes.AbstractNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.geom.Point;
 
 public class TestDiagram 
 {
@@ -136,4 +142,224 @@ public class TestDiagram
 		assertSame(childNodes.get(0),callNode1);
 		assertSame(childNodes.get(1), callNode2);
 	}
+	
+	@Test
+	public void testStructuralRevision()
+	{
+		int revision = aDiagram.getStructuralRevision();
+		aDiagram.addRootNode(aNode1);
+		assertTrue(aDiagram.getStructuralRevision() > revision);
+		revision = aDiagram.getStructuralRevision();
+		aNode1.translate(10, 10);
+		assertEquals(revision, aDiagram.getStructuralRevision());
+		aNode3.attach(aDiagram);
+		assertTrue(aDiagram.getStructuralRevision() > revision);
+		revision = aDiagram.getStructuralRevision();
+		aNode3.detach();
+		assertTrue(aDiagram.getStructuralRevision() > revision);
+		revision = aDiagram.getStructuralRevision();
+		aDiagram.removeRootNode(aNode1);
+		assertTrue(aDiagram.getStructuralRevision() > revision);
+	}
+	
+	@Test
+	public void testGeometryRevision()
+	{
+		aDiagram.addRootNode(aNode3);
+		int revision = aDiagram.getGeometryRevision();
+		aNode3.translate(10, 10);
+		assertTrue(aDiagram.getGeometryRevision() > revision);
+		revision = aDiagram.getGeometryRevision();
+		aNode3.properties().get(PropertyName.NAME).set("Foo");
+		assertTrue(aDiagram.getGeometryRevision() > revision);
+		revision = aDiagram.getGeometryRevision();
+		aNode1.translate(10, 10);
+		assertEquals(revision, aDiagram.getGeometryRevision());
+	}
+	
+	@Test
+	public void testListener()
+	{
+		List<String> events = new ArrayList<>();
+		DiagramListener listener = event -> events.add(event.getKind() + 
+				event.getPropertyName().map(name -> " " + name).orElse(""));
+		aDiagram.addListener(listener);
+		aDiagram.addRootNode(aNode2);
+		aNode3.attach(aDiagram);
+		aNode2.addChild(aNode3);
+		aNode3.moveTo(new Point(5, 5));
+		aNode3.properties().get(PropertyName.NAME).set("Foo");
+		Edge edge = new DependencyEdge();
+		edge.connect(aNode2, aNode3, aDiagram);
+		aDiagram.addEdge(edge);
+		aDiagram.removeEdge(edge);
+		aDiagram.removeListener(listener);
+		aDiagram.removeRootNode(aNode2);
+		assertEquals(Arrays.asList("NODE_ADDED", "CHILD_REPARENTED", "NODE_MOVED", 
+				"PROPERTY_CHANGED NAME", "EDGE_CONNECTED", "EDGE_ADDED", "EDGE_REMOVED"), events);
+	}
+	
+	@Test
+	public void testBatch()
+	{
+		List<DiagramEvent> events = new ArrayList<>();
+		aDiagram.addListener(events::add);
+		aDiagram.batch(() -> 
+		{
+			aDiagram.addRootNode(aNode1);
+			aDiagram.batch(() -> aDiagram.addRootNode(aNode2));
+			aNode1.moveTo(new Point(5, 5));
+			assertTrue(events.isEmpty());
+		});
+		assertEquals(1, events.size());
+		assertEquals(DiagramEvent.Kind.BATCH, events.get(0).getKind());
+		assertEquals(3, events.get(0).getEvents().size());
+		assertSame(aNode2, events.get(0).getEvents().get(1).getElement());
+		aDiagram.batch(() -> {});
+		aNode2.moveTo(new Point(5, 5));
+		assertEquals(2, events.size());
+		assertEquals(DiagramEvent.Kind.NODE_MOVED, events.get(1).getKind());
+	}
+	
+	@Test
+	public void testTentativeBatch()
+	{
+		List<DiagramEvent> events = new ArrayList<>();
+		aDiagram.addListener(events::add);
+		assertFalse(aDiagram.tentativeBatch(() -> 
+		{
+			aDiagram.addRootNode(aNode1);
+			aDiagram.removeRootNode(aNode1);
+			return false;
+		}));
+		assertTrue(events.isEmpty());
+		aDiagram.batch(() -> 
+		{
+			aDiagram.addRootNode(aNode1);
+			aDiagram.tentativeBatch(() -> 
+			{
+				aDiagram.addRootNode(aNode2);
+				aDiagram.removeRootNode(aNode2);
+				return false;
+			});
+			assertTrue(aDiagram.tentativeBatch(() -> 
+			{
+				aDiagram.addRootNode(aNode3);
+				return true;
+			}));
+		});
+		assertEquals(1, events.size());
+		assertEquals(2, events.get(0).getEvents().size());
+		assertSame(aNode3, events.get(0).getEvents().get(1).getElement());
+	}
+	
+	@Test
+	public void testEdgesFromAndTo()
+	{
+		Edge edge1 = new DependencyEdge();
+		Edge edge2 = new AssociationEdge();
+		Edge edge3 = new DependencyEdge();
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode3);
+		edge1.connect(aNode1, aNode3, aDiagram);
+		edge2.connect(aNode3, aNode1, aDiagram);
+		edge3.connect(aNode1, aNode1, aDiagram);
+		aDiagram.addEdge(edge1);
+		aDiagram.addEdge(edge2);
+		aDiagram.addEdge(edge3);
+		
+		assertEquals(List.of(edge1, edge3), aDiagram.edgesFrom(aNode1));
+		assertEquals(List.of(edge2, edge3), aDiagram.edgesTo(aNode1));
+		assertEquals(List.of(edge1, edge3), aDiagram.edgesFrom(aNode1, DependencyEdge.class));
+		assertEquals(List.of(edge2), aDiagram.edgesTo(aNode1, AssociationEdge.class));
+		assertTrue(aDiagram.edgesTo(aNode1, AggregationEdge.class).isEmpty());
+		assertEquals(List.of(edge1, edge2, edge3), aDiagram.edgesConnectedTo(aNode1));
+		assertEquals(List.of(edge1, edge2), aDiagram.edgesConnectedTo(aNode3));
+		
+		aDiagram.removeEdge(edge1);
+		assertEquals(List.of(edge3), aDiagram.edgesFrom(aNode1));
+		assertEquals(List.of(edge2), aDiagram.edgesConnectedTo(aNode3));
+		
+		aDiagram.addEdge(0, edge1);
+		assertEquals(List.of(edge1, edge3), aDiagram.edgesFrom(aNode1));
+		assertEquals(List.of(edge1, edge2, edge3), aDiagram.edgesConnectedTo(aNode1));
+		
+		aDiagram.removeEdge(edge2);
+		aDiagram.addEdge(1, edge2);
+		assertEquals(List.of(edge1, edge2, edge3), aDiagram.edgesConnectedTo(aNode1));
+	}
+	
+	@Test
+	public void testEdgesFromAndToAfterReconnect()
+	{
+		Edge edge1 = new DependencyEdge();
+		Edge edge2 = new DependencyEdge();
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aNode3);
+		edge1.connect(aNode1, aNode2, aDiagram);
+		edge2.connect(aNode3, aNode1, aDiagram);
+		aDiagram.addEdge(edge1);
+		aDiagram.addEdge(edge2);
+		
+		edge1.connect(aNode1, aNode3, aDiagram);
+		assertEquals(List.of(edge1), aDiagram.edgesFrom(aNode1));
+		assertEquals(List.of(edge1), aDiagram.edgesTo(aNode3));
+		assertEquals(List.of(edge1, edge2), aDiagram.edgesConnectedTo(aNode3));
+		assertTrue(aDiagram.edgesTo(aNode2).isEmpty());
+		assertFalse(aDiagram.edgesConnectedTo(aNode2).iterator().hasNext());
+		
+		edge1.connect(aNode3, aNode3, aDiagram);
+		assertTrue(aDiagram.edgesFrom(aNode1).isEmpty());
+		assertEquals(List.of(edge1, edge2), aDiagram.edgesFrom(aNode3));
+		assertEquals(List.of(edge1, edge2), aDiagram.edgesConnectedTo(aNode3));
+		assertEquals(List.of(edge2), aDiagram.edgesConnectedTo(aNode1));
+		
+		aDiagram.removeEdge(edge1);
+		assertEquals(List.of(edge2), aDiagram.edgesConnectedTo(aNode3));
+		edge1.connect(aNode1, aNode2, aDiagram);
+		assertEquals(List.of(edge2), aDiagram.edgesConnectedTo(aNode1));
+		assertFalse(aDiagram.edgesConnectedTo(aNode2).iterator().hasNext());
+	}
+	
+	@Test
+	public void testEdgesFromAndToInDuplicate()
+	{
+		Edge edge1 = new DependencyEdge();
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode3);
+		edge1.connect(aNode1, aNode3, aDiagram);
+		aDiagram.addEdge(edge1);
+		
+		Diagram copy = aDiagram.duplicate();
+		Node start = copy.rootNodes().get(0);
+		Node end = copy.rootNodes().get(1);
+		assertEquals(List.of(copy.edges().get(0)), copy.edgesFrom(start));
+		assertEquals(List.of(copy.edges().get(0)), copy.edgesTo(end));
+		assertTrue(copy.edgesFrom(aNode1).isEmpty());
+	}
+	
+	@Test
+	public void testDuplicateDoesNotNotifySource()
+	{
+		Edge edge1 = new DependencyEdge();
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aNode3);
+		aNode4.attach(aDiagram);
+		aNode2.addChild(aNode4);
+		edge1.connect(aNode4, aNode3, aDiagram);
+		aDiagram.addEdge(edge1);
+		List<DiagramEvent> events = new ArrayList<>();
+		aDiagram.addListener(events::add);
+		int structuralRevision = aDiagram.getStructuralRevision();
+		int geometryRevision = aDiagram.getGeometryRevision();
+		
+		Diagram copy = aDiagram.duplicate();
+		assertTrue(events.isEmpty());
+		assertEquals(structuralRevision, aDiagram.getStructuralRevision());
+		assertEquals(geometryRevision, aDiagram.getGeometryRevision());
+		assertSame(copy, copy.edges().get(0).getDiagram());
+		assertSame(edge1, aDiagram.edges().get(0));
+		assertSame(aDiagram, edge1.getDiagram());
+	}
 }
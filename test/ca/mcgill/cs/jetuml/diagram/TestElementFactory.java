@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.diagram;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.diagram.edges.CallEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PointNode;
+
+public class TestElementFactory
+{
+	@Test
+	public void testCreatePrototypeTypes()
+	{
+		for( DiagramType diagramType : DiagramType.values() )
+		{
+			for( DiagramElement prototype : diagramType.getPrototypes() )
+			{
+				String type = prototype.getClass().getSimpleName();
+				DiagramElement element = prototype instanceof Node ? ElementFactory.createNode(type) : ElementFactory.createEdge(type);
+				assertEquals(prototype.getClass(), element.getClass());
+			}
+		}
+	}
+	
+	@Test
+	public void testCreateNonPrototypeTypes()
+	{
+		assertEquals(CallNode.class, ElementFactory.createNode("CallNode").getClass());
+		assertEquals(PointNode.class, ElementFactory.createNode("PointNode").getClass());
+		assertEquals(CallEdge.class, ElementFactory.createEdge("CallEdge").getClass());
+	}
+	
+	@Test
+	public void testCreateUnknownType()
+	{
+		assertThrows(IllegalArgumentException.class, () -> ElementFactory.createNode("AbstractNode"));
+		assertThrows(IllegalArgumentException.class, () -> ElementFactory.createNode("CallEdge"));
+		assertThrows(IllegalArgumentException.class, () -> ElementFactory.createEdge("CallNode"));
+	}
+}
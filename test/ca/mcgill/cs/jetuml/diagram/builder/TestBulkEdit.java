@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.diagram.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+
+public class TestBulkEdit
+{
+	private Diagram aDiagram;
+	private ClassDiagramBuilder aBuilder;
+	private DiagramOperationProcessor aProcessor;
+	private List<DiagramEvent> aEvents;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setUp()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aBuilder = new ClassDiagramBuilder(aDiagram);
+		aProcessor = new DiagramOperationProcessor();
+		aEvents = new ArrayList<>();
+		aDiagram.addListener(aEvents::add);
+	}
+	
+	@Test
+	public void testAddNodesAndEdges()
+	{
+		ClassNode node1 = new ClassNode();
+		ClassNode node2 = new ClassNode();
+		DependencyEdge edge = new DependencyEdge();
+		Optional<DiagramOperation> operation = aBuilder.createBulkEdit()
+				.addNode(node1, new Point(10, 20))
+				.addNode(node2, new Point(300, 20))
+				.addEdge(edge, node1, node2)
+				.apply();
+		assertTrue(operation.isPresent());
+		aProcessor.storeAlreadyExecutedOperation(operation.get());
+		assertEquals(2, aDiagram.rootNodes().size());
+		assertEquals(new Point(10, 20), node1.position());
+		assertSame(node1, edge.getStart());
+		assertSame(node2, edge.getEnd());
+		assertSame(edge, aDiagram.edges().get(0));
+		assertEquals(1, aEvents.size());
+		assertEquals(DiagramEvent.Kind.BATCH, aEvents.get(0).getKind());
+		
+		aProcessor.undoLastExecutedOperation();
+		assertTrue(aDiagram.rootNodes().isEmpty());
+		assertTrue(aDiagram.edges().isEmpty());
+		assertEquals(2, aEvents.size());
+		
+		aProcessor.redoLastUndoneOperation();
+		assertEquals(2, aDiagram.rootNodes().size());
+		assertEquals(1, aDiagram.edges().size());
+		assertEquals(3, aEvents.size());
+	}
+	
+	@Test
+	public void testEdgeToExistingNode()
+	{
+		ClassNode node1 = new ClassNode();
+		aDiagram.addRootNode(node1);
+		ClassNode node2 = new ClassNode();
+		DependencyEdge edge = new DependencyEdge();
+		assertTrue(aBuilder.createBulkEdit()
+				.addNode(node2, new Point(300, 20))
+				.addEdge(edge, node2, node1)
+				.apply().isPresent());
+		assertEquals(1, aDiagram.edges().size());
+	}
+	
+	@Test
+	public void testConstraintsIncludeEarlierEdges()
+	{
+		ClassNode node1 = new ClassNode();
+		ClassNode node2 = new ClassNode();
+		assertFalse(aBuilder.createBulkEdit()
+				.addNode(node1, new Point(10, 20))
+				.addNode(node2, new Point(300, 20))
+				.addEdge(new DependencyEdge(), node1, node2)
+				.addEdge(new DependencyEdge(), node1, node2)
+				.apply().isPresent());
+		assertTrue(aDiagram.rootNodes().isEmpty());
+		assertTrue(aDiagram.edges().isEmpty());
+	}
+	
+	@Test
+	public void testInvalidEditHasNoEffect()
+	{
+		ClassNode node1 = new ClassNode();
+		ClassNode node2 = new ClassNode();
+		DependencyEdge edge1 = new DependencyEdge();
+		DependencyEdge edge2 = new DependencyEdge();
+		DependencyEdge edge3 = new DependencyEdge();
+		edge2.connect(node2, node1, null);
+		assertFalse(aBuilder.createBulkEdit()
+				.addNode(node1, new Point(10, 20))
+				.addNode(node2, new Point(300, 20))
+				.addEdge(edge1, node1, node2)
+				.addEdge(edge2, node1, node2)
+				.addEdge(edge3, node1, node2)
+				.apply().isPresent());
+		assertEquals(new Point(0, 0), node1.position());
+		assertEquals(new Point(0, 0), node2.position());
+		assertTrue(aDiagram.rootNodes().isEmpty());
+		assertFalse(node1.getDiagram().isPresent());
+		assertEquals(null, edge1.getDiagram());
+		assertSame(node2, edge2.getStart());
+		assertSame(node1, edge2.getEnd());
+		assertEquals(null, edge2.getDiagram());
+		assertTrue(aEvents.isEmpty());
+	}
+	
+	@Test
+	public void testAddElementsOperation()
+	{
+		ClassNode node1 = new ClassNode();
+		ClassNode node2 = new ClassNode();
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(node1, node2, aDiagram);
+		aEvents.clear();
+		DiagramOperation operation = aBuilder.createAddElementsOperation(List.of(node1, node2, edge));
+		aProcessor.executeNewOperation(operation);
+		assertEquals(2, aDiagram.rootNodes().size());
+		assertSame(aDiagram, edge.getDiagram());
+		assertEquals(1, aEvents.size());
+		assertEquals(DiagramEvent.Kind.BATCH, aEvents.get(0).getKind());
+		aProcessor.undoLastExecutedOperation();
+		assertTrue(aDiagram.rootNodes().isEmpty());
+		assertEquals(2, aEvents.size());
+	}
+	
+	@Test
+	public void testNodeNotAdded()
+	{
+		ClassNode node1 = new ClassNode();
+		ClassNode node2 = new ClassNode();
+		assertFalse(aBuilder.createBulkEdit()
+				.addNode(node1, new Point(10, 20))
+				.addEdge(new DependencyEdge(), node1, node2)
+				.apply().isPresent());
+		assertTrue(aDiagram.rootNodes().isEmpty());
+	}
+	
+	@Test
+	public void testNodeRequiresParent()
+	{
+		assertFalse(aBuilder.createBulkEdit()
+				.addNode(new ClassNode(), new Point(10, 20))
+				.addNode(new FieldNode(), new Point(10, 20))
+				.apply().isPresent());
+		assertTrue(aDiagram.rootNodes().isEmpty());
+	}
+}
@@ -49,6 +49,8 @@ import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.PointNode;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
 
 public class TestClassDiagramBuilder
 {
@@ -537,4 +539,24 @@ public class TestClassDiagramBuilder
 		assertTrue(innerParent.getChildren().contains(child));
 		assertSame(innerParent, child.getParent());
 	}
+	
+	@Test
+	public void testCreateDetachFromPackageOperationUpdatesBounds()
+	{
+		PackageNode child = new PackageNode();
+		PackageNode innerParent = new PackageNode();
+		PackageNode outerParent = new PackageNode();
+		child.moveTo(new Point(300, 300));
+		innerParent.addChild(child);
+		outerParent.addChild(innerParent);
+		aDiagram.addRootNode(outerParent);
+		Rectangle childBounds = NodeViewerRegistry.getBounds(child);
+		assertTrue(NodeViewerRegistry.getBounds(innerParent).contains(childBounds));
+		assertTrue(NodeViewerRegistry.getBounds(outerParent).contains(childBounds));
+		
+		aBuilder.createUnlinkFromPackageOperation(Arrays.asList(child)).execute();
+		assertSame(outerParent, child.getParent());
+		assertFalse(NodeViewerRegistry.getBounds(innerParent).contains(childBounds));
+		assertTrue(NodeViewerRegistry.getBounds(outerParent).contains(childBounds));
+	}
 }
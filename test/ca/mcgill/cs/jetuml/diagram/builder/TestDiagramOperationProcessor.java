@@ -28,6 +28,10 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import ca.mcgill.cs.jetuml.diagram.PropertyName;
+import ca.mcgill.cs.jetuml.diagram.nodes.NoteNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+
 public class TestDiagramOperationProcessor
 {
 	private StringBuilder aBuilder;
@@ -177,6 +181,18 @@ public class TestDiagramOperationProcessor
 		assertTrue(aProcessor.hasUnsavedOperations());
 	}
 	
+	@Test
+	public void testSavePoint_OperationsAfterSavePoint()
+	{
+		aProcessor.executeNewOperation(createOperation('A'));
+		Runnable savePoint = aProcessor.savePoint();
+		aProcessor.executeNewOperation(createOperation('B'));
+		savePoint.run();
+		assertTrue(aProcessor.hasUnsavedOperations());
+		aProcessor.undoLastExecutedOperation();
+		assertFalse(aProcessor.hasUnsavedOperations());
+	}
+	
 	@Test
 	public void testDiagramSaved_Empty()
 	{
@@ -280,4 +296,142 @@ public class TestDiagramOperationProcessor
 		aProcessor.redoLastUndoneOperation();
 		assertFalse(aProcessor.hasUnsavedOperations());
 	}
+	
+	@Test
+	public void testHistoryLength()
+	{
+		DiagramOperationProcessor processor = new DiagramOperationProcessor(3, 100);
+		for( char c : "ABCDE".toCharArray() )
+		{
+			processor.executeNewOperation(createOperation(c));
+		}
+		processor.undoLastExecutedOperation();
+		processor.undoLastExecutedOperation();
+		processor.undoLastExecutedOperation();
+		assertFalse(processor.canUndo());
+		assertEquals("AB", aBuilder.toString());
+		processor.executeNewOperation(createOperation('F'));
+		processor.redoLastUndoneOperation();
+		processor.redoLastUndoneOperation();
+		assertFalse(processor.canRedo());
+		assertEquals("ABFCD", aBuilder.toString());
+	}
+	
+	@Test
+	public void testHistorySize()
+	{
+		DiagramOperationProcessor processor = new DiagramOperationProcessor(100, 4);
+		CompoundOperation operation = new CompoundOperation();
+		operation.add(createOperation('A'));
+		operation.add(createOperation('B'));
+		operation.add(createOperation('C'));
+		processor.executeNewOperation(operation);
+		processor.executeNewOperation(createOperation('D'));
+		processor.executeNewOperation(createOperation('E'));
+		processor.undoLastExecutedOperation();
+		processor.undoLastExecutedOperation();
+		assertFalse(processor.canUndo());
+		assertEquals("ABC", aBuilder.toString());
+	}
+	
+	@Test
+	public void testHistorySize_KeepsLastOperation()
+	{
+		DiagramOperationProcessor processor = new DiagramOperationProcessor(100, 1);
+		CompoundOperation operation = new CompoundOperation();
+		operation.add(createOperation('A'));
+		operation.add(createOperation('B'));
+		processor.executeNewOperation(operation);
+		processor.undoLastExecutedOperation();
+		assertEquals("", aBuilder.toString());
+		assertTrue(processor.canRedo());
+	}
+	
+	@Test
+	public void testDiagramSaved_UndoPastHistory()
+	{
+		DiagramOperationProcessor processor = new DiagramOperationProcessor(2, 100);
+		processor.diagramSaved();
+		processor.executeNewOperation(createOperation('A'));
+		processor.executeNewOperation(createOperation('B'));
+		processor.executeNewOperation(createOperation('C'));
+		processor.undoLastExecutedOperation();
+		processor.undoLastExecutedOperation();
+		assertFalse(processor.canUndo());
+		assertTrue(processor.hasUnsavedOperations());
+		processor.redoLastUndoneOperation();
+		processor.diagramSaved();
+		processor.undoLastExecutedOperation();
+		assertTrue(processor.hasUnsavedOperations());
+	}
+	
+	@Test
+	public void testCoalesceMoves()
+	{
+		NoteNode node = new NoteNode();
+		aProcessor.executeNewOperation(new MoveNodeOperation(node, 10, 20));
+		aProcessor.executeNewOperation(new MoveNodeOperation(node, 5, 5));
+		assertEquals(new Point(15, 25), node.position());
+		aProcessor.undoLastExecutedOperation();
+		assertEquals(new Point(0, 0), node.position());
+		assertFalse(aProcessor.canUndo());
+		aProcessor.redoLastUndoneOperation();
+		assertEquals(new Point(15, 25), node.position());
+	}
+	
+	@Test
+	public void testCoalesceMoves_DifferentNodes()
+	{
+		NoteNode node1 = new NoteNode();
+		NoteNode node2 = new NoteNode();
+		aProcessor.executeNewOperation(new MoveNodeOperation(node1, 10, 20));
+		aProcessor.executeNewOperation(new MoveNodeOperation(node2, 5, 5));
+		aProcessor.undoLastExecutedOperation();
+		assertTrue(aProcessor.canUndo());
+		assertEquals(new Point(10, 20), node1.position());
+	}
+	
+	@Test
+	public void testCoalesceMoves_CompoundOperations()
+	{
+		NoteNode node1 = new NoteNode();
+		NoteNode node2 = new NoteNode();
+		for( int i = 0; i < 3; i++ )
+		{
+			CompoundOperation operation = new CompoundOperation();
+			operation.add(new MoveNodeOperation(node1, 10, 0));
+			operation.add(new MoveNodeOperation(node2, 0, 10));
+			aProcessor.executeNewOperation(operation);
+		}
+		aProcessor.undoLastExecutedOperation();
+		assertFalse(aProcessor.canUndo());
+		assertEquals(new Point(0, 0), node1.position());
+		assertEquals(new Point(0, 0), node2.position());
+	}
+	
+	@Test
+	public void testCoalesce_NotAcrossSave()
+	{
+		NoteNode node = new NoteNode();
+		aProcessor.executeNewOperation(new MoveNodeOperation(node, 10, 20));
+		aProcessor.diagramSaved();
+		aProcessor.executeNewOperation(new MoveNodeOperation(node, 5, 5));
+		assertTrue(aProcessor.hasUnsavedOperations());
+		aProcessor.undoLastExecutedOperation();
+		assertFalse(aProcessor.hasUnsavedOperations());
+		assertEquals(new Point(10, 20), node.position());
+	}
+	
+	@Test
+	public void testCoalescePropertyChanges()
+	{
+		NoteNode node = new NoteNode();
+		node.setName("A");
+		aProcessor.executeNewOperation(new PropertyChangeOperation(node.properties().get(PropertyName.NAME), "A", "B"));
+		aProcessor.executeNewOperation(new PropertyChangeOperation(node.properties().get(PropertyName.NAME), "B", "C"));
+		assertEquals("C", node.getName());
+		aProcessor.undoLastExecutedOperation();
+		assertFalse(aProcessor.canUndo());
+		assertEquals("A", node.getName());
+	}
 }
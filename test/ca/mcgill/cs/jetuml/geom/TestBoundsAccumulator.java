@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.geom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TestBoundsAccumulator
+{
+	private final BoundsAccumulator aAccumulator = new BoundsAccumulator();
+	
+	@Test
+	public void testEmpty()
+	{
+		assertTrue(aAccumulator.isEmpty());
+		assertEquals(new Rectangle(0,0,0,0), aAccumulator.toRectangle());
+	}
+	
+	@Test
+	public void testSinglePoint()
+	{
+		aAccumulator.add(new Point(10,20));
+		assertFalse(aAccumulator.isEmpty());
+		assertEquals(new Rectangle(10,20,0,0), aAccumulator.toRectangle());
+	}
+	
+	@Test
+	public void testSameAsRectangleAdd()
+	{
+		Rectangle rectangle1 = new Rectangle(10,20,30,40);
+		Rectangle rectangle2 = new Rectangle(-5,30,10,100);
+		Point point = new Point(100,-10);
+		aAccumulator.add(rectangle1).add(rectangle2).add(point);
+		assertEquals(rectangle1.add(rectangle2).add(point), aAccumulator.toRectangle());
+	}
+	
+	@Test
+	public void testReset()
+	{
+		aAccumulator.add(new Rectangle(10,20,30,40));
+		aAccumulator.reset();
+		assertTrue(aAccumulator.isEmpty());
+		aAccumulator.add(5,6);
+		assertEquals(new Rectangle(5,6,0,0), aAccumulator.toRectangle());
+	}
+}
@@ -288,4 +288,24 @@ public class TestGeomUtils
 	{
 		assertEquals(new Point(3,3), GeomUtils.intersectRoundedRectangle(aRectangle, Direction.fromAngle(305)));
 	}
+	
+	@Test
+	void testDistanceToSegment()
+	{
+		assertEquals(0, GeomUtils.distanceToSegment(new Point(5,0), 0, 0, 10, 0), 0.0001);
+		assertEquals(3, GeomUtils.distanceToSegment(new Point(5,3), 0, 0, 10, 0), 0.0001);
+		assertEquals(5, GeomUtils.distanceToSegment(new Point(13,4), 0, 0, 10, 0), 0.0001);
+		assertEquals(5, GeomUtils.distanceToSegment(new Point(-3,-4), 0, 0, 10, 0), 0.0001);
+		assertEquals(5, GeomUtils.distanceToSegment(new Point(3,4), 0, 0, 0, 0), 0.0001);
+	}
+	
+	@Test
+	void testDistanceToQuadCurve()
+	{
+		// The curve passes through (0,0), (10,5), and (20,0)
+		assertEquals(0, GeomUtils.distanceToQuadCurve(new Point(0,0), 0, 0, 10, 10, 20, 0), 0.0001);
+		assertEquals(0, GeomUtils.distanceToQuadCurve(new Point(10,5), 0, 0, 10, 10, 20, 0), 0.0001);
+		assertEquals(5, GeomUtils.distanceToQuadCurve(new Point(10,10), 0, 0, 10, 10, 20, 0), 0.0001);
+		assertEquals(5, GeomUtils.distanceToQuadCurve(new Point(25,0), 0, 0, 10, 10, 20, 0), 0.0001);
+	}
 }
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.geom.Line;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.viewers.edges.EdgeViewerRegistry;
+import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
+
+public class TestDamageTracker
+{
+	private Diagram aDiagram;
+	private ClassNode aNode1;
+	private ClassNode aNode2;
+	private DependencyEdge aEdge;
+	private SelectionModel aSelection;
+	private DamageTracker aTracker;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aNode1 = new ClassNode();
+		aNode2 = new ClassNode();
+		aNode2.moveTo(new Point(300, 300));
+		aEdge = new DependencyEdge();
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aEdge.connect(aNode1, aNode2, aDiagram);
+		aDiagram.addEdge(aEdge);
+		aSelection = new SelectionModel( () -> {});
+		aTracker = new DamageTracker(aDiagram);
+	}
+	
+	private Rectangle damage()
+	{
+		Optional<Rectangle> damage = aTracker.update();
+		assertTrue(damage.isPresent());
+		return damage.get();
+	}
+	
+	@Test
+	public void testFirstUpdate()
+	{
+		Rectangle damage = damage();
+		assertTrue(damage.contains(NodeViewerRegistry.getBounds(aNode1)));
+		assertTrue(damage.contains(NodeViewerRegistry.getBounds(aNode2)));
+		assertTrue(damage.contains(EdgeViewerRegistry.getBounds(aEdge)));
+	}
+	
+	@Test
+	public void testNoChange()
+	{
+		aTracker.update();
+		assertFalse(aTracker.update().isPresent());
+	}
+	
+	@Test
+	public void testMove()
+	{
+		ClassNode node = new ClassNode();
+		node.moveTo(new Point(600, 0));
+		aDiagram.addRootNode(node);
+		aTracker.update();
+		Rectangle before = NodeViewerRegistry.getBounds(node);
+		node.translate(0, 100);
+		Rectangle damage = damage();
+		assertTrue(damage.contains(before));
+		assertTrue(damage.contains(NodeViewerRegistry.getBounds(node)));
+		assertFalse(damage.intersects(NodeViewerRegistry.getBounds(aNode1)));
+	}
+	
+	@Test
+	public void testMoveDamagesEdges()
+	{
+		aTracker.update();
+		Rectangle before = EdgeViewerRegistry.getBounds(aEdge);
+		aNode2.translate(100, 0);
+		Rectangle damage = damage();
+		assertTrue(damage.contains(before));
+		assertTrue(damage.contains(EdgeViewerRegistry.getBounds(aEdge)));
+	}
+	
+	/*
+	 * Moving a node changes the position of the other edges on the side of its 
+	 * neighbors, which must then be recorded as painted at their new position. 
+	 */
+	@Test
+	public void testMoveUpdatesEdgesOfNeighbors()
+	{
+		ClassNode node = new ClassNode();
+		node.moveTo(new Point(300, 0));
+		aDiagram.addRootNode(node);
+		AssociationEdge edge1 = new AssociationEdge();
+		edge1.connect(aNode1, aNode2, aDiagram);
+		aDiagram.addEdge(edge1);
+		AssociationEdge edge2 = new AssociationEdge();
+		edge2.connect(aNode1, node, aDiagram);
+		aDiagram.addEdge(edge2);
+		aTracker.update();
+		node.translate(0, 600);
+		aTracker.update();
+		ClassNode other = new ClassNode();
+		other.moveTo(new Point(2000, 2000));
+		aDiagram.addRootNode(other);
+		assertFalse(damage().intersects(EdgeViewerRegistry.getBounds(edge1)));
+	}
+	
+	@Test
+	public void testMoveChild()
+	{
+		PackageNode packageNode = new PackageNode();
+		ClassNode child = new ClassNode();
+		child.moveTo(new Point(600, 0));
+		packageNode.addChild(child);
+		aDiagram.addRootNode(packageNode);
+		child.attach(aDiagram);
+		aTracker.update();
+		Rectangle before = NodeViewerRegistry.getBounds(packageNode);
+		child.translate(0, 100);
+		Rectangle damage = damage();
+		assertTrue(damage.contains(before));
+		assertTrue(damage.contains(NodeViewerRegistry.getBounds(packageNode)));
+		assertFalse(damage.intersects(NodeViewerRegistry.getBounds(aNode1)));
+	}
+	
+	@Test
+	public void testPropertyChange()
+	{
+		aTracker.update();
+		aNode2.setName("X");
+		assertTrue(damage().contains(NodeViewerRegistry.getBounds(aNode2)));
+	}
+	
+	@Test
+	public void testAddAndRemove()
+	{
+		aTracker.update();
+		ClassNode node = new ClassNode();
+		node.moveTo(new Point(600, 0));
+		aDiagram.addRootNode(node);
+		Rectangle bounds = NodeViewerRegistry.getBounds(node);
+		Rectangle damage = damage();
+		assertTrue(damage.contains(bounds));
+		assertFalse(damage.intersects(NodeViewerRegistry.getBounds(aNode1)));
+		aDiagram.removeRootNode(node);
+		assertTrue(damage().contains(bounds));
+	}
+	
+	@Test
+	public void testSelectionAndToolsNotTracked()
+	{
+		aTracker.update();
+		aSelection.addToSelection(aNode1);
+		aSelection.activateRubberband(new Line(new Point(500, 500), new Point(550, 520)));
+		aSelection.activateLasso(new Rectangle(600, 600, 10, 10), aDiagram);
+		assertFalse(aTracker.update().isPresent());
+	}
+}
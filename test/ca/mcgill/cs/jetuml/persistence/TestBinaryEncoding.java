@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.JetUML;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+
+public class TestBinaryEncoding
+{
+	private static final File TEST_FILE = new File("testdata/tmp.class.jetb");
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@AfterEach
+	public void deleteTestFile()
+	{
+		TEST_FILE.delete();
+	}
+	
+	private static byte[] encode(Diagram pDiagram) throws IOException
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		BinaryEncoder.encode(pDiagram, output);
+		return output.toByteArray();
+	}
+	
+	/*
+	 * Compares the JSON encodings of the two diagrams. The order of the
+	 * nodes in the encoding is not significant.
+	 */
+	private static void assertSameEncoding(Diagram pExpected, Diagram pActual)
+	{
+		JSONObject expected = JsonEncoder.encode(pExpected);
+		JSONObject actual = JsonEncoder.encode(pActual);
+		assertEquals(expected.getString("diagram"), actual.getString("diagram"));
+		assertEquals(expected.getString("version"), actual.getString("version"));
+		assertEquals(nodesById(expected), nodesById(actual));
+		assertEquals(expected.getJSONArray("edges").toString(), actual.getJSONArray("edges").toString());
+	}
+	
+	private static Map<Integer, String> nodesById(JSONObject pDiagram)
+	{
+		Map<Integer, String> result = new HashMap<>();
+		JSONArray nodes = pDiagram.getJSONArray("nodes");
+		for( int i = 0; i < nodes.length(); i++ )
+		{
+			result.put(nodes.getJSONObject(i).getInt("id"), nodes.getJSONObject(i).toString());
+		}
+		return result;
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = {"testdata/testPersistenceService.class.jet", "testdata/testPersistenceService2.class.jet",
+			"testdata/testPersistenceService.sequence.jet", "testdata/testPersistenceService.state.jet", 
+			"testdata/testPersistenceService.object.jet", "testdata/testPersistenceService.usecase.jet"})
+	public void testRoundTrip(String pFileName) throws IOException
+	{
+		Diagram diagram = PersistenceService.read(new File(pFileName)).diagram();
+		byte[] bytes = encode(diagram);
+		VersionedDiagram decoded = BinaryDecoder.decode(new ByteArrayInputStream(bytes));
+		assertFalse(decoded.wasMigrated());
+		assertSameEncoding(diagram, decoded.diagram());
+		assertTrue(bytes.length < JsonEncoder.encode(diagram).toString().getBytes(StandardCharsets.UTF_8).length);
+	}
+	
+	@Test
+	public void testSaveAndRead() throws IOException
+	{
+		Diagram diagram = PersistenceService.read(new File("testdata/testPersistenceService.class.jet")).diagram();
+		PersistenceService.save(diagram, TEST_FILE);
+		try( InputStream input = new BufferedInputStream(new FileInputStream(TEST_FILE)) )
+		{
+			assertTrue(BinaryDecoder.isBinary(input));
+		}
+		assertSameEncoding(diagram, PersistenceService.read(TEST_FILE).diagram());
+	}
+	
+	@Test
+	public void testNotBinary()
+	{
+		byte[] bytes = "{\"diagram\":\"ClassDiagram\"}".getBytes(StandardCharsets.UTF_8);
+		assertThrows(DeserializationException.class, () -> BinaryDecoder.decode(new ByteArrayInputStream(bytes)));
+	}
+	
+	@Test
+	public void testCorruptStringLength()
+	{
+		// A string table of one string whose length is the largest varint, followed by three bytes
+		byte[] bytes = { 'J', 'E', 'T', 'B', 1, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 7, 'a', 'b', 'c' };
+		assertThrows(DeserializationException.class, () -> BinaryDecoder.decode(new ByteArrayInputStream(bytes)));
+	}
+	
+	@Test
+	public void testCorruptCount()
+	{
+		// A string table whose size is the largest varint, followed by one string
+		byte[] bytes = { 'J', 'E', 'T', 'B', 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 7, 1, 'a' };
+		assertThrows(DeserializationException.class, () -> BinaryDecoder.decode(new ByteArrayInputStream(bytes)));
+	}
+	
+	@Test
+	public void testDuplicatePropertyInLayout() throws IOException
+	{
+		// A class diagram with one layout that names the same property twice, and no elements
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.write(BinaryFormat.MAGIC);
+		output.writeByte(BinaryFormat.FORMAT_VERSION);
+		BinaryFormat.writeVarint(output, 4);
+		BinaryFormat.writeString(output, JetUML.VERSION.toString());
+		BinaryFormat.writeString(output, DiagramType.CLASS.getName());
+		BinaryFormat.writeString(output, "ClassNode");
+		BinaryFormat.writeString(output, "name");
+		BinaryFormat.writeVarint(output, 0);
+		BinaryFormat.writeVarint(output, 1);
+		BinaryFormat.writeVarint(output, 1);
+		BinaryFormat.writeVarint(output, 2);
+		BinaryFormat.writeVarint(output, 2);
+		BinaryFormat.writeVarint(output, 3);
+		BinaryFormat.writeVarint(output, 3);
+		BinaryFormat.writeVarint(output, 0);
+		BinaryFormat.writeVarint(output, 0);
+		assertThrows(DeserializationException.class, () -> BinaryDecoder.decode(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+	
+	@Test
+	public void testReadUnsupportedFormat() throws IOException
+	{
+		Diagram diagram = PersistenceService.read(new File("testdata/testPersistenceService.class.jet")).diagram();
+		byte[] bytes = encode(diagram);
+		bytes[4] = 2;
+		Files.write(TEST_FILE.toPath(), bytes);
+		DeserializationException exception = assertThrows(DeserializationException.class, () -> PersistenceService.read(TEST_FILE));
+		assertEquals("Not a binary diagram of a supported format", exception.getMessage());
+	}
+}
@@ -20,13 +20,30 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.persistence;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.JetUML;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.geom.Point;
 
 public class TestJsonDecoder
 {
@@ -59,4 +76,89 @@ public class TestJsonDecoder
 		object.put("diagram", "StateDiagram");
 		assertThrows(DeserializationException.class, () -> JsonDecoder.decode(object));
 	}
+	
+	@Test
+	public void testStreamedDecoding()
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		PackageNode packageNode = new PackageNode();
+		packageNode.setName("p");
+		ClassNode inner = new ClassNode();
+		inner.setName("Inner");
+		inner.moveTo(new Point(10, 20));
+		packageNode.addChild(inner);
+		ClassNode outer = new ClassNode();
+		outer.setName("Outer");
+		diagram.addRootNode(packageNode);
+		diagram.addRootNode(outer);
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(inner, outer, diagram);
+		diagram.addEdge(edge);
+		
+		VersionedDiagram decoded = JsonDecoder.decode(new StringReader(JsonEncoder.encode(diagram).toString())).get();
+		assertFalse(decoded.wasMigrated());
+		assertEquals(JetUML.VERSION, decoded.version());
+		List<Node> roots = new ArrayList<>();
+		decoded.diagram().rootNodes().forEach(roots::add);
+		assertEquals(2, roots.size());
+		PackageNode decodedPackage = (PackageNode) (roots.get(0) instanceof PackageNode ? roots.get(0) : roots.get(1));
+		assertEquals("p", decodedPackage.getName());
+		assertEquals(1, decodedPackage.getChildren().size());
+		Node decodedInner = decodedPackage.getChildren().get(0);
+		assertSame(decodedPackage, decodedInner.getParent());
+		assertEquals(new Point(10, 20), decodedInner.position());
+		List<Edge> edges = new ArrayList<>();
+		decoded.diagram().edges().forEach(edges::add);
+		assertEquals(1, edges.size());
+		assertSame(decodedInner, edges.get(0).getStart());
+		assertEquals("Outer", ((ClassNode) edges.get(0).getEnd()).getName());
+		assertSame(decoded.diagram(), edges.get(0).getDiagram());
+		assertTrue(decodedInner.getDiagram().isPresent());
+	}
+	
+	/*
+	 * Diagrams that need to be migrated are left to the VersionMigrator.
+	 */
+	@Test
+	public void testStreamedDecodingOldVersion()
+	{
+		String text = "{\"diagram\":\"StateDiagram\",\"nodes\":[],\"edges\":[],\"version\":\"2.4\"}";
+		assertFalse(JsonDecoder.decode(new StringReader(text)).isPresent());
+	}
+	
+	/*
+	 * Elements that cannot be decoded are left to the VersionMigrator if the version 
+	 * requires migration, and reported otherwise.
+	 */
+	@Test
+	public void testStreamedDecodingOldElements()
+	{
+		String edges = "\"edges\":[{\"type\":\"DependencyEdge\",\"start\":0,\"end\":1,\"label\":\"\"}]";
+		String nodes = "\"nodes\":[{\"type\":\"ClassNode\",\"id\":0,\"x\":0,\"y\":0,\"name\":\"A\",\"attributes\":\"\","
+				+ "\"methods\":\"\"},{\"type\":\"ClassNode\",\"id\":1,\"x\":0,\"y\":0,\"name\":\"B\",\"attributes\":\"\",\"methods\":\"\"}]";
+		String text = "{\"diagram\":\"ClassDiagram\"," + nodes + "," + edges + ",\"version\":";
+		assertFalse(JsonDecoder.decode(new StringReader(text + "\"2.4\"}")).isPresent());
+		assertThrows(DeserializationException.class, () -> JsonDecoder.decode(new StringReader(text + "\"3.0\"}")));
+	}
+	
+	/*
+	 * Documents whose diagram type does not precede the elements are left to the VersionMigrator.
+	 */
+	@Test
+	public void testStreamedDecodingOtherLayout()
+	{
+		String text = "{\"nodes\":[],\"edges\":[],\"diagram\":\"StateDiagram\",\"version\":\"3.0\"}";
+		assertFalse(JsonDecoder.decode(new StringReader(text)).isPresent());
+	}
+	
+	@Test
+	public void testStreamedDecodingIncomplete()
+	{
+		assertThrows(DeserializationException.class, 
+				() -> JsonDecoder.decode(new StringReader("{\"version\":\"3.0\",\"diagram\":\"StateDiagram\"}")));
+		assertThrows(DeserializationException.class, 
+				() -> JsonDecoder.decode(new StringReader("{\"diagram\":\"StateDiagram\",\"nodes\":[],\"edges\":[{\"type\":\"NoteEdge\",\"start\":0,\"end\":1}],\"version\":\"3.0\"}")));
+		assertThrows(DeserializationException.class, 
+				() -> JsonDecoder.decode(new StringReader("{\"diagram\":\"StateDiagram\",\"nodes\":[")));
+	}
 }
@@ -27,6 +27,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Iterator;
 
 import org.json.JSONObject;
@@ -99,4 +101,17 @@ public class TestJsonEncodingClassDiagram
 		assertSame(p, node.getParent());
 		assertEquals("class", node.getName());
 	}
+	
+	@Test
+	public void testStreamedEncodingSameAsObject() throws IOException
+	{
+		initiGraph1();
+		ClassNode node = new ClassNode();
+		node.setName("<\"quoted\">\n");
+		node.setMethods("foo()");
+		aGraph.addRootNode(node);
+		StringWriter writer = new StringWriter();
+		JsonEncoder.encode(aGraph, writer);
+		assertEquals(JsonEncoder.encode(aGraph).toString(), writer.toString());
+	}
 }
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+public class TestJsonObjectWriter
+{
+	private final JsonObjectWriter aWriter = new JsonObjectWriter();
+	private final JSONObject aObject = new JSONObject();
+	
+	private void put(String pKey, Object pValue)
+	{
+		aWriter.put(pKey, pValue);
+		aObject.put(pKey, pValue);
+	}
+	
+	private String write() throws IOException
+	{
+		StringWriter writer = new StringWriter();
+		aWriter.write(writer);
+		return writer.toString();
+	}
+	
+	@Test
+	public void testEmpty() throws IOException
+	{
+		assertEquals("{}", write());
+	}
+	
+	@Test
+	public void testSameAsJSONObject() throws IOException
+	{
+		put("name", "Foo");
+		put("id", 3);
+		put("type", "ClassNode");
+		put("x", -10);
+		put("openBottom", true);
+		put("Aggregation Type", "Composition");
+		assertEquals(aObject.toString(), write());
+	}
+	
+	@Test
+	public void testSameAsJSONObjectAfterResize() throws IOException
+	{
+		for( int i = 0; i < 40; i++ )
+		{
+			put("key" + i, i);
+		}
+		assertEquals(aObject.toString(), write());
+	}
+	
+	@Test
+	public void testReplace() throws IOException
+	{
+		put("type", "A");
+		put("name", "Foo");
+		put("type", "B");
+		assertEquals(aObject.toString(), write());
+	}
+	
+	@Test
+	public void testValueAndArray() throws IOException
+	{
+		aWriter.put("values", (JsonObjectWriter.Value) writer -> 
+			JsonObjectWriter.writeArray(Arrays.asList(1, 2, 3), (element, out) -> out.write(element.toString()), writer));
+		assertEquals("{\"values\":[1,2,3]}", write());
+	}
+}
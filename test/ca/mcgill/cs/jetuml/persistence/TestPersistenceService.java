@@ -196,6 +196,34 @@ public class TestPersistenceService
 		tmp.delete();
 	}
 	
+	@Test
+	public void testProgress() throws Exception
+	{
+		File file = new File("testdata/testPersistenceService.class.jet");
+		long[] progress = new long[1];
+		Diagram graph = PersistenceService.read(file, pBytesRead -> 
+		{
+			assertTrue(pBytesRead > progress[0]);
+			progress[0] = pBytesRead;
+		}).diagram();
+		assertEquals(file.length(), progress[0]);
+		
+		for( String name : new String[] { TEST_FILE_NAME, TEST_FILE_NAME + ".jetb" } )
+		{
+			File tmp = new File(name);
+			tmp.delete();
+			progress[0] = 0;
+			PersistenceService.save(graph, tmp, pBytesWritten -> 
+			{
+				assertTrue(pBytesWritten > progress[0]);
+				progress[0] = pBytesWritten;
+			});
+			assertEquals(tmp.length(), progress[0]);
+			assertEquals(numberOfRootNodes(graph), numberOfRootNodes(PersistenceService.read(tmp).diagram()));
+			tmp.delete();
+		}
+	}
+	
 	private void verifyUseCaseDiagram(Diagram pDiagram)
 	{
 		assertEquals(9, numberOfRootNodes(pDiagram));
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.InterfaceNode;
+
+public class TestVersionMigrator
+{
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	private static JSONObject node(int pId, String pType, String pName)
+	{
+		JSONObject object = new JSONObject();
+		object.put("id", pId);
+		object.put("type", pType);
+		object.put("name", pName);
+		object.put("x", 0);
+		object.put("y", 0);
+		object.put("methods", "");
+		object.put("attributes", "");
+		return object;
+	}
+	
+	private static JSONObject edge(String pType, int pStart, int pEnd, String pLabel)
+	{
+		JSONObject object = new JSONObject();
+		object.put("type", pType);
+		object.put("start", pStart);
+		object.put("end", pEnd);
+		object.put("startLabel", "");
+		object.put("middleLabel", pLabel);
+		object.put("endLabel", "");
+		return object;
+	}
+	
+	private static JSONObject diagram(String pVersion, JSONObject[] pNodes, JSONObject[] pEdges)
+	{
+		JSONObject diagram = new JSONObject();
+		diagram.put("diagram", "ClassDiagram");
+		diagram.put("version", pVersion);
+		diagram.put("nodes", new JSONArray(pNodes));
+		diagram.put("edges", new JSONArray(pEdges));
+		return diagram;
+	}
+	
+	@Test
+	public void testCompatibleVersion()
+	{
+		JSONObject diagram = diagram("3.0", new JSONObject[] { node(0, "ClassNode", "A") }, new JSONObject[0]);
+		assertFalse(new VersionMigrator().migrate(diagram).wasMigrated());
+	}
+	
+	@Test
+	public void testMigrateEdges()
+	{
+		JSONObject association = edge("AssociationEdge", 1, 0, "");
+		association.put("directionality", "Start");
+		JSONObject diagram = diagram("2.4", 
+				new JSONObject[] { node(0, "ClassNode", "A"), node(1, "InterfaceNode", "\u00ABinterface\u00BB\nI") }, 
+				new JSONObject[] { 
+						edge("DependencyEdge", 0, 0, "self"),
+						edge("DependencyEdge", 0, 1, "uses"),
+						association,
+						edge("DependencyEdge", 1, 0, "used") });
+		
+		VersionedDiagram migrated = new VersionMigrator().migrate(diagram);
+		assertTrue(migrated.wasMigrated());
+		List<Edge> edges = new ArrayList<>();
+		migrated.diagram().edges().forEach(edges::add);
+		assertEquals(2, edges.size());
+		
+		DependencyEdge dependency = (DependencyEdge) edges.get(0);
+		assertEquals(DependencyEdge.Directionality.Bidirectional, dependency.getDirectionality());
+		assertEquals("uses + used", dependency.getMiddleLabel());
+		
+		AssociationEdge flipped = (AssociationEdge) edges.get(1);
+		assertEquals(AssociationEdge.Directionality.Unidirectional, flipped.getDirectionality());
+		assertTrue(flipped.getStart() instanceof ClassNode);
+		
+		for( Node node : migrated.diagram().rootNodes() )
+		{
+			if( node instanceof InterfaceNode )
+			{
+				assertEquals("I", ((InterfaceNode) node).getName());
+			}
+		}
+	}
+}
@@ -21,6 +21,7 @@
 package ca.mcgill.cs.jetuml.viewers.edges;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,6 +32,7 @@ import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
 import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 
 public class TestDependencyEdgeViewer
@@ -68,4 +70,17 @@ public class TestDependencyEdgeViewer
 		assertEquals(new Rectangle(99,23,102,12), EdgeViewerRegistry.getBounds(aEdge));
 
 	}
+	
+	@Test
+	public void testConnectionPointsFollowNodes()
+	{
+		DependencyEdgeViewer viewer = new DependencyEdgeViewer();
+		Line before = viewer.getConnectionPoints(aEdge);
+		aNode2.translate(0, 100);
+		Line after = viewer.getConnectionPoints(aEdge);
+		assertNotEquals(before.getPoint2(), after.getPoint2());
+		Line expected = new DependencyEdgeViewer().getConnectionPoints(aEdge);
+		assertEquals(expected.getPoint1(), after.getPoint1());
+		assertEquals(expected.getPoint2(), after.getPoint2());
+	}
 }
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.edges;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.PropertyName;
+import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+
+public class TestEdgeBoundsCache
+{
+	private ClassNode aNode1;
+	private ClassNode aNode2;
+	private ClassNode aNode3;
+	private AssociationEdge aEdge1;
+	private AssociationEdge aEdge2;
+	private Diagram aDiagram;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aNode1 = new ClassNode();
+		aNode2 = new ClassNode();
+		aNode3 = new ClassNode();
+		aEdge1 = new AssociationEdge();
+		aEdge2 = new AssociationEdge();
+		aDiagram = new Diagram(DiagramType.CLASS);
+		
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aNode3);
+		aNode2.translate(300, 0);
+		aNode3.translate(300, 200);
+		aEdge1.connect(aNode1, aNode2, aDiagram);
+		aDiagram.addEdge(aEdge1);
+	}
+	
+	@Test
+	public void testUnchanged()
+	{
+		assertSame(EdgeViewerRegistry.getBounds(aEdge1), EdgeViewerRegistry.getBounds(aEdge1));
+	}
+	
+	@Test
+	public void testNodeMoved()
+	{
+		Rectangle before = EdgeViewerRegistry.getBounds(aEdge1);
+		aNode2.translate(100, 0);
+		assertEquals(before.getWidth() + 100, EdgeViewerRegistry.getBounds(aEdge1).getWidth());
+	}
+	
+	@Test
+	public void testUnrelatedNodeMoved()
+	{
+		Rectangle before = EdgeViewerRegistry.getBounds(aEdge1);
+		aNode3.translate(0, 100);
+		assertSame(before, EdgeViewerRegistry.getBounds(aEdge1));
+	}
+	
+	@Test
+	public void testLabelChangedWithSetter()
+	{
+		Rectangle before = EdgeViewerRegistry.getBounds(aEdge1);
+		aEdge1.setMiddleLabel("A label long enough to widen the edge bounds");
+		assertNotEquals(before, EdgeViewerRegistry.getBounds(aEdge1));
+	}
+	
+	@Test
+	public void testPropertyChanged()
+	{
+		Rectangle before = EdgeViewerRegistry.getBounds(aEdge1);
+		aEdge1.properties().get(PropertyName.MIDDLE_LABEL).set("A label long enough to widen the edge bounds");
+		assertNotEquals(before, EdgeViewerRegistry.getBounds(aEdge1));
+		assertEquals(new AssociationEdgeViewer().getBounds(aEdge1), EdgeViewerRegistry.getBounds(aEdge1));
+	}
+	
+	@Test
+	public void testOtherEndOfNeighborMoved()
+	{
+		aEdge2.connect(aNode1, aNode3, aDiagram);
+		aDiagram.addEdge(aEdge2);
+		Rectangle before = EdgeViewerRegistry.getBounds(aEdge2);
+		aNode2.translate(0, 400); // Edge 1 now attaches below edge 2
+		assertNotEquals(before, EdgeViewerRegistry.getBounds(aEdge2));
+		assertEquals(new AssociationEdgeViewer().getBounds(aEdge2), EdgeViewerRegistry.getBounds(aEdge2));
+	}
+}
@@ -21,6 +21,7 @@
 package ca.mcgill.cs.jetuml.viewers.edges;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +31,7 @@ import ca.mcgill.cs.jetuml.JavaFXLoader;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.PropertyName;
 import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
@@ -572,4 +574,23 @@ public class TestSegmentationStrategies
 		assertEquals( 1061, points[3].getX(), 0.01);
 		assertEquals( 60, points[3].getY(), 0.01);
 	}
+	
+	@Test
+	public void testAggregatedGeneralizationsShareSlot()
+	{
+		GeneralizationEdge edge1 = new GeneralizationEdge(Type.Inheritance);
+		GeneralizationEdge edge2 = new GeneralizationEdge(Type.Implementation);
+		edge1.connect(aNode1, aNode5, aGraph);
+		edge2.connect(aNode2, aNode5, aGraph);
+		aGraph.addEdge(edge1);
+		aGraph.addEdge(edge2);
+		Point2D[] path1 = SegmentationStyleFactory.createVHVStrategy().getPath(edge1);
+		Point2D[] path2 = SegmentationStyleFactory.createVHVStrategy().getPath(edge2);
+		assertNotEquals(path1[path1.length - 1], path2[path2.length - 1]);
+		
+		edge2.properties().get(PropertyName.GENERALIZATION_TYPE).set(Type.Inheritance.name());
+		path1 = SegmentationStyleFactory.createVHVStrategy().getPath(edge1);
+		path2 = SegmentationStyleFactory.createVHVStrategy().getPath(edge2);
+		assertEquals(path1[path1.length - 1], path2[path2.length - 1]);
+	}
 }
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.edges;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.edges.StateTransitionEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.StateNode;
+import ca.mcgill.cs.jetuml.geom.Line;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import javafx.scene.shape.Arc;
+
+public class TestStateTransitionEdgeViewer
+{
+	private static final StateTransitionEdgeViewer VIEWER = new StateTransitionEdgeViewer();
+	// Points that lie on the boundary of the area can fall on either side.
+	private static final int TOLERANCE = 12;
+	
+	private StateNode aNode1;
+	private StateNode aNode2;
+	private Diagram aDiagram;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aNode1 = new StateNode();
+		aNode2 = new StateNode();
+		aNode2.moveTo(new Point(200, 100));
+		aDiagram = new Diagram(DiagramType.STATE);
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+	}
+	
+	private StateTransitionEdge connect(StateNode pStart, StateNode pEnd)
+	{
+		StateTransitionEdge edge = new StateTransitionEdge();
+		edge.connect(pStart, pEnd, aDiagram);
+		aDiagram.addEdge(edge);
+		return edge;
+	}
+	
+	/*
+	 * Counts the points of the area around the edge for which contains
+	 * disagrees with the test on the enlarged shape of the edge.
+	 */
+	private static int countMismatches(StateTransitionEdge pEdge)
+	{
+		Rectangle bounds = VIEWER.getBounds(pEdge);
+		Line connectionPoints = VIEWER.getConnectionPoints(pEdge);
+		int mismatches = 0;
+		for( int x = bounds.getX() - 20; x <= bounds.getMaxX() + 20; x++ )
+		{
+			for( int y = bounds.getY() - 20; y <= bounds.getMaxY() + 20; y++ )
+			{
+				Point point = new Point(x, y);
+				if( VIEWER.contains(pEdge, point) != shapeContains(pEdge, connectionPoints, point) )
+				{
+					mismatches++;
+				}
+			}
+		}
+		return mismatches;
+	}
+	
+	private static boolean shapeContains(StateTransitionEdge pEdge, Line pConnectionPoints, Point pPoint)
+	{
+		if( VIEWER.getShape(pEdge) instanceof Arc )
+		{
+			Arc arc = (Arc) VIEWER.getShape(pEdge);
+			arc.setRadiusX(arc.getRadiusX() + 2 * AbstractEdgeViewer.MAX_DISTANCE);
+			arc.setRadiusY(arc.getRadiusY() + 2 * AbstractEdgeViewer.MAX_DISTANCE);
+			return arc.contains(pPoint.getX(), pPoint.getY());
+		}
+		if( pPoint.distance(pConnectionPoints.getPoint1()) <= AbstractEdgeViewer.MAX_DISTANCE || 
+				pPoint.distance(pConnectionPoints.getPoint2()) <= AbstractEdgeViewer.MAX_DISTANCE )
+		{
+			return false;
+		}
+		return AbstractEdgeViewer.isNearShape(VIEWER.getShape(pEdge), pPoint);
+	}
+	
+	@Test
+	public void testContainsNormalEdge()
+	{
+		StateTransitionEdge edge = connect(aNode1, aNode2);
+		Line connectionPoints = VIEWER.getConnectionPoints(edge);
+		assertFalse(VIEWER.contains(edge, connectionPoints.getPoint1()));
+		assertFalse(VIEWER.contains(edge, new Point(0, 200)));
+	}
+	
+	@Test
+	public void testContainsMatchesShapeNormalEdge()
+	{
+		StateTransitionEdge edge = connect(aNode1, aNode2);
+		connect(aNode2, aNode1);
+		assertTrue(countMismatches(edge) <= TOLERANCE);
+	}
+	
+	@Test
+	public void testContainsMatchesShapeSelfEdges()
+	{
+		StateTransitionEdge edge1 = connect(aNode1, aNode1);
+		StateTransitionEdge edge2 = connect(aNode1, aNode1);
+		assertTrue(countMismatches(edge1) <= TOLERANCE);
+		assertTrue(countMismatches(edge2) <= TOLERANCE);
+	}
+}
@@ -120,4 +120,30 @@ public class TestCallNodeViewer
 		assertEquals(new Rectangle(32, 80, 16, 135), NodeViewerRegistry.getBounds(aDefaultCallNode1));
 		assertEquals(new Rectangle(32, 165, 16, 30), NodeViewerRegistry.getBounds(aDefaultCallNode2));
 	}
+	
+	@Test
+	public void testGetBoundsAfterStructureChanged()
+	{
+		aImplicitParameterNode1.addChild(aDefaultCallNode1);
+		aDefaultCallNode1.attach(aDiagram);
+		aImplicitParameterNode2.addChild(aDefaultCallNode2);
+		aDefaultCallNode2.attach(aDiagram);
+		aImplicitParameterNode2.translate(200, 0);
+		aDiagram.addRootNode(aImplicitParameterNode1);
+		aDiagram.addRootNode(aImplicitParameterNode2);
+		
+		assertEquals(new Rectangle(32, 80, 16, 30), NodeViewerRegistry.getBounds(aDefaultCallNode1));
+		
+		aCallEdge1.connect(aDefaultCallNode1, aDefaultCallNode2, aDiagram);
+		aDiagram.addEdge(aCallEdge1);
+		assertEquals(new Rectangle(32, 80, 16, 70), NodeViewerRegistry.getBounds(aDefaultCallNode1));
+		assertEquals(new Rectangle(232, 100, 16, 30), NodeViewerRegistry.getBounds(aDefaultCallNode2));
+		
+		aImplicitParameterNode2.translate(100, 0);
+		assertEquals(new Rectangle(332, 100, 16, 30), NodeViewerRegistry.getBounds(aDefaultCallNode2));
+		
+		aDiagram.removeEdge(aCallEdge1);
+		assertEquals(new Rectangle(32, 80, 16, 30), NodeViewerRegistry.getBounds(aDefaultCallNode1));
+		assertEquals(new Rectangle(332, 80, 16, 30), NodeViewerRegistry.getBounds(aDefaultCallNode2));
+	}
 }
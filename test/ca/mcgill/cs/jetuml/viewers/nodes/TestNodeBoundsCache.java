@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.nodes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.PropertyName;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ObjectNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+
+public class TestNodeBoundsCache
+{
+	private Diagram aDiagram;
+	private ClassNode aClassNode;
+	private PackageNode aPackageNode;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aClassNode = new ClassNode();
+		aPackageNode = new PackageNode();
+	}
+	
+	@Test
+	public void testNotInDiagram()
+	{
+		assertNotSameBounds(aClassNode);
+	}
+	
+	@Test
+	public void testUnchanged()
+	{
+		aDiagram.addRootNode(aClassNode);
+		assertSame(NodeViewerRegistry.getBounds(aClassNode), NodeViewerRegistry.getBounds(aClassNode));
+	}
+	
+	@Test
+	public void testMoved()
+	{
+		aDiagram.addRootNode(aClassNode);
+		Rectangle before = NodeViewerRegistry.getBounds(aClassNode);
+		aClassNode.translate(10, 20);
+		assertEquals(before.translated(10, 20), NodeViewerRegistry.getBounds(aClassNode));
+		aClassNode.moveTo(new Point(100, 200));
+		assertEquals(new TypeNodeViewer().getBounds(aClassNode), NodeViewerRegistry.getBounds(aClassNode));
+	}
+	
+	@Test
+	public void testPropertyChanged()
+	{
+		aDiagram.addRootNode(aClassNode);
+		Rectangle before = NodeViewerRegistry.getBounds(aClassNode);
+		aClassNode.properties().get(PropertyName.METHODS).set("foo()\nbar()\nbaz()\nqux()");
+		Rectangle after = NodeViewerRegistry.getBounds(aClassNode);
+		assertNotEquals(before, after);
+		assertEquals(new TypeNodeViewer().getBounds(aClassNode), after);
+	}
+	
+	@Test
+	public void testPropertyChangedWithSetter()
+	{
+		aDiagram.addRootNode(aClassNode);
+		Rectangle before = NodeViewerRegistry.getBounds(aClassNode);
+		aClassNode.setAttributes("attribute1\nattribute2\nattribute3\nattribute4");
+		assertNotEquals(before, NodeViewerRegistry.getBounds(aClassNode));
+	}
+	
+	@Test
+	public void testPackageChildMoved()
+	{
+		aPackageNode.addChild(aClassNode);
+		aDiagram.addRootNode(aPackageNode);
+		aClassNode.attach(aDiagram);
+		Rectangle before = NodeViewerRegistry.getBounds(aPackageNode);
+		assertSame(before, NodeViewerRegistry.getBounds(aPackageNode));
+		aClassNode.translate(200, 0);
+		Rectangle after = NodeViewerRegistry.getBounds(aPackageNode);
+		assertEquals(before.translated(200, 0), after);
+		assertEquals(new PackageNodeViewer().getBounds(aPackageNode), after);
+	}
+	
+	@Test
+	public void testPackageChildAdded()
+	{
+		aPackageNode.addChild(aClassNode);
+		aDiagram.addRootNode(aPackageNode);
+		aClassNode.attach(aDiagram);
+		Rectangle before = NodeViewerRegistry.getBounds(aPackageNode);
+		ClassNode node = new ClassNode();
+		node.translate(300, 300);
+		aPackageNode.addChild(node);
+		node.attach(aDiagram);
+		assertNotEquals(before, NodeViewerRegistry.getBounds(aPackageNode));
+		assertEquals(new PackageNodeViewer().getBounds(aPackageNode), NodeViewerRegistry.getBounds(aPackageNode));
+	}
+	
+	@Test
+	public void testFieldDependsOnObject()
+	{
+		Diagram diagram = new Diagram(DiagramType.OBJECT);
+		ObjectNode object = new ObjectNode();
+		FieldNode field1 = new FieldNode();
+		FieldNode field2 = new FieldNode();
+		object.addChild(field1);
+		object.addChild(field2);
+		diagram.addRootNode(object);
+		field1.attach(diagram);
+		field2.attach(diagram);
+		Rectangle objectBefore = NodeViewerRegistry.getBounds(object);
+		Rectangle field2Before = NodeViewerRegistry.getBounds(field2);
+		
+		field1.setValue("A very long value that widens the object");
+		assertNotEquals(objectBefore, NodeViewerRegistry.getBounds(object));
+		assertNotEquals(field2Before, NodeViewerRegistry.getBounds(field2));
+		assertEquals(new FieldNodeViewer().getBounds(field2), NodeViewerRegistry.getBounds(field2));
+		
+		object.translate(0, 100);
+		assertEquals(new FieldNodeViewer().getBounds(field2), NodeViewerRegistry.getBounds(field2));
+	}
+	
+	@Test
+	public void testRemovedFromDiagram()
+	{
+		aDiagram.addRootNode(aClassNode);
+		NodeViewerRegistry.getBounds(aClassNode);
+		aDiagram.removeRootNode(aClassNode);
+		assertNotSameBounds(aClassNode);
+	}
+	
+	private static void assertNotSameBounds(ClassNode pNode)
+	{
+		Rectangle bounds = NodeViewerRegistry.getBounds(pNode);
+		assertEquals(bounds, NodeViewerRegistry.getBounds(pNode));
+		assertNotSame(bounds, NodeViewerRegistry.getBounds(pNode));
+	}
+}
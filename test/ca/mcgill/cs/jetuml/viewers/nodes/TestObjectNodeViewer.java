@@ -38,6 +38,7 @@ import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ObjectNode;
 import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
 
 public class TestObjectNodeViewer
 {
@@ -163,4 +164,31 @@ public class TestObjectNodeViewer
 		assertEquals(80, aViewer.getBounds(aNode).getWidth());
 		assertEquals(120, aViewer.getBounds(aNode).getHeight());
 	}
+	
+	@Test
+	public void testLayoutFollowsFieldChanges()
+	{
+		aNode.addChild(aField1);
+		aNode.addChild(aField2);
+		int split = aViewer.getSplitPosition(aNode);
+		int y = aViewer.getYPosition(aNode, aField2);
+		aField1.setName("XXXXX");
+		assertTrue(aViewer.getSplitPosition(aNode) > split);
+		aField1.setValue("X\nX\nX");
+		assertTrue(aViewer.getYPosition(aNode, aField2) > y);
+		assertEquals(new FieldNodeViewer().getBounds(aField2).getY(), aViewer.getYPosition(aNode, aField2));
+	}
+	
+	@Test
+	public void testLayoutFollowsMoves()
+	{
+		aNode.addChild(aField1);
+		Rectangle bounds = aViewer.getBounds(aNode);
+		int split = aViewer.getSplitPosition(aNode);
+		int y = aViewer.getYPosition(aNode, aField1);
+		aNode.translate(20, 40);
+		assertEquals(bounds.translated(20, 40), aViewer.getBounds(aNode));
+		assertEquals(split + 20, aViewer.getSplitPosition(aNode));
+		assertEquals(y + 40, aViewer.getYPosition(aNode, aField1));
+	}
 }
@@ -24,6 +24,7 @@ import static ca.mcgill.cs.jetuml.testutils.GeometryUtils.osDependent;
 import static ca.mcgill.cs.jetuml.views.FontMetrics.DEFAULT_FONT_SIZE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.util.stream.Stream;
 
@@ -31,6 +32,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import javafx.scene.text.Font;
@@ -64,4 +66,19 @@ public class TestFontMetrics {
 		assertEquals(new Dimension(osDependent(95, 92, 92), osDependent(13, 12, 12)), aMetrics.getDimension("Single-Line-String"));
 		assertEquals(new Dimension(osDependent(31, 30, 30), osDependent(45, 40, 45)), aMetrics.getDimension("Multi\nLine\nString"));
 	}
+	
+	@Test
+	public void testGetDimensionCached()
+	{
+		assertSame(aMetrics.getDimension("Cached"), aMetrics.getDimension("Cached"));
+	}
+	
+	// Ensures that adding character advances yields the same result as laying out the text
+	@ParameterizedTest
+	@ValueSource(strings = {"", " ", "X", "Single-Line-String", "  padded  ", "attribute : int", 
+			"~!@#$%^&*()_+{}|:\"<>?`-=[]\\;',./", "Multi\nLine\nString", "\u00ABinterface\u00BB", "caf\u00E9"})
+	public void testGetDimensionSameAsLayout(String pString)
+	{
+		assertEquals(aMetrics.layOut(pString), aMetrics.getDimension(pString));
+	}
 }
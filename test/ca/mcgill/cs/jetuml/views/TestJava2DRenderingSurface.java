@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.persistence.PersistenceService;
+import javafx.geometry.VPos;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+public class TestJava2DRenderingSurface
+{
+	private static final int SIZE = 40;
+	private static final int WHITE = java.awt.Color.WHITE.getRGB();
+	private static final int RED = java.awt.Color.RED.getRGB();
+	private static final int LIGHT_GRAY = new java.awt.Color(211, 211, 211).getRGB();
+	
+	private BufferedImage aImage;
+	private Java2DRenderingSurface aSurface;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aImage = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = aImage.createGraphics();
+		graphics.setColor(java.awt.Color.WHITE);
+		graphics.fillRect(0, 0, SIZE, SIZE);
+		aSurface = new Java2DRenderingSurface(graphics);
+	}
+	
+	private int pixel(int pX, int pY)
+	{
+		return aImage.getRGB(pX, pY);
+	}
+	
+	@Test
+	public void testInitialState()
+	{
+		assertEquals(Color.BLACK, aSurface.getStroke());
+		assertEquals(Color.BLACK, aSurface.getFill());
+		assertEquals(1, aSurface.getLineWidth());
+		assertNull(aSurface.getLineDashes());
+		assertEquals(TextAlignment.LEFT, aSurface.getTextAlign());
+		assertEquals(VPos.BASELINE, aSurface.getTextBaseline());
+	}
+	
+	@Test
+	public void testLineDashes()
+	{
+		aSurface.setLineDashes(LineStyle.DOTTED.getLineDashes());
+		assertArrayEquals(new double[] {3, 3}, aSurface.getLineDashes());
+		aSurface.getLineDashes()[0] = 1;
+		assertArrayEquals(new double[] {3, 3}, aSurface.getLineDashes());
+		aSurface.setLineDashes(LineStyle.SOLID.getLineDashes());
+		assertNull(aSurface.getLineDashes());
+	}
+	
+	@Test
+	public void testFillRect()
+	{
+		aSurface.setFill(Color.RED);
+		aSurface.fillRect(10, 10, 10, 10);
+		assertEquals(RED, pixel(15, 15));
+		assertEquals(WHITE, pixel(5, 5));
+		assertEquals(WHITE, pixel(25, 25));
+	}
+	
+	@Test
+	public void testTranslate()
+	{
+		aSurface.setFill(Color.RED);
+		aSurface.translate(10, 0);
+		aSurface.fillRect(0, 0, 5, 5);
+		assertEquals(RED, pixel(12, 2));
+		assertEquals(WHITE, pixel(2, 2));
+	}
+	
+	@Test
+	public void testShadow()
+	{
+		aSurface.setFill(Color.RED);
+		aSurface.setShadow(new DropShadow(3, 3, 3, Color.LIGHTGRAY));
+		aSurface.fillRect(5, 5, 10, 10);
+		assertEquals(RED, pixel(10, 10));
+		assertEquals(LIGHT_GRAY, pixel(16, 16));
+		aSurface.setShadow(null);
+		aSurface.fillRect(20, 20, 10, 10);
+		assertEquals(RED, pixel(25, 25));
+		assertEquals(WHITE, pixel(31, 31));
+	}
+	
+	@Test
+	public void testPath()
+	{
+		aSurface.setFill(Color.RED);
+		aSurface.beginPath();
+		aSurface.lineTo(0, 0);
+		aSurface.lineTo(SIZE, 0);
+		aSurface.lineTo(0, SIZE);
+		aSurface.fill();
+		assertEquals(RED, pixel(5, 5));
+		assertEquals(WHITE, pixel(35, 35));
+	}
+	
+	@Test
+	public void testCreateBufferedImage() throws Exception
+	{
+		Diagram diagram = PersistenceService.read(new File("testdata/testPersistenceService.class.jet")).diagram();
+		Rectangle bounds = DiagramType.viewerFor(diagram).getBounds(diagram);
+		BufferedImage expected = ImageCreator.createBufferedImage(diagram);
+		assertEquals(bounds.getWidth() + 8, expected.getWidth());
+		assertEquals(bounds.getHeight() + 8, expected.getHeight());
+		
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<BufferedImage>> images = new ArrayList<>();
+		for( int i = 0; i < 8; i++ )
+		{
+			images.add(executor.submit(() -> ImageCreator.createBufferedImage(diagram)));
+		}
+		executor.shutdown();
+		for( Future<BufferedImage> image : images )
+		{
+			assertArrayEquals(expected.getRGB(0, 0, expected.getWidth(), expected.getHeight(), null, 0, expected.getWidth()), 
+					image.get().getRGB(0, 0, expected.getWidth(), expected.getHeight(), null, 0, expected.getWidth()));
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2021 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.NoteEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.NoteNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PointNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+
+public class TestSpatialIndex
+{
+	private Diagram aDiagram;
+	private SpatialIndex aIndex;
+	private ClassNode aClass1;
+	private ClassNode aClass2;
+	private ClassNode aClass3;
+	private PackageNode aPackage;
+	private DependencyEdge aEdge;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aIndex = new SpatialIndex(aDiagram);
+		aClass1 = new ClassNode();
+		aClass2 = new ClassNode();
+		aClass3 = new ClassNode();
+		aPackage = new PackageNode();
+		aEdge = new DependencyEdge();
+		
+		aClass2.translate(300, 0);
+		aClass3.translate(600, 300);
+		aPackage.addChild(aClass3);
+		aDiagram.addRootNode(aClass1);
+		aDiagram.addRootNode(aClass2);
+		aDiagram.addRootNode(aPackage);
+		aClass3.attach(aDiagram);
+		aEdge.connect(aClass1, aClass2, aDiagram);
+		aDiagram.addEdge(aEdge);
+	}
+	
+	@Test
+	public void testRootNodesAt()
+	{
+		assertEquals(List.of(aClass1), aIndex.rootNodesAt(new Point(10, 10)));
+		assertEquals(List.of(aClass2), aIndex.rootNodesAt(new Point(350, 10)));
+		assertEquals(List.of(aPackage), aIndex.rootNodesAt(new Point(650, 330)));
+		assertTrue(aIndex.rootNodesAt(new Point(1000, 1000)).isEmpty());
+	}
+	
+	@Test
+	public void testEdgesAt()
+	{
+		assertEquals(List.of(aEdge), aIndex.edgesAt(new Point(200, 30)));
+		assertTrue(aIndex.edgesAt(new Point(200, 300)).isEmpty());
+	}
+	
+	@Test
+	public void testMove()
+	{
+		aIndex.rootNodesAt(new Point(0, 0));
+		aClass1.translate(0, 1000);
+		assertTrue(aIndex.rootNodesAt(new Point(10, 10)).isEmpty());
+		assertEquals(List.of(aClass1), aIndex.rootNodesAt(new Point(10, 1010)));
+		assertEquals(List.of(aEdge), aIndex.edgesAt(new Point(200, 500)));
+	}
+	
+	@Test
+	public void testMoveChild()
+	{
+		aIndex.rootNodesAt(new Point(0, 0));
+		aClass3.translate(1000, 0);
+		assertEquals(List.of(aPackage), aIndex.rootNodesAt(new Point(1650, 330)));
+	}
+	
+	@Test
+	public void testResize()
+	{
+		assertTrue(aIndex.rootNodesAt(new Point(10, 250)).isEmpty());
+		aClass1.setAttributes("a\nb\nc\nd\ne\nf\ng\nh\ni\nj\nk\nl\nm\nn\no\np");
+		assertEquals(List.of(aClass1), aIndex.rootNodesAt(new Point(10, 250)));
+	}
+	
+	@Test
+	public void testAddAndRemove()
+	{
+		aIndex.rootNodesAt(new Point(0, 0));
+		ClassNode node = new ClassNode();
+		node.translate(10, 10);
+		aDiagram.addRootNode(node);
+		assertEquals(List.of(aClass1, node), aIndex.rootNodesAt(new Point(20, 20)));
+		aDiagram.removeRootNode(aClass1);
+		assertEquals(List.of(node), aIndex.rootNodesAt(new Point(20, 20)));
+		aDiagram.removeEdge(aEdge);
+		assertTrue(aIndex.edgesAt(new Point(200, 30)).isEmpty());
+	}
+	
+	@Test
+	public void testOrder()
+	{
+		aIndex.rootNodesAt(new Point(0, 0));
+		aClass2.moveTo(new Point(0, 0));
+		aClass1.moveTo(new Point(10, 10));
+		assertEquals(List.of(aClass1, aClass2), aIndex.rootNodesAt(new Point(20, 20)));
+	}
+	
+	@Test
+	public void testFindSameAsWithoutIndex()
+	{
+		NoteNode note = new NoteNode();
+		note.translate(100, 100);
+		PointNode pointNode = new PointNode();
+		pointNode.translate(400, 200);
+		aDiagram.addRootNode(note);
+		aDiagram.addRootNode(pointNode);
+		NoteEdge noteEdge = new NoteEdge();
+		noteEdge.connect(note, pointNode, aDiagram);
+		aDiagram.addEdge(noteEdge);
+		ClassNode overlapping = new ClassNode();
+		overlapping.translate(620, 320);
+		aPackage.addChild(overlapping);
+		overlapping.attach(aDiagram);
+		
+		DiagramViewer viewer = DiagramType.viewerFor(aDiagram);
+		for( int x = -50; x < 900; x += 7 )
+		{
+			for( int y = -50; y < 500; y += 7 )
+			{
+				Point point = new Point(x, y);
+				assertEquals(viewer.findNode(aDiagram, point), viewer.findNode(aIndex, point));
+				assertEquals(viewer.findEdge(aDiagram, point), viewer.findEdge(aIndex, point));
+			}
+		}
+	}
+}